@@ -0,0 +1,80 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the wall time of complete StatisticsApp runs from the packaged jar, started
+ * with the default JVM options and with the lean options plus the AppCDS archive used by
+ * the launcher script. Run by the {@code cds} profile after the training run.
+ * Usage: StartupTimer &lt;jar&gt; &lt;archive&gt; &lt;data_file&gt; [runs]
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class StartupTimer {
+
+    /** JVM options of the launcher, besides the archive itself. */
+    static final List<String> LEAN_OPTIONS = Arrays.asList(
+            "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-XX:-UsePerfData");
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int DEFAULT_RUNS = 10;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Usage: java StartupTimer <jar> <archive> <data_file> [runs]");
+            System.exit(1);
+        }
+        String jar = args[0];
+        String archive = args[1];
+        String dataFile = args[2];
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RUNS;
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        List<String> baseline = Arrays.asList(java, "-jar", jar, dataFile);
+        List<String> lean = new ArrayList<>();
+        lean.add(java);
+        lean.add("-XX:SharedArchiveFile=" + archive);
+        lean.addAll(LEAN_OPTIONS);
+        lean.addAll(Arrays.asList("-jar", jar, dataFile));
+
+        System.out.println("Startup time over " + runs + " runs of " + dataFile);
+        report("default", time(baseline, runs));
+        report("AppCDS + lean options", time(lean, runs));
+    }
+
+    /**
+     * Runs a command repeatedly after a few warm-up runs, returning each run's wall time in nanoseconds.
+     */
+    private static long[] time(List<String> command, int runs) throws IOException, InterruptedException {
+        long[] nanos = new long[runs];
+        for (int i = -WARMUP_RUNS; i < runs; i++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            int exitCode = process.waitFor();
+            long elapsed = System.nanoTime() - start;
+            if (exitCode != 0) {
+                throw new IOException("Command failed with exit code " + exitCode + ": " + command);
+            }
+            if (i >= 0) {
+                nanos[i] = elapsed;
+            }
+        }
+        return nanos;
+    }
+
+    private static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1e6;
+        System.out.printf("  %-22s mean %6.1f ms, median %6.1f ms, min %6.1f ms%n", label, mean,
+                sorted[sorted.length / 2] / 1e6, sorted[0] / 1e6);
+    }
+}
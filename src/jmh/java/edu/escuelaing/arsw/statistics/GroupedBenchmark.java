@@ -0,0 +1,86 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-key aggregation of already-read {@code key value} lines: a HashMap from the extracted
+ * key to a RunningStatistics object versus the open-addressing GroupedStatistics table, which
+ * hashes the key in place and only creates its string the first time it is seen. The presized
+ * variant shows the cost of growing the table when the number of keys is not known up front.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Thread)
+public class GroupedBenchmark {
+
+    private static final int LINES = 2_000_000;
+
+    @Param({"1000", "1000000"})
+    int keys;
+
+    private String[] lines;
+    private int[] keyLengths;
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lines = new String[LINES];
+        keyLengths = new int[LINES];
+        values = new double[LINES];
+        for (int i = 0; i < LINES; i++) {
+            String key = "sensor-" + random.nextInt(keys);
+            values[i] = random.nextGaussian();
+            lines[i] = key + " " + values[i];
+            keyLengths[i] = key.length();
+        }
+    }
+
+    @Benchmark
+    public Object hashMap() {
+        Map<String, RunningStatistics> groups = new HashMap<>();
+        for (int i = 0; i < LINES; i++) {
+            groups.computeIfAbsent(lines[i].substring(0, keyLengths[i]), k -> new RunningStatistics())
+                    .accept(values[i]);
+        }
+        return groups;
+    }
+
+    @Benchmark
+    public Object grouped() {
+        return fill(new GroupedStatistics());
+    }
+
+    @Benchmark
+    public Object groupedPresized() {
+        return fill(new GroupedStatistics(keys));
+    }
+
+    private GroupedStatistics fill(GroupedStatistics groups) {
+        for (int i = 0; i < LINES; i++) {
+            groups.accept(lines[i], keyLengths[i], values[i]);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,99 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership-heavy workloads on an indexed CustomLinkedList versus a plain one: a
+ * deduplicating fill that calls {@code contains} before each add, a churn that
+ * removes a random present element by value and appends it again, and a fill and drain of
+ * a column with a hundred copies of each value, which exercises the chains of equal nodes.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexBenchmark {
+
+    @Param({"1000", "10000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean indexed;
+
+    private Integer[] values;
+    private CustomLinkedList<Integer> list;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            // About half the values are duplicates
+            values[i] = random.nextInt(size / 2 + 1);
+        }
+        list = new CustomLinkedList<>();
+        list.setIndexed(indexed);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+    }
+
+    @Benchmark
+    public Object distinctFill() {
+        CustomLinkedList<Integer> distinct = new CustomLinkedList<>();
+        distinct.setIndexed(indexed);
+        for (Integer value : values) {
+            if (!distinct.contains(value)) {
+                distinct.add(value);
+            }
+        }
+        return distinct;
+    }
+
+    @Benchmark
+    public boolean removeAndAppend() {
+        Integer value = random.nextInt(size);
+        boolean removed = list.remove(value);
+        list.add(value);
+        return removed;
+    }
+
+    @Benchmark
+    public int duplicateDrain() {
+        CustomLinkedList<Integer> column = new CustomLinkedList<>();
+        column.setIndexed(indexed);
+        int distinct = size / 100;
+        for (int i = 0; i < size; i++) {
+            column.add(i % distinct);
+        }
+        int sum = 0;
+        // Alternate head removals with removals by value of the last copy
+        while (!column.isEmpty()) {
+            Integer value = column.pollFirst();
+            sum += value;
+            if (column.removeLastOccurrence(value)) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+}
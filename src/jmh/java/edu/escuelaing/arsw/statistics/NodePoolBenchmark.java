@@ -0,0 +1,70 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue-like churn on CustomLinkedList with and without node recycling.
+ * Run with {@code -prof gc} to compare gc.alloc.rate.norm between the two modes.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodePoolBenchmark {
+
+    @Param({"0", "1024"})
+    int poolCapacity;
+
+    @Param({"1024"})
+    int windowSize;
+
+    private CustomLinkedList<Integer> list;
+    private final Integer element = 42;
+
+    @Setup
+    public void setUp() {
+        list = new CustomLinkedList<>();
+        list.setNodePoolCapacity(poolCapacity);
+        for (int i = 0; i < windowSize; i++) {
+            list.add(element);
+        }
+    }
+
+    /**
+     * Appends at the tail and removes at the head, keeping the size constant.
+     */
+    @Benchmark
+    public Integer addRemoveChurn() {
+        list.add(element);
+        return list.removeFirst();
+    }
+
+    /**
+     * Refills the whole window after a bulk clear.
+     */
+    @Benchmark
+    public int clearAndRefill() {
+        list.clear();
+        for (int i = 0; i < windowSize; i++) {
+            list.add(element);
+        }
+        return list.size();
+    }
+}
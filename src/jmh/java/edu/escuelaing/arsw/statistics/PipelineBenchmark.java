@@ -0,0 +1,89 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A drop-sentinel, unit-conversion and clip sequence computed with an intermediate
+ * CustomLinkedList per step versus a fused DoublePipeline feeding the accumulator directly.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+    private static final double SENTINEL = -999;
+
+    @Param({"1000000"})
+    int size;
+
+    private double[] values;
+    private CustomLinkedList<Double> loaded;
+    private DoublePipeline pipeline;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[size];
+        loaded = new CustomLinkedList<>();
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(20) == 0 ? SENTINEL : random.nextGaussian() * 15 + 20;
+            loaded.add(values[i]);
+        }
+        pipeline = DoublePipeline.create()
+                .filter(v -> v != SENTINEL)
+                .map(v -> v * 1.8 + 32)
+                .clip(-40, 140);
+    }
+
+    @Benchmark
+    public Object intermediateLists() {
+        CustomLinkedList<Double> valid = new CustomLinkedList<>();
+        for (double value : loaded) {
+            if (value != SENTINEL) {
+                valid.add(value);
+            }
+        }
+        CustomLinkedList<Double> converted = new CustomLinkedList<>();
+        for (double value : valid) {
+            converted.add(value * 1.8 + 32);
+        }
+        CustomLinkedList<Double> clipped = new CustomLinkedList<>();
+        for (double value : converted) {
+            clipped.add(Math.max(-40, Math.min(140, value)));
+        }
+        return StatisticsCalculator.calculateStatistics(clipped);
+    }
+
+    @Benchmark
+    public Object fusedPipeline() {
+        RunningStatistics stats = new RunningStatistics();
+        pipeline.apply(loaded, stats);
+        return stats.toResult();
+    }
+
+    @Benchmark
+    public Object fusedPipelineFromArray() {
+        RunningStatistics stats = new RunningStatistics();
+        pipeline.apply(values, stats);
+        return stats.toResult();
+    }
+}
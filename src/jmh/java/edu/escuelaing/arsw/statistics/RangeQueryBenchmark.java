@@ -0,0 +1,69 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mean and standard deviation of a random index range of a loaded column: a sublist of the
+ * CustomLinkedList passed to calculateStatistics versus a query on a RangeStatistics index
+ * built once, plus the cost of a point update on the index.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RangeQueryBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    private CustomLinkedList<Double> column;
+    private RangeStatistics index;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        column = new CustomLinkedList<>();
+        for (int i = 0; i < size; i++) {
+            column.add(random.nextGaussian());
+        }
+        index = new RangeStatistics(column);
+    }
+
+    @Benchmark
+    public Object subList() {
+        int from = random.nextInt(size / 2);
+        int to = from + 2 + random.nextInt(size / 2 - 1);
+        return StatisticsCalculator.calculateStatistics(column.subList(from, to));
+    }
+
+    @Benchmark
+    public Object indexed() {
+        int from = random.nextInt(size / 2);
+        int to = from + 2 + random.nextInt(size / 2 - 1);
+        return index.statistics(from, to);
+    }
+
+    @Benchmark
+    public void indexedUpdate() {
+        index.set(random.nextInt(size), random.nextGaussian());
+    }
+}
@@ -0,0 +1,94 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compact CustomLinkedList serialization versus default serialization of an ArrayList copy.
+ * The serialized sizes of both forms are printed once per fork.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private CustomLinkedList<Double> list;
+    private byte[] compactBytes;
+    private byte[] defaultBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        list = new CustomLinkedList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(random.nextGaussian());
+        }
+        compactBytes = serialize(list);
+        defaultBytes = serialize(new ArrayList<>(list));
+        System.out.printf("%n[size=%d] compact: %d bytes, ArrayList default: %d bytes%n",
+                size, compactBytes.length, defaultBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeCompact() throws IOException {
+        return serialize(list);
+    }
+
+    @Benchmark
+    public byte[] writeArrayListCopy() throws IOException {
+        return serialize(new ArrayList<>(list));
+    }
+
+    @Benchmark
+    public Object readCompact() throws IOException, ClassNotFoundException {
+        return deserialize(compactBytes);
+    }
+
+    @Benchmark
+    public Object readArrayListCopy() throws IOException, ClassNotFoundException {
+        @SuppressWarnings("unchecked")
+        ArrayList<Double> copy = (ArrayList<Double>) deserialize(defaultBytes);
+        return new CustomLinkedList<>(copy);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
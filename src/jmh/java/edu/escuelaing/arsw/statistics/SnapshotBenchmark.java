@@ -0,0 +1,103 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ingestion thread appending while a reporting thread repeatedly sums the list:
+ * lock-free snapshots in snapshot mode versus copying the list under a shared lock.
+ * The list is cleared whenever it reaches the given size, to keep its length bounded.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SnapshotBenchmark {
+
+    @Param({"10000", "100000"})
+    int size;
+
+    private CustomLinkedList<Double> snapshotList;
+    private CustomLinkedList<Double> lockedList;
+    private final Object lock = new Object();
+    private double next;
+
+    @Setup
+    public void setUp() {
+        snapshotList = new CustomLinkedList<>();
+        snapshotList.setSnapshotsEnabled(true);
+        lockedList = new CustomLinkedList<>();
+        for (int i = 0; i < size / 2; i++) {
+            snapshotList.add((double) i);
+            lockedList.add((double) i);
+        }
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public void snapshotAppend() {
+        if (snapshotList.size() >= size) {
+            snapshotList.clear();
+        }
+        snapshotList.add(next++);
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public double snapshotReport() {
+        double sum = 0;
+        for (double value : snapshotList.snapshot()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Group("lockedCopy")
+    @GroupThreads(1)
+    public void lockedAppend() {
+        synchronized (lock) {
+            if (lockedList.size() >= size) {
+                lockedList.clear();
+            }
+            lockedList.add(next++);
+        }
+    }
+
+    @Benchmark
+    @Group("lockedCopy")
+    @GroupThreads(1)
+    public double lockedReport() {
+        List<Double> copy;
+        synchronized (lock) {
+            copy = new ArrayList<>(lockedList);
+        }
+        double sum = 0;
+        for (double value : copy) {
+            sum += value;
+        }
+        return sum;
+    }
+}
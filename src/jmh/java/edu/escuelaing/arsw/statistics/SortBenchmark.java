@@ -0,0 +1,86 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-place node-relinking sorts of CustomLinkedList versus the copy-sort-write-back
+ * List.sort of java.util.LinkedList. The lists are refilled with the same shuffled
+ * values before every invocation.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    private double[] values;
+    private CustomLinkedList<Double> custom;
+    private LinkedList<Double> linked;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextDouble();
+        }
+        custom = new CustomLinkedList<>();
+        linked = new LinkedList<>();
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        refill(custom);
+        refill(linked);
+    }
+
+    @Benchmark
+    public Object customSort() {
+        custom.sort(Comparator.naturalOrder());
+        return custom;
+    }
+
+    @Benchmark
+    public Object customParallelSort() {
+        custom.parallelSort(Comparator.naturalOrder());
+        return custom;
+    }
+
+    @Benchmark
+    public Object linkedListSort() {
+        linked.sort(Comparator.naturalOrder());
+        return linked;
+    }
+
+    private void refill(List<Double> list) {
+        list.clear();
+        for (double value : values) {
+            list.add(value);
+        }
+    }
+}
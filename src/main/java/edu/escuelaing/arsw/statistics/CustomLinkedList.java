@@ -1,22 +1,61 @@
 package edu.escuelaing.arsw.statistics;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.AbstractSequentialList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Custom implementation of a LinkedList that is compliant with Java's Collections API.
- * This implementation uses a doubly-linked list structure with head and tail pointers.
+ * This implementation uses a doubly-linked list structure with head and tail pointers,
+ * and also implements {@link Deque} with O(1) operations at both ends.
+ * Serialized lists use a compact length-prefixed format, writing elements as raw doubles
+ * when every element is a non-null Double.
+ * In snapshot mode, other threads can take O(1) {@linkplain #snapshot() snapshots} and
+ * iterate them without locking while the owning thread keeps appending.
  * 
  * @param <E> the type of elements held in this collection
  * @author Diego Cardenas
  * @version 1.0
  */
-public class CustomLinkedList<E> implements List<E> {
+public class CustomLinkedList<E> implements List<E>, Deque<E>, Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /** Serialized element encodings. */
+    private static final byte OBJECT_ELEMENTS = 0;
+    private static final byte DOUBLE_ELEMENTS = 1;
+    
+    /** Sub-chains at most this long are sorted sequentially by {@link #parallelSort(Comparator)}. */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    
+    /** Release and acquire access to size, publishing appends to snapshot readers. */
+    private static final VarHandle SIZE;
+    
+    static {
+        try {
+            SIZE = MethodHandles.lookup().findVarHandle(CustomLinkedList.class, "size", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
     
     /**
      * Node class representing each element in the linked list
@@ -40,10 +79,43 @@ public class CustomLinkedList<E> implements List<E> {
         }
     }
     
-    private Node<E> head;
-    private Node<E> tail;
-    private int size;
-    private int modCount = 0;
+    /**
+     * Node of an indexed list, which also chains the nodes holding an equal element in list
+     * order. The first node's prevEqual points to the last one so both ends are reachable in
+     * O(1). Only indexed lists pay for the two extra references.
+     * @param <E> the type of data stored in the node
+     */
+    private static final class IndexedNode<E> extends Node<E> {
+        IndexedNode<E> nextEqual;
+        IndexedNode<E> prevEqual;
+        
+        IndexedNode(E data, Node<E> prev, Node<E> next) {
+            super(data, prev, next);
+        }
+    }
+    
+    private transient Node<E> head;
+    private transient Node<E> tail;
+    private transient int size;
+    private transient int modCount = 0;
+    
+    // Free list of unlinked nodes, chained through next, used when recycling is enabled
+    private transient Node<E> pool;
+    private transient int poolSize;
+    private transient int poolCapacity;
+    
+    // Element index used in indexed mode: maps each element to the first node holding it,
+    // from which the chain of equal nodes leads to the others
+    private transient HashMap<Object, IndexedNode<E>> index;
+    
+    // Snapshot mode: changes other than appends make changeVersion odd while they run, so
+    // snapshot() can retry instead of reading a half-made change, and first copy the nodes
+    // away from any snapshot when shared is set
+    private transient boolean snapshotsEnabled;
+    private transient volatile int changeVersion;
+    private transient volatile boolean shared;
+    // Number of such copies, so iterators know to look their nodes up again
+    private transient int detachCount;
     
     /**
      * Constructs an empty list.
@@ -75,6 +147,9 @@ public class CustomLinkedList<E> implements List<E> {
     
     @Override
     public boolean contains(Object o) {
+        if (index != null) {
+            return index.containsKey(o);
+        }
         return indexOf(o) != -1;
     }
     
@@ -119,6 +194,14 @@ public class CustomLinkedList<E> implements List<E> {
     
     @Override
     public boolean remove(Object o) {
+        if (index != null) {
+            IndexedNode<E> first = index.get(o);
+            if (first == null) {
+                return false;
+            }
+            unlink(first);
+            return true;
+        }
         if (o == null) {
             for (Node<E> x = head; x != null; x = x.next) {
                 if (x.data == null) {
@@ -162,18 +245,42 @@ public class CustomLinkedList<E> implements List<E> {
             return false;
         }
         
-        Node<E> pred, succ;
         if (index == size) {
-            succ = null;
-            pred = tail;
-        } else {
-            succ = node(index);
-            pred = succ.prev;
+            linkAllLast(a);
+            return true;
         }
-        
+        beginChange(null);
+        try {
+            Node<E> succ = node(index);
+            Node<E> pred = succ.prev;
+            for (Object o : a) {
+                @SuppressWarnings("unchecked") E e = (E) o;
+                Node<E> newNode = newNode(e, pred, succ);
+                if (pred == null) {
+                    head = newNode;
+                } else {
+                    pred.next = newNode;
+                }
+                pred = newNode;
+            }
+            pred.next = succ;
+            succ.prev = pred;
+            size += numNew;
+            modCount++;
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+    
+    /**
+     * Appends the elements of an array, publishing them to snapshots only once all are linked.
+     */
+    private void linkAllLast(Object[] a) {
+        Node<E> pred = tail;
         for (Object o : a) {
             @SuppressWarnings("unchecked") E e = (E) o;
-            Node<E> newNode = new Node<>(e, pred, null);
+            Node<E> newNode = newNode(e, pred, null);
             if (pred == null) {
                 head = newNode;
             } else {
@@ -181,17 +288,9 @@ public class CustomLinkedList<E> implements List<E> {
             }
             pred = newNode;
         }
-        
-        if (succ == null) {
-            tail = pred;
-        } else {
-            pred.next = succ;
-            succ.prev = pred;
-        }
-        
-        size += numNew;
+        tail = pred;
+        publishSize(size + a.length);
         modCount++;
-        return true;
     }
     
     @Override
@@ -222,18 +321,34 @@ public class CustomLinkedList<E> implements List<E> {
         return modified;
     }
     
+    /**
+     * Removes all of the elements from this list.
+     * When node recycling is enabled, the nodes are kept in the free list (up to its
+     * capacity) for reuse by later insertions.
+     */
     @Override
     public void clear() {
-        for (Node<E> x = head; x != null; ) {
-            Node<E> next = x.next;
-            x.data = null;
-            x.next = null;
-            x.prev = null;
-            x = next;
+        beginRelink();
+        try {
+            if (index != null) {
+                index.clear();
+            }
+            if (snapshotsEnabled && shared) {
+                // Leave the nodes to the snapshots that may still be reading them
+                shared = false;
+            } else {
+                for (Node<E> x = head; x != null; ) {
+                    Node<E> next = x.next;
+                    recycle(x);
+                    x = next;
+                }
+            }
+            head = tail = null;
+            size = 0;
+            modCount++;
+        } finally {
+            endChange();
         }
-        head = tail = null;
-        size = 0;
-        modCount++;
     }
     
     @Override
@@ -247,7 +362,7 @@ public class CustomLinkedList<E> implements List<E> {
         checkElementIndex(index);
         Node<E> x = node(index);
         E oldVal = x.data;
-        x.data = element;
+        setData(x, element);
         return oldVal;
     }
     
@@ -270,6 +385,9 @@ public class CustomLinkedList<E> implements List<E> {
     
     @Override
     public int indexOf(Object o) {
+        if (index != null && !index.containsKey(o)) {
+            return -1;
+        }
         int index = 0;
         if (o == null) {
             for (Node<E> x = head; x != null; x = x.next) {
@@ -291,6 +409,9 @@ public class CustomLinkedList<E> implements List<E> {
     
     @Override
     public int lastIndexOf(Object o) {
+        if (index != null && !index.containsKey(o)) {
+            return -1;
+        }
         int index = size;
         if (o == null) {
             for (Node<E> x = tail; x != null; x = x.prev) {
@@ -336,20 +457,321 @@ public class CustomLinkedList<E> implements List<E> {
         return subList;
     }
     
+    /**
+     * Sorts this list in place with a stable bottom-up merge sort that only relinks nodes,
+     * using O(1) extra space (a fixed table of 32 pending runs) instead of copying the
+     * elements to an array and back.
+     * If the comparator throws, every element is kept, the order is unspecified, and
+     * the exception is rethrown.
+     * 
+     * @param c the comparator, or null for the elements' natural ordering
+     * @throws ClassCastException if c is null and the elements are not mutually comparable
+     */
+    @Override
+    public void sort(Comparator<? super E> c) {
+        NodeSorter<E> sorter = new NodeSorter<>(c);
+        beginChange(null);
+        try {
+            setSortedChain(sorter.sortChain(head));
+        } finally {
+            endChange();
+        }
+        sorter.rethrowFailure();
+    }
+    
+    /**
+     * Sorts this list in place like {@link #sort(Comparator)}, sorting sub-chains of the list
+     * concurrently in the common fork/join pool and merging them. Lists shorter than a
+     * threshold are sorted sequentially. The comparator must be safe to call from several threads.
+     * 
+     * @param c the comparator, or null for the elements' natural ordering
+     * @throws ClassCastException if c is null and the elements are not mutually comparable
+     */
+    public void parallelSort(Comparator<? super E> c) {
+        if (size <= PARALLEL_SORT_THRESHOLD) {
+            sort(c);
+            return;
+        }
+        NodeSorter<E> sorter = new NodeSorter<>(c);
+        beginChange(null);
+        try {
+            setSortedChain(ForkJoinPool.commonPool().invoke(new SortTask<>(sorter, head, size)));
+        } finally {
+            endChange();
+        }
+        sorter.rethrowFailure();
+    }
+    
+    /**
+     * Installs a sorted chain whose head keeps the tail in its prev link.
+     */
+    private void setSortedChain(Node<E> first) {
+        if (first != null) {
+            tail = first.prev;
+            first.prev = null;
+        }
+        head = first;
+        if (index != null) {
+            // Sorting reorders the chains of equal nodes along with the list
+            buildIndex();
+        }
+        modCount++;
+    }
+    
+    /**
+     * Merge sort over chains of nodes. While sorting, the first node of a sorted chain
+     * keeps the chain's last node in its prev link, so chains can be merged without walking
+     * to their ends. A comparator failure is recorded and later comparisons treat the
+     * elements as equal, so the sort still relinks every node before the failure is rethrown.
+     */
+    private static final class NodeSorter<E> {
+        private final Comparator<? super E> comparator;
+        private volatile Throwable failure;
+        
+        @SuppressWarnings("unchecked")
+        NodeSorter(Comparator<? super E> comparator) {
+            this.comparator = comparator != null
+                    ? comparator
+                    : (Comparator<? super E>) Comparator.naturalOrder();
+        }
+        
+        private int compare(E a, E b) {
+            if (failure != null) {
+                return 0;
+            }
+            try {
+                return comparator.compare(a, b);
+            } catch (RuntimeException | Error e) {
+                failure = e;
+                return 0;
+            }
+        }
+        
+        /**
+         * Sorts a null-terminated chain bottom-up, keeping at most one pending sorted run per
+         * power-of-two length, like a binary counter. Runs are merged as soon as a partner of the
+         * same length exists, so merges work on recently touched nodes instead of sweeping the
+         * whole list once per pass.
+         */
+        @SuppressWarnings("unchecked")
+        Node<E> sortChain(Node<E> list) {
+            // runs[i] holds 2^i nodes; earlier elements sit in higher slots
+            Node<E>[] runs = (Node<E>[]) new Node<?>[Integer.SIZE];
+            Node<E> p = list;
+            while (p != null) {
+                Node<E> next = p.next;
+                p.next = null;
+                p.prev = p;
+                Node<E> carry = p;
+                int i = 0;
+                for (; runs[i] != null; i++) {
+                    carry = merge(runs[i], carry);
+                    runs[i] = null;
+                }
+                runs[i] = carry;
+                p = next;
+            }
+            Node<E> sorted = null;
+            for (Node<E> run : runs) {
+                if (run != null) {
+                    sorted = merge(run, sorted);
+                }
+            }
+            return sorted;
+        }
+        
+        /**
+         * Merges two sorted chains, taking from the first on ties.
+         */
+        Node<E> merge(Node<E> a, Node<E> b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            Node<E> aLast = a.prev;
+            Node<E> bLast = b.prev;
+            Node<E> first = null;
+            Node<E> last = null;
+            while (a != null && b != null) {
+                Node<E> e;
+                if (compare(a.data, b.data) <= 0) {
+                    e = a;
+                    a = a.next;
+                } else {
+                    e = b;
+                    b = b.next;
+                }
+                if (last == null) {
+                    first = e;
+                } else {
+                    last.next = e;
+                }
+                e.prev = last;
+                last = e;
+            }
+            Node<E> rest = a != null ? a : b;
+            last.next = rest;
+            rest.prev = last;
+            first.prev = a != null ? aLast : bLast;
+            return first;
+        }
+        
+        void rethrowFailure() {
+            Throwable t = failure;
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+        }
+    }
+    
+    /**
+     * Sorts a chain by splitting it in halves, sorting the halves concurrently and merging them.
+     */
+    @SuppressWarnings("serial")
+    private static final class SortTask<E> extends RecursiveTask<Node<E>> {
+        private final NodeSorter<E> sorter;
+        private final Node<E> first;
+        private final int length;
+        
+        SortTask(NodeSorter<E> sorter, Node<E> first, int length) {
+            this.sorter = sorter;
+            this.first = first;
+            this.length = length;
+        }
+        
+        @Override
+        protected Node<E> compute() {
+            if (length <= PARALLEL_SORT_THRESHOLD) {
+                return sorter.sortChain(first);
+            }
+            int half = length >>> 1;
+            Node<E> mid = first;
+            for (int i = 1; i < half; i++) {
+                mid = mid.next;
+            }
+            Node<E> second = mid.next;
+            mid.next = null;
+            second.prev = null;
+            
+            SortTask<E> left = new SortTask<>(sorter, first, half);
+            left.fork();
+            Node<E> right = new SortTask<>(sorter, second, length - half).compute();
+            return sorter.merge(left.join(), right);
+        }
+    }
+    
+    /**
+     * Compares the specified object with this list for equality, as defined by
+     * {@link List#equals(Object)}: both are lists with equal elements in the same order.
+     * 
+     * @param o the object to compare with
+     * @return true if the object is a list equal to this one
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof List)) {
+            return false;
+        }
+        List<?> other = (List<?>) o;
+        if (other.size() != size) {
+            return false;
+        }
+        Iterator<?> it = other.iterator();
+        for (Node<E> x = head; x != null; x = x.next) {
+            if (!it.hasNext() || !Objects.equals(x.data, it.next())) {
+                return false;
+            }
+        }
+        return !it.hasNext();
+    }
+    
+    /**
+     * Returns the hash code of this list, as defined by {@link List#hashCode()}.
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (Node<E> x = head; x != null; x = x.next) {
+            hashCode = 31 * hashCode + (x.data == null ? 0 : x.data.hashCode());
+        }
+        return hashCode;
+    }
+    
+    /**
+     * Writes the size, an encoding tag, then each element: as a raw double when all
+     * elements are non-null Doubles, otherwise as an object.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        
+        boolean allDoubles = true;
+        for (Node<E> x = head; x != null && allDoubles; x = x.next) {
+            allDoubles = x.data instanceof Double;
+        }
+        
+        if (allDoubles) {
+            s.writeByte(DOUBLE_ELEMENTS);
+            for (Node<E> x = head; x != null; x = x.next) {
+                s.writeDouble((Double) x.data);
+            }
+        } else {
+            s.writeByte(OBJECT_ELEMENTS);
+            for (Node<E> x = head; x != null; x = x.next) {
+                s.writeObject(x.data);
+            }
+        }
+    }
+    
+    /**
+     * Reads a list written by {@link #writeObject(ObjectOutputStream)}, appending
+     * elements as they are decoded.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int n = s.readInt();
+        if (n < 0) {
+            throw new InvalidObjectException("Negative size: " + n);
+        }
+        byte encoding = s.readByte();
+        if (encoding == DOUBLE_ELEMENTS) {
+            for (int i = 0; i < n; i++) {
+                addLast((E) Double.valueOf(s.readDouble()));
+            }
+        } else if (encoding == OBJECT_ELEMENTS) {
+            for (int i = 0; i < n; i++) {
+                addLast((E) s.readObject());
+            }
+        } else {
+            throw new InvalidObjectException("Unknown element encoding: " + encoding);
+        }
+    }
+    
     /**
      * Adds the specified element as the tail (last element) of this list.
      * @param e the element to add
      */
+    @Override
     public void addLast(E e) {
         final Node<E> l = tail;
-        final Node<E> newNode = new Node<>(e, l, null);
+        final Node<E> newNode = newNode(e, l, null);
         tail = newNode;
         if (l == null) {
             head = newNode;
         } else {
             l.next = newNode;
         }
-        size++;
+        publishSize(size + 1);
         modCount++;
     }
     
@@ -357,17 +779,186 @@ public class CustomLinkedList<E> implements List<E> {
      * Adds the specified element as the head (first element) of this list.
      * @param e the element to add
      */
+    @Override
     public void addFirst(E e) {
-        final Node<E> f = head;
-        final Node<E> newNode = new Node<>(e, null, f);
-        head = newNode;
-        if (f == null) {
-            tail = newNode;
-        } else {
-            f.prev = newNode;
+        // Snapshots never read prev links, so the nodes they hold need no copy
+        beginRelink();
+        try {
+            final Node<E> f = head;
+            final Node<E> newNode = newNode(e, null, f);
+            head = newNode;
+            if (f == null) {
+                tail = newNode;
+            } else {
+                f.prev = newNode;
+            }
+            size++;
+            modCount++;
+        } finally {
+            endChange();
         }
-        size++;
-        modCount++;
+    }
+    
+    // Deque operations, working directly on the head and tail nodes
+    
+    @Override
+    public boolean offerFirst(E e) {
+        addFirst(e);
+        return true;
+    }
+    
+    @Override
+    public boolean offerLast(E e) {
+        addLast(e);
+        return true;
+    }
+    
+    @Override
+    public E removeFirst() {
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        return unlink(head);
+    }
+    
+    @Override
+    public E removeLast() {
+        if (tail == null) {
+            throw new NoSuchElementException();
+        }
+        return unlink(tail);
+    }
+    
+    @Override
+    public E pollFirst() {
+        return head == null ? null : unlink(head);
+    }
+    
+    @Override
+    public E pollLast() {
+        return tail == null ? null : unlink(tail);
+    }
+    
+    @Override
+    public E getFirst() {
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        return head.data;
+    }
+    
+    @Override
+    public E getLast() {
+        if (tail == null) {
+            throw new NoSuchElementException();
+        }
+        return tail.data;
+    }
+    
+    @Override
+    public E peekFirst() {
+        return head == null ? null : head.data;
+    }
+    
+    @Override
+    public E peekLast() {
+        return tail == null ? null : tail.data;
+    }
+    
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        return remove(o);
+    }
+    
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        if (index != null) {
+            IndexedNode<E> first = index.get(o);
+            if (first == null) {
+                return false;
+            }
+            unlink(first.prevEqual);
+            return true;
+        }
+        for (Node<E> x = tail; x != null; x = x.prev) {
+            if (Objects.equals(o, x.data)) {
+                unlink(x);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean offer(E e) {
+        return offerLast(e);
+    }
+    
+    @Override
+    public E remove() {
+        return removeFirst();
+    }
+    
+    @Override
+    public E poll() {
+        return pollFirst();
+    }
+    
+    @Override
+    public E element() {
+        return getFirst();
+    }
+    
+    @Override
+    public E peek() {
+        return peekFirst();
+    }
+    
+    @Override
+    public void push(E e) {
+        addFirst(e);
+    }
+    
+    @Override
+    public E pop() {
+        return removeFirst();
+    }
+    
+    /**
+     * Returns an iterator over the elements from tail to head.
+     * The iterator is fail-fast and supports {@code remove}.
+     * @return a descending iterator
+     */
+    @Override
+    public Iterator<E> descendingIterator() {
+        final ListIterator<E> it = new CustomListIterator(size);
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasPrevious();
+            }
+            
+            @Override
+            public E next() {
+                return it.previous();
+            }
+            
+            @Override
+            public void remove() {
+                it.remove();
+            }
+        };
+    }
+    
+    /**
+     * Returns a live view of this list in reverse order, walking the same nodes from tail to
+     * head. Changes through the view, including structural ones, are made to this list and
+     * changes to this list are visible in the view. The view's iterators are fail-fast.
+     * To get an independent reversed list, copy the view.
+     * @return the reverse-ordered view
+     */
+    public ReverseView reversed() {
+        return new ReverseView();
     }
     
     /**
@@ -393,44 +984,436 @@ public class CustomLinkedList<E> implements List<E> {
      * Inserts element e before non-null Node succ.
      */
     private void addBefore(E e, Node<E> succ) {
-        final Node<E> pred = succ.prev;
-        final Node<E> newNode = new Node<>(e, pred, succ);
-        succ.prev = newNode;
-        if (pred == null) {
-            head = newNode;
-        } else {
-            pred.next = newNode;
+        succ = beginChange(succ);
+        try {
+            final Node<E> pred = succ.prev;
+            final Node<E> newNode = newNode(e, pred, succ);
+            succ.prev = newNode;
+            if (pred == null) {
+                head = newNode;
+            } else {
+                pred.next = newNode;
+            }
+            size++;
+            modCount++;
+        } finally {
+            endChange();
         }
-        size++;
-        modCount++;
     }
     
     /**
      * Unlinks non-null node x.
      */
     private E unlink(Node<E> x) {
-        final E element = x.data;
-        final Node<E> next = x.next;
-        final Node<E> prev = x.prev;
-        
-        if (prev == null) {
-            head = next;
-        } else {
-            prev.next = next;
-            x.prev = null;
-        }
-        
-        if (next == null) {
-            tail = prev;
-        } else {
-            next.prev = prev;
+        x = beginChange(x);
+        try {
+            final E element = x.data;
+            final Node<E> next = x.next;
+            final Node<E> prev = x.prev;
+            
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+                x.prev = null;
+            }
+            
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+                x.next = null;
+            }
+            
+            if (index != null) {
+                indexRemove(x);
+            }
+            recycle(x);
+            size--;
+            modCount++;
+            return element;
+        } finally {
+            endChange();
+        }
+    }
+    
+    /**
+     * Enables node recycling with a free list of at most the given number of nodes,
+     * or disables it when the capacity is zero.
+     * Recycling trades a bounded amount of retained memory for fewer allocations in
+     * workloads that repeatedly add and remove elements.
+     * 
+     * @param capacity maximum number of unlinked nodes kept for reuse
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public void setNodePoolCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Pool capacity cannot be negative: " + capacity);
+        }
+        poolCapacity = capacity;
+        while (poolSize > capacity) {
+            Node<E> x = pool;
+            pool = x.next;
             x.next = null;
+            poolSize--;
         }
-        
+    }
+    
+    /**
+     * Returns the maximum number of nodes kept for reuse.
+     * @return the node pool capacity, zero when recycling is disabled
+     */
+    public int getNodePoolCapacity() {
+        return poolCapacity;
+    }
+    
+    /**
+     * Returns the number of unlinked nodes currently available for reuse.
+     * @return the number of pooled nodes
+     */
+    public int getPooledNodeCount() {
+        return poolSize;
+    }
+    
+    /**
+     * Creates a node, reusing one from the free list when available.
+     */
+    private Node<E> newNode(E e, Node<E> prev, Node<E> next) {
+        Node<E> x = pool;
+        if (x == null) {
+            x = index != null ? new IndexedNode<>(e, prev, next) : new Node<>(e, prev, next);
+        } else {
+            pool = x.next;
+            poolSize--;
+            x.data = e;
+            x.prev = prev;
+            x.next = next;
+        }
+        if (index != null) {
+            indexAdd(x);
+        }
+        return x;
+    }
+    
+    /**
+     * Clears an unlinked node and keeps it for reuse if the free list has room.
+     */
+    private void recycle(Node<E> x) {
         x.data = null;
-        size--;
-        modCount++;
-        return element;
+        x.prev = null;
+        if (x instanceof IndexedNode) {
+            ((IndexedNode<E>) x).prevEqual = null;
+            ((IndexedNode<E>) x).nextEqual = null;
+        }
+        if (poolSize < poolCapacity) {
+            x.next = pool;
+            pool = x;
+            poolSize++;
+        } else {
+            x.next = null;
+        }
+    }
+    
+    /**
+     * Enables or disables indexed mode. An indexed list keeps a hash map from each element to
+     * the first node holding it, and chains the nodes of equal elements in list order, so
+     * {@code contains}, {@code remove(Object)}, {@code removeLastOccurrence} and a missed
+     * {@code indexOf} take O(1) instead of scanning, also for repeated elements. Adding at either
+     * end is O(1); inserting a repeated element in the middle walks to the nearest equal element
+     * to find its place in the chain. The index costs roughly one hash map entry (about 32-48
+     * bytes) per distinct element plus two references (8-16 bytes) per node for the chains,
+     * and adds a hash lookup to every structural change. A list that is not indexed keeps the
+     * smaller nodes. Switching modes copies the nodes once, in O(n); open iterators stay valid.
+     * Elements must not change their {@code equals}/{@code hashCode} while in an indexed list,
+     * as with a {@code HashSet}. The index is not serialized.
+     * 
+     * @param indexed true to build the index, false to drop it
+     */
+    public void setIndexed(boolean indexed) {
+        if (indexed == (index != null)) {
+            return;
+        }
+        beginRelink();
+        try {
+            // The chains live in a node subclass, so the nodes are copied into the other kind;
+            // pooled nodes are of the old kind
+            index = indexed ? new HashMap<>() : null;
+            pool = null;
+            poolSize = 0;
+            detach();
+        } finally {
+            endChange();
+        }
+    }
+    
+    /**
+     * Rebuilds the index and the chains of equal nodes from the list order.
+     */
+    private void buildIndex() {
+        index = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (Node<E> node = head; node != null; node = node.next) {
+            IndexedNode<E> x = (IndexedNode<E>) node;
+            IndexedNode<E> first = index.putIfAbsent(x.data, x);
+            if (first == null) {
+                x.prevEqual = x;
+                x.nextEqual = null;
+            } else {
+                linkEqualAfter(first, first.prevEqual, x);
+            }
+        }
+    }
+    
+    /**
+     * Checks whether this list keeps an element index.
+     * @return true in indexed mode
+     */
+    public boolean isIndexed() {
+        return index != null;
+    }
+    
+    /**
+     * Replaces the element of a node, keeping the index current.
+     */
+    private void setData(Node<E> x, E element) {
+        x = beginChange(x);
+        try {
+            if (index != null) {
+                indexRemove(x);
+                x.data = element;
+                indexAdd(x);
+            } else {
+                x.data = element;
+            }
+        } finally {
+            endChange();
+        }
+    }
+    
+    /**
+     * Adds a linked node to the index, placing it in the chain of equal nodes by list order.
+     */
+    private void indexAdd(Node<E> node) {
+        IndexedNode<E> x = (IndexedNode<E>) node;
+        IndexedNode<E> first = index.putIfAbsent(x.data, x);
+        if (first == null) {
+            x.prevEqual = x;
+            x.nextEqual = null;
+        } else if (x.next == null) {
+            linkEqualAfter(first, first.prevEqual, x);
+        } else if (x.prev == null) {
+            linkEqualBefore(first, first, x);
+        } else {
+            // Walk both ways to the nearest equal node; one exists since the key is present
+            Node<E> back = x.prev;
+            Node<E> ahead = x.next;
+            while (true) {
+                if (back != null) {
+                    if (Objects.equals(back.data, x.data)) {
+                        linkEqualAfter(first, (IndexedNode<E>) back, x);
+                        return;
+                    }
+                    back = back.prev;
+                }
+                if (ahead != null) {
+                    if (Objects.equals(ahead.data, x.data)) {
+                        linkEqualBefore(first, (IndexedNode<E>) ahead, x);
+                        return;
+                    }
+                    ahead = ahead.next;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Links x into a chain of equal nodes right after p.
+     */
+    private static <E> void linkEqualAfter(IndexedNode<E> first, IndexedNode<E> p, IndexedNode<E> x) {
+        x.prevEqual = p;
+        x.nextEqual = p.nextEqual;
+        if (p.nextEqual == null) {
+            first.prevEqual = x;
+        } else {
+            p.nextEqual.prevEqual = x;
+        }
+        p.nextEqual = x;
+    }
+    
+    /**
+     * Links x into a chain of equal nodes right before q, making x the first node if q was.
+     */
+    private void linkEqualBefore(IndexedNode<E> first, IndexedNode<E> q, IndexedNode<E> x) {
+        x.nextEqual = q;
+        x.prevEqual = q.prevEqual;
+        if (q == first) {
+            index.put(x.data, x);
+        } else {
+            q.prevEqual.nextEqual = x;
+        }
+        q.prevEqual = x;
+    }
+    
+    /**
+     * Removes a node from the index and from its chain of equal nodes.
+     */
+    private void indexRemove(Node<E> node) {
+        IndexedNode<E> x = (IndexedNode<E>) node;
+        IndexedNode<E> first = index.get(x.data);
+        IndexedNode<E> next = x.nextEqual;
+        if (x == first) {
+            if (next == null) {
+                index.remove(x.data);
+            } else {
+                next.prevEqual = x.prevEqual;
+                index.put(x.data, next);
+            }
+        } else if (first != null) {
+            IndexedNode<E> prev = x.prevEqual;
+            prev.nextEqual = next;
+            if (next == null) {
+                first.prevEqual = prev;
+            } else {
+                next.prevEqual = prev;
+            }
+        }
+        x.prevEqual = null;
+        x.nextEqual = null;
+    }
+    
+    /**
+     * Enables or disables snapshot mode. In snapshot mode, {@link #snapshot()} may be called
+     * from any thread while the thread that owns the list keeps modifying it, and the
+     * snapshots can be iterated without locking. Appends stay O(1) and never copy; the first
+     * other change after a snapshot copies the nodes once, leaving the old ones to the
+     * snapshots, so the mode suits append-mostly lists such as ingestion buffers.
+     * Enable it before handing the list to other threads, and only disable it once no
+     * snapshot is in use. Like the element index, the mode is not serialized.
+     * 
+     * @param enabled true to allow snapshots
+     */
+    public void setSnapshotsEnabled(boolean enabled) {
+        snapshotsEnabled = enabled;
+        shared = false;
+    }
+    
+    /**
+     * Checks whether snapshots are enabled.
+     * @return true in snapshot mode
+     */
+    public boolean isSnapshotsEnabled() {
+        return snapshotsEnabled;
+    }
+    
+    /**
+     * Takes a snapshot of the current elements in O(1), without copying them.
+     * The snapshot keeps the elements and order the list had at this moment, whatever the
+     * owning thread does afterwards, and is safe to iterate from any thread. Only a concurrent
+     * change other than an append, while it runs, makes this call wait and retry.
+     * 
+     * @return a read-only view of the current elements
+     * @throws IllegalStateException if snapshots are not enabled
+     */
+    public Snapshot<E> snapshot() {
+        if (!snapshotsEnabled) {
+            throw new IllegalStateException("Snapshots are not enabled for this list");
+        }
+        while (true) {
+            int version = changeVersion;
+            if ((version & 1) == 0) {
+                // Announce the snapshot before reading, so a change starting later sees it and
+                // copies; a copy already under way clears the flag, but also changes the version
+                shared = true;
+                int count = (int) SIZE.getAcquire(this);
+                Node<E> first = head;
+                VarHandle.loadLoadFence();
+                if (changeVersion == version) {
+                    return new Snapshot<>(first, count);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    /**
+     * Sets the size after an append, publishing the new nodes to snapshot readers.
+     */
+    private void publishSize(int newSize) {
+        if (snapshotsEnabled) {
+            SIZE.setRelease(this, newSize);
+        } else {
+            size = newSize;
+        }
+    }
+    
+    /**
+     * Starts a change other than an append in snapshot mode, first copying the nodes away
+     * from snapshots if any may hold them. Must be followed by {@link #endChange()}.
+     * 
+     * @param x a node the change works on, or null
+     * @return the node at the same position after a copy, or x
+     */
+    private Node<E> beginChange(Node<E> x) {
+        if (snapshotsEnabled) {
+            changeVersion++;
+            // This volatile read also keeps the change's writes after the odd version
+            if (shared) {
+                int position = 0;
+                if (x != null) {
+                    for (Node<E> y = head; y != x; y = y.next) {
+                        position++;
+                    }
+                }
+                detach();
+                if (x != null) {
+                    x = node(position);
+                }
+            }
+        }
+        return x;
+    }
+    
+    /**
+     * Starts a change that only relinks the list's ends or prev links, or replaces every node,
+     * none of which changes the nodes snapshots read.
+     */
+    private void beginRelink() {
+        if (snapshotsEnabled) {
+            changeVersion++;
+            // Keep the change's writes from becoming visible before the odd version
+            VarHandle.storeStoreFence();
+        }
+    }
+    
+    private void endChange() {
+        if (snapshotsEnabled) {
+            changeVersion++;
+        }
+    }
+    
+    /**
+     * Replaces every node with a copy, leaving the old chain untouched for snapshots.
+     * The copies are indexed nodes in indexed mode.
+     */
+    private void detach() {
+        boolean indexed = index != null;
+        Node<E> first = null;
+        Node<E> last = null;
+        for (Node<E> x = head; x != null; x = x.next) {
+            Node<E> copy = indexed ? new IndexedNode<>(x.data, last, null) : new Node<>(x.data, last, null);
+            if (last == null) {
+                first = copy;
+            } else {
+                last.next = copy;
+            }
+            last = copy;
+        }
+        head = first;
+        tail = last;
+        if (indexed) {
+            buildIndex();
+        }
+        shared = false;
+        detachCount++;
     }
     
     private void checkElementIndex(int index) {
@@ -460,7 +1443,9 @@ public class CustomLinkedList<E> implements List<E> {
         private Node<E> lastReturned;
         private Node<E> next;
         private int nextIndex;
+        private int lastReturnedIndex;
         private int expectedModCount = modCount;
+        private int expectedDetachCount = detachCount;
         
         CustomListIterator(int index) {
             next = (index == size) ? null : node(index);
@@ -481,7 +1466,7 @@ public class CustomLinkedList<E> implements List<E> {
             
             lastReturned = next;
             next = next.next;
-            nextIndex++;
+            lastReturnedIndex = nextIndex++;
             return lastReturned.data;
         }
         
@@ -498,7 +1483,7 @@ public class CustomLinkedList<E> implements List<E> {
             }
             
             lastReturned = next = (next == null) ? tail : next.prev;
-            nextIndex--;
+            lastReturnedIndex = --nextIndex;
             return lastReturned.data;
         }
         
@@ -528,6 +1513,7 @@ public class CustomLinkedList<E> implements List<E> {
             }
             lastReturned = null;
             expectedModCount++;
+            resync();
         }
         
         @Override
@@ -536,7 +1522,8 @@ public class CustomLinkedList<E> implements List<E> {
                 throw new IllegalStateException();
             }
             checkForComodification();
-            lastReturned.data = e;
+            setData(lastReturned, e);
+            resync();
         }
         
         @Override
@@ -550,12 +1537,316 @@ public class CustomLinkedList<E> implements List<E> {
             }
             nextIndex++;
             expectedModCount++;
+            resync();
         }
         
         final void checkForComodification() {
             if (modCount != expectedModCount) {
                 throw new ConcurrentModificationException();
             }
+            resync();
+        }
+        
+        /**
+         * Looks the iterator's nodes up again after the list copied its nodes away from snapshots.
+         */
+        private void resync() {
+            if (expectedDetachCount != detachCount) {
+                expectedDetachCount = detachCount;
+                next = nextIndex < size ? node(nextIndex) : null;
+                if (lastReturned != null) {
+                    lastReturned = node(lastReturnedIndex);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reverse-ordered view returned by {@link CustomLinkedList#reversed()}. Position i of the
+     * view is position size() - 1 - i of the list, and the first and last ends are swapped, so
+     * every operation maps to the list operation at the opposite end in the same time.
+     */
+    public final class ReverseView extends AbstractSequentialList<E> implements Deque<E> {
+        
+        private ReverseView() {
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public ListIterator<E> listIterator(int index) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            final ListIterator<E> it = new CustomListIterator(size - index);
+            return new ListIterator<E>() {
+                // Whether next or previous was called since the last add or remove
+                private boolean canModify;
+                
+                @Override
+                public boolean hasNext() {
+                    return it.hasPrevious();
+                }
+                
+                @Override
+                public E next() {
+                    E e = it.previous();
+                    canModify = true;
+                    return e;
+                }
+                
+                @Override
+                public boolean hasPrevious() {
+                    return it.hasNext();
+                }
+                
+                @Override
+                public E previous() {
+                    E e = it.next();
+                    canModify = true;
+                    return e;
+                }
+                
+                @Override
+                public int nextIndex() {
+                    return size - it.nextIndex();
+                }
+                
+                @Override
+                public int previousIndex() {
+                    return nextIndex() - 1;
+                }
+                
+                @Override
+                public void remove() {
+                    if (!canModify) {
+                        throw new IllegalStateException();
+                    }
+                    it.remove();
+                    canModify = false;
+                }
+                
+                @Override
+                public void set(E e) {
+                    if (!canModify) {
+                        throw new IllegalStateException();
+                    }
+                    it.set(e);
+                }
+                
+                @Override
+                public void add(E e) {
+                    // Inserted before the view's next element, which is after it in the list,
+                    // then stepped over so the view's previous() returns it
+                    it.add(e);
+                    it.previous();
+                    canModify = false;
+                }
+            };
+        }
+        
+        @Override
+        public E get(int index) {
+            return CustomLinkedList.this.get(size - 1 - index);
+        }
+        
+        @Override
+        public E set(int index, E element) {
+            return CustomLinkedList.this.set(size - 1 - index, element);
+        }
+        
+        @Override
+        public boolean add(E e) {
+            CustomLinkedList.this.addFirst(e);
+            return true;
+        }
+        
+        @Override
+        public E remove(int index) {
+            return CustomLinkedList.this.remove(size - 1 - index);
+        }
+        
+        @Override
+        public boolean contains(Object o) {
+            return CustomLinkedList.this.contains(o);
+        }
+        
+        @Override
+        public boolean remove(Object o) {
+            return CustomLinkedList.this.removeLastOccurrence(o);
+        }
+        
+        @Override
+        public void clear() {
+            CustomLinkedList.this.clear();
+        }
+        
+        /**
+         * Returns the list this view reverses.
+         * @return the original list
+         */
+        public CustomLinkedList<E> reversed() {
+            return CustomLinkedList.this;
+        }
+        
+        @Override
+        public void addFirst(E e) {
+            CustomLinkedList.this.addLast(e);
+        }
+        
+        @Override
+        public void addLast(E e) {
+            CustomLinkedList.this.addFirst(e);
+        }
+        
+        @Override
+        public boolean offerFirst(E e) {
+            return CustomLinkedList.this.offerLast(e);
+        }
+        
+        @Override
+        public boolean offerLast(E e) {
+            return CustomLinkedList.this.offerFirst(e);
+        }
+        
+        @Override
+        public E removeFirst() {
+            return CustomLinkedList.this.removeLast();
+        }
+        
+        @Override
+        public E removeLast() {
+            return CustomLinkedList.this.removeFirst();
+        }
+        
+        @Override
+        public E pollFirst() {
+            return CustomLinkedList.this.pollLast();
+        }
+        
+        @Override
+        public E pollLast() {
+            return CustomLinkedList.this.pollFirst();
+        }
+        
+        @Override
+        public E getFirst() {
+            return CustomLinkedList.this.getLast();
+        }
+        
+        @Override
+        public E getLast() {
+            return CustomLinkedList.this.getFirst();
+        }
+        
+        @Override
+        public E peekFirst() {
+            return CustomLinkedList.this.peekLast();
+        }
+        
+        @Override
+        public E peekLast() {
+            return CustomLinkedList.this.peekFirst();
+        }
+        
+        @Override
+        public boolean removeFirstOccurrence(Object o) {
+            return CustomLinkedList.this.removeLastOccurrence(o);
+        }
+        
+        @Override
+        public boolean removeLastOccurrence(Object o) {
+            return CustomLinkedList.this.removeFirstOccurrence(o);
+        }
+        
+        @Override
+        public boolean offer(E e) {
+            return offerLast(e);
+        }
+        
+        @Override
+        public E remove() {
+            return removeFirst();
+        }
+        
+        @Override
+        public E poll() {
+            return pollFirst();
+        }
+        
+        @Override
+        public E element() {
+            return getFirst();
+        }
+        
+        @Override
+        public E peek() {
+            return peekFirst();
+        }
+        
+        @Override
+        public void push(E e) {
+            addFirst(e);
+        }
+        
+        @Override
+        public E pop() {
+            return removeFirst();
+        }
+        
+        @Override
+        public Iterator<E> descendingIterator() {
+            return CustomLinkedList.this.iterator();
+        }
+    }
+    
+    /**
+     * Read-only view of the elements of a list in snapshot mode at the moment
+     * {@link CustomLinkedList#snapshot()} was called. Later changes to the list are not visible.
+     * 
+     * @param <E> the type of elements in the snapshot
+     */
+    public static final class Snapshot<E> extends AbstractCollection<E> {
+        private final Node<E> first;
+        private final int size;
+        
+        Snapshot(Node<E> first, int size) {
+            this.first = first;
+            this.size = size;
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private Node<E> next = first;
+                private int remaining = size;
+                
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+                
+                @Override
+                public E next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    E element = next.data;
+                    // The last node's next link may be changing under appends, so it is never read
+                    if (--remaining > 0) {
+                        next = next.next;
+                    }
+                    return element;
+                }
+            };
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,349 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Lazy chain of transformations on double values, applied during ingestion instead of
+ * building an intermediate list per step. A pipeline only describes its stages; a terminal
+ * operation such as {@link #streamFile(String, DoubleConsumer, ParseReport)} fuses them into
+ * one consumer placed between the parser and the accumulator, so each value flows through
+ * every stage as a primitive double in a single pass. Once a {@link #limit(long)} is reached,
+ * reading stops. Pipelines are immutable and can be shared and extended freely.
+ *
+ * <pre>
+ * RunningStatistics stats = DoublePipeline.create()
+ *         .filter(v -&gt; v != -999)
+ *         .map(v -&gt; v * 1.8 + 32)
+ *         .clip(-40, 140)
+ *         .statisticsOfFile("temperatures.txt", null);
+ * </pre>
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public final class DoublePipeline {
+
+    private static final DoublePipeline EMPTY = new DoublePipeline(new Stage[0]);
+
+    private final Stage[] stages;
+
+    private DoublePipeline(Stage[] stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Gets the pipeline that passes every value through unchanged.
+     * @return an empty pipeline
+     */
+    public static DoublePipeline create() {
+        return EMPTY;
+    }
+
+    /**
+     * Appends a transformation of each value.
+     *
+     * @param operator the function applied to each value
+     * @return a new pipeline with the stage appended
+     * @throws IllegalArgumentException if the operator is null
+     */
+    public DoublePipeline map(DoubleUnaryOperator operator) {
+        if (operator == null) {
+            throw new IllegalArgumentException("Operator cannot be null");
+        }
+        return append(next -> new MapStage(operator, next));
+    }
+
+    /**
+     * Appends a filter that keeps only the values matching a predicate.
+     *
+     * @param predicate the condition a value must meet to continue
+     * @return a new pipeline with the stage appended
+     * @throws IllegalArgumentException if the predicate is null
+     */
+    public DoublePipeline filter(DoublePredicate predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Predicate cannot be null");
+        }
+        return append(next -> new FilterStage(predicate, next));
+    }
+
+    /**
+     * Appends a stage that clamps each value to a range. NaN values pass through unchanged.
+     *
+     * @param low the smallest value let through
+     * @param high the largest value let through
+     * @return a new pipeline with the stage appended
+     * @throws IllegalArgumentException if a bound is NaN or low is greater than high
+     */
+    public DoublePipeline clip(double low, double high) {
+        if (Double.isNaN(low) || Double.isNaN(high) || low > high) {
+            throw new IllegalArgumentException("Clip bounds must be numbers with low <= high");
+        }
+        return append(next -> new ClipStage(low, high, next));
+    }
+
+    /**
+     * Appends a stage that lets through at most a number of values and then ends the input.
+     *
+     * @param maxValues the number of values let through
+     * @return a new pipeline with the stage appended
+     * @throws IllegalArgumentException if the number is negative
+     */
+    public DoublePipeline limit(long maxValues) {
+        if (maxValues < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        return append(next -> new LimitStage(maxValues, next));
+    }
+
+    /**
+     * Checks whether this pipeline has no stages.
+     * @return true if values pass through unchanged
+     */
+    public boolean isEmpty() {
+        return stages.length == 0;
+    }
+
+    /**
+     * Reads a file through this pipeline into a consumer, in one pass.
+     *
+     * @param filePath the path to the file to read
+     * @param sink the consumer receiving the values that leave the pipeline
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values passed to the sink, possibly zero if all were filtered out
+     * @throws IOException if there's an error reading the file or no numbers were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, or the sink is null
+     */
+    public long streamFile(String filePath, DoubleConsumer sink, ParseReport report) throws IOException {
+        Chain chain = fuse(sink);
+        FileDataReader.streamNumbersFromFile(filePath, chain.head, report, chain::isDone);
+        return chain.counter.count;
+    }
+
+    /**
+     * Reads a stream, such as standard input, through this pipeline into a consumer, in one
+     * pass and in constant memory. Values reach the sink as soon as their line arrives.
+     *
+     * @param inputStream the input stream to read from
+     * @param sink the consumer receiving the values that leave the pipeline
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values passed to the sink, possibly zero if all were filtered out
+     * @throws IOException if there's an error reading the stream or no numbers were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the input stream or the sink is null
+     */
+    public long streamInput(InputStream inputStream, DoubleConsumer sink, ParseReport report) throws IOException {
+        Chain chain = fuse(sink);
+        FileDataReader.streamNumbersFromStream(inputStream, chain.head, report, chain::isDone);
+        return chain.counter.count;
+    }
+
+    /**
+     * Computes the statistics of a file through this pipeline, in one pass.
+     *
+     * @param filePath the path to the file to read
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the accumulator of the values that left the pipeline
+     * @throws IOException if there's an error reading the file or no numbers were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty
+     */
+    public RunningStatistics statisticsOfFile(String filePath, ParseReport report) throws IOException {
+        RunningStatistics stats = new RunningStatistics();
+        streamFile(filePath, stats, report);
+        return stats;
+    }
+
+    /**
+     * Passes values from memory through this pipeline into a consumer.
+     *
+     * @param values the input values
+     * @param sink the consumer receiving the values that leave the pipeline
+     * @return the number of values passed to the sink
+     * @throws IllegalArgumentException if the values or the sink are null
+     */
+    public long apply(double[] values, DoubleConsumer sink) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        Chain chain = fuse(sink);
+        for (int i = 0; i < values.length && !chain.isDone(); i++) {
+            chain.head.accept(values[i]);
+        }
+        return chain.counter.count;
+    }
+
+    /**
+     * Passes the values of a list through this pipeline into a consumer, unboxing each one once.
+     *
+     * @param values the input values, which must not contain null
+     * @param sink the consumer receiving the values that leave the pipeline
+     * @return the number of values passed to the sink
+     * @throws IllegalArgumentException if the values or the sink are null, or a value is null
+     */
+    public long apply(Iterable<Double> values, DoubleConsumer sink) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        Chain chain = fuse(sink);
+        for (Double value : values) {
+            if (chain.isDone()) {
+                break;
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Values cannot contain null");
+            }
+            chain.head.accept(value);
+        }
+        return chain.counter.count;
+    }
+
+    private DoublePipeline append(Stage stage) {
+        Stage[] extended = Arrays.copyOf(stages, stages.length + 1);
+        extended[stages.length] = stage;
+        return new DoublePipeline(extended);
+    }
+
+    /**
+     * Builds the consumers of every stage, from the sink backwards, for one run.
+     */
+    private Chain fuse(DoubleConsumer sink) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink cannot be null");
+        }
+        Counter counter = new Counter(sink);
+        DoubleConsumer head = counter;
+        LimitStage[] limits = new LimitStage[0];
+        for (int i = stages.length - 1; i >= 0; i--) {
+            head = stages[i].wrap(head);
+            if (head instanceof LimitStage) {
+                limits = Arrays.copyOf(limits, limits.length + 1);
+                limits[limits.length - 1] = (LimitStage) head;
+            }
+        }
+        return new Chain(head, counter, limits);
+    }
+
+    /**
+     * Factory of the consumer of one stage, given the consumer that follows it.
+     */
+    private interface Stage {
+        DoubleConsumer wrap(DoubleConsumer next);
+    }
+
+    /**
+     * The fused consumers of one run, with the state needed to end it early.
+     */
+    private static final class Chain {
+        final DoubleConsumer head;
+        final Counter counter;
+        final LimitStage[] limits;
+
+        Chain(DoubleConsumer head, Counter counter, LimitStage[] limits) {
+            this.head = head;
+            this.counter = counter;
+            this.limits = limits;
+        }
+
+        /**
+         * Once any limit is used up no further value can reach the sink.
+         */
+        boolean isDone() {
+            for (LimitStage limit : limits) {
+                if (limit.remaining == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Counter implements DoubleConsumer {
+        private final DoubleConsumer next;
+        long count;
+
+        Counter(DoubleConsumer next) {
+            this.next = next;
+        }
+
+        @Override
+        public void accept(double value) {
+            count++;
+            next.accept(value);
+        }
+    }
+
+    private static final class MapStage implements DoubleConsumer {
+        private final DoubleUnaryOperator operator;
+        private final DoubleConsumer next;
+
+        MapStage(DoubleUnaryOperator operator, DoubleConsumer next) {
+            this.operator = operator;
+            this.next = next;
+        }
+
+        @Override
+        public void accept(double value) {
+            next.accept(operator.applyAsDouble(value));
+        }
+    }
+
+    private static final class FilterStage implements DoubleConsumer {
+        private final DoublePredicate predicate;
+        private final DoubleConsumer next;
+
+        FilterStage(DoublePredicate predicate, DoubleConsumer next) {
+            this.predicate = predicate;
+            this.next = next;
+        }
+
+        @Override
+        public void accept(double value) {
+            if (predicate.test(value)) {
+                next.accept(value);
+            }
+        }
+    }
+
+    private static final class ClipStage implements DoubleConsumer {
+        private final double low;
+        private final double high;
+        private final DoubleConsumer next;
+
+        ClipStage(double low, double high, DoubleConsumer next) {
+            this.low = low;
+            this.high = high;
+            this.next = next;
+        }
+
+        @Override
+        public void accept(double value) {
+            // Comparisons with NaN are false, so NaN passes through
+            next.accept(value < low ? low : value > high ? high : value);
+        }
+    }
+
+    private static final class LimitStage implements DoubleConsumer {
+        private final DoubleConsumer next;
+        long remaining;
+
+        LimitStage(long maxValues, DoubleConsumer next) {
+            this.remaining = maxValues;
+            this.next = next;
+        }
+
+        @Override
+        public void accept(double value) {
+            if (remaining > 0) {
+                remaining--;
+                next.accept(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Exact quantiles of columns larger than memory, computed by external sorting.
+ * Values are collected in a heap buffer of a fixed size; each time it fills it is sorted and
+ * written to a binary run file in a private temporary directory. A quantile query merges the
+ * runs and the values still in the buffer k-way, reading each run through a memory-mapped
+ * window, and stops as soon as the highest rank it needs has been passed. Once
+ * {@link #DEFAULT_FAN_IN} runs of the same size exist they are merged into one larger run,
+ * so the number of open runs stays small for any input size.
+ *
+ * <p>Heap usage is bounded by the memory limit given at construction; the mapped windows and
+ * the write buffer live outside the heap. The engine must be closed to delete its runs and
+ * temporary directory. Instances are not thread-safe.
+ *
+ * <pre>
+ * try (ExternalQuantiles quantiles = new ExternalQuantiles(64L &lt;&lt; 20, null)) {
+ *     FileDataReader.streamNumbersFromFile("huge.txt", quantiles, null);
+ *     double median = quantiles.median();
+ * }
+ * </pre>
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class ExternalQuantiles implements DoubleConsumer, AutoCloseable {
+
+    /** Smallest accepted memory limit, in bytes. */
+    public static final long MIN_MEMORY_BYTES = 64L << 10;
+
+    /** Number of runs merged at a time. */
+    public static final int DEFAULT_FAN_IN = 64;
+
+    // Values per mapped window of a run (64 MB)
+    private static final int WINDOW_VALUES = 1 << 23;
+
+    // Values per write to a run file (1 MB)
+    private static final int WRITE_VALUES = 1 << 17;
+
+    private final Path directory;
+    private final int fanIn;
+    private final double[] buffer;
+    private final List<Run> runs = new ArrayList<>();
+    private ByteBuffer writeBuffer;
+    private int buffered;
+    private long count;
+    private boolean closed;
+
+    /**
+     * Creates an engine whose heap buffer holds at most the given number of bytes of values.
+     *
+     * @param memoryBytes the memory limit of the buffer, at least {@link #MIN_MEMORY_BYTES}
+     * @param tempParent the directory in which to create the temporary directory, or null for
+     *        the system default
+     * @throws IOException if the temporary directory cannot be created
+     * @throws IllegalArgumentException if the memory limit is too small
+     */
+    public ExternalQuantiles(long memoryBytes, Path tempParent) throws IOException {
+        this(memoryBytes, tempParent, DEFAULT_FAN_IN);
+    }
+
+    /**
+     * Creates an engine with a custom merge fan-in, so that small tests reach the merge of runs.
+     */
+    ExternalQuantiles(long memoryBytes, Path tempParent, int fanIn) throws IOException {
+        if (memoryBytes < MIN_MEMORY_BYTES) {
+            throw new IllegalArgumentException("Memory limit must be at least " + MIN_MEMORY_BYTES + " bytes");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2");
+        }
+        this.buffer = new double[(int) Math.min(memoryBytes / Double.BYTES, Integer.MAX_VALUE - 8)];
+        this.fanIn = fanIn;
+        this.directory = tempParent == null
+                ? Files.createTempDirectory("quantiles")
+                : Files.createTempDirectory(tempParent, "quantiles");
+    }
+
+    /**
+     * Adds a value, writing a sorted run to disk when the buffer is full.
+     *
+     * @param value the value to add
+     * @throws IllegalArgumentException if the value is NaN, which has no rank
+     * @throws IllegalStateException if the engine is closed
+     * @throws UncheckedIOException if a run cannot be written
+     */
+    @Override
+    public void accept(double value) {
+        ensureOpen();
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Values cannot contain NaN");
+        }
+        if (buffered == buffer.length) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write run in " + directory, e);
+            }
+        }
+        buffer[buffered++] = value;
+        count++;
+    }
+
+    /**
+     * Computes several quantiles in one merge pass, interpolated between the closest ranks as in
+     * {@link StatisticsCalculator#calculateQuantiles(List, double...)}.
+     *
+     * @param probabilities the quantile probabilities, each in [0, 1]
+     * @return the quantiles, in the order of the given probabilities
+     * @throws IOException if a run cannot be read
+     * @throws IllegalArgumentException if no values were added or a probability is outside [0, 1]
+     * @throws IllegalStateException if the engine is closed
+     */
+    public double[] quantiles(double... probabilities) throws IOException {
+        ensureOpen();
+        if (count == 0) {
+            throw new IllegalArgumentException("No values added");
+        }
+        long[] ranks = new long[probabilities.length * 2];
+        for (int i = 0; i < probabilities.length; i++) {
+            double p = probabilities[i];
+            if (!(p >= 0.0 && p <= 1.0)) {
+                throw new IllegalArgumentException("Probability must be in [0, 1]: " + p);
+            }
+            long lower = (long) Math.floor((count - 1) * p);
+            ranks[2 * i] = lower;
+            ranks[2 * i + 1] = Math.min(lower + 1, count - 1);
+        }
+        long[] targets = Arrays.stream(ranks).sorted().distinct().toArray();
+        double[] values = valuesAt(targets);
+
+        double[] result = new double[probabilities.length];
+        for (int i = 0; i < probabilities.length; i++) {
+            double h = (count - 1) * probabilities[i];
+            long lower = ranks[2 * i];
+            double fraction = h - lower;
+            double lowerValue = values[Arrays.binarySearch(targets, lower)];
+            result[i] = fraction == 0.0
+                    ? lowerValue
+                    : lowerValue + fraction * (values[Arrays.binarySearch(targets, ranks[2 * i + 1])] - lowerValue);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the exact median.
+     *
+     * @return the median
+     * @throws IOException if a run cannot be read
+     * @throws IllegalArgumentException if no values were added
+     */
+    public double median() throws IOException {
+        return quantiles(0.5)[0];
+    }
+
+    /**
+     * Computes the five-number summary in one merge pass.
+     *
+     * @return an OrderStatisticsResult with the minimum, quartiles and maximum
+     * @throws IOException if a run cannot be read
+     * @throws IllegalArgumentException if no values were added
+     */
+    public StatisticsCalculator.OrderStatisticsResult orderStatistics() throws IOException {
+        double[] q = quantiles(0.0, 0.25, 0.5, 0.75, 1.0);
+        return new StatisticsCalculator.OrderStatisticsResult(q[0], q[1], q[2], q[3], q[4]);
+    }
+
+    /**
+     * Gets the number of values added.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of sorted runs currently on disk.
+     * @return the number of runs
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Gets the temporary directory holding the runs.
+     * @return the directory, which no longer exists once the engine is closed
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Deletes every run and the temporary directory. Closing an already closed engine has no effect.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        OffHeapDoubleColumn.free(writeBuffer);
+        writeBuffer = null;
+        IOException failure = null;
+        for (Run run : runs) {
+            try {
+                Files.deleteIfExists(run.path);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        runs.clear();
+        Files.deleteIfExists(directory);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Sorts the buffer into a new run, then merges the newest runs while fanIn of them share a level.
+     */
+    private void spill() throws IOException {
+        Arrays.sort(buffer, 0, buffered);
+        Run run = new Run(Files.createTempFile(directory, "run", ".bin"), 0);
+        boolean written = false;
+        try (FileChannel channel = FileChannel.open(run.path, StandardOpenOption.WRITE)) {
+            RunWriter writer = new RunWriter(channel);
+            for (int i = 0; i < buffered; i++) {
+                writer.write(buffer[i]);
+            }
+            writer.flush();
+            written = true;
+        } finally {
+            if (!written) {
+                Files.deleteIfExists(run.path);
+            }
+        }
+        run.length = buffered;
+        runs.add(run);
+        buffered = 0;
+
+        while (runs.size() >= fanIn) {
+            int first = runs.size() - fanIn;
+            int level = runs.get(first).level;
+            if (runs.get(runs.size() - 1).level != level) {
+                break;
+            }
+            List<Run> group = runs.subList(first, runs.size());
+            Run next = mergeRuns(group, level + 1);
+            for (Run merged : group) {
+                Files.deleteIfExists(merged.path);
+            }
+            group.clear();
+            runs.add(next);
+        }
+    }
+
+    /**
+     * Writes the k-way merge of a group of runs into a new run, which is deleted again if the merge fails.
+     */
+    private Run mergeRuns(List<Run> group, int level) throws IOException {
+        Run target = new Run(Files.createTempFile(directory, "run", ".bin"), level);
+        List<RunCursor> cursors = new ArrayList<>(group.size());
+        boolean merged = false;
+        try (FileChannel channel = FileChannel.open(target.path, StandardOpenOption.WRITE)) {
+            for (Run run : group) {
+                cursors.add(new RunCursor(run));
+            }
+            Merger merger = new Merger(cursors);
+            RunWriter writer = new RunWriter(channel);
+            long written = 0;
+            while (merger.next()) {
+                writer.write(merger.value);
+                written++;
+            }
+            writer.flush();
+            target.length = written;
+            merged = true;
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+            if (!merged) {
+                Files.deleteIfExists(target.path);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Finds the values at ascending ranks of the sorted column.
+     */
+    private double[] valuesAt(long[] targets) throws IOException {
+        Arrays.sort(buffer, 0, buffered);
+        double[] values = new double[targets.length];
+        if (runs.isEmpty()) {
+            for (int i = 0; i < targets.length; i++) {
+                values[i] = buffer[(int) targets[i]];
+            }
+            return values;
+        }
+
+        List<RunCursor> cursors = new ArrayList<>(runs.size() + 1);
+        try {
+            for (Run run : runs) {
+                cursors.add(new RunCursor(run));
+            }
+            if (buffered > 0) {
+                cursors.add(new RunCursor(DoubleBuffer.wrap(buffer, 0, buffered)));
+            }
+            Merger merger = new Merger(cursors);
+            long rank = 0;
+            int next = 0;
+            while (next < targets.length && merger.next()) {
+                while (next < targets.length && targets[next] == rank) {
+                    values[next++] = merger.value;
+                }
+                rank++;
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+        return values;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Quantile engine is closed");
+        }
+    }
+
+    /**
+     * A sorted run file. Runs merged from fanIn runs of level L have level L + 1.
+     */
+    private static final class Run {
+        final Path path;
+        final int level;
+        long length;
+
+        Run(Path path, int level) {
+            this.path = path;
+            this.level = level;
+        }
+    }
+
+    /**
+     * Appends doubles to a run file through a direct buffer, in native byte order.
+     */
+    private final class RunWriter {
+        private final FileChannel channel;
+        private final DoubleBuffer values;
+
+        RunWriter(FileChannel channel) {
+            if (writeBuffer == null) {
+                writeBuffer = ByteBuffer.allocateDirect(WRITE_VALUES * Double.BYTES).order(ByteOrder.nativeOrder());
+            }
+            this.channel = channel;
+            this.values = writeBuffer.clear().asDoubleBuffer();
+        }
+
+        void write(double value) throws IOException {
+            if (!values.hasRemaining()) {
+                flush();
+            }
+            values.put(value);
+        }
+
+        void flush() throws IOException {
+            writeBuffer.clear().limit(values.position() * Double.BYTES);
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+            }
+            values.clear();
+        }
+    }
+
+    /**
+     * Reads a run in order through a sliding memory-mapped window, or wraps the in-memory buffer.
+     */
+    private static final class RunCursor {
+        private final FileChannel channel;
+        private final long length;
+        private long mapped;
+        private MappedByteBuffer window;
+        private DoubleBuffer values;
+
+        RunCursor(Run run) throws IOException {
+            this.channel = FileChannel.open(run.path, StandardOpenOption.READ);
+            this.length = run.length;
+            this.values = DoubleBuffer.allocate(0);
+        }
+
+        RunCursor(DoubleBuffer values) {
+            this.channel = null;
+            this.length = values.remaining();
+            this.mapped = length;
+            this.values = values;
+        }
+
+        boolean hasNext() throws IOException {
+            if (values.hasRemaining()) {
+                return true;
+            }
+            if (mapped == length) {
+                return false;
+            }
+            int n = (int) Math.min(WINDOW_VALUES, length - mapped);
+            OffHeapDoubleColumn.free(window);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, mapped * Double.BYTES, (long) n * Double.BYTES);
+            window.order(ByteOrder.nativeOrder());
+            values = window.asDoubleBuffer();
+            mapped += n;
+            return true;
+        }
+
+        double next() {
+            return values.get();
+        }
+
+        void close() throws IOException {
+            OffHeapDoubleColumn.free(window);
+            window = null;
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * K-way merge of sorted cursors with a binary min-heap keyed by each cursor's current value.
+     */
+    private static final class Merger {
+        private final RunCursor[] heap;
+        private final double[] heads;
+        private int size;
+        double value;
+
+        Merger(List<RunCursor> cursors) throws IOException {
+            heap = new RunCursor[cursors.size()];
+            heads = new double[cursors.size()];
+            for (RunCursor cursor : cursors) {
+                if (cursor.hasNext()) {
+                    heap[size] = cursor;
+                    heads[size] = cursor.next();
+                    size++;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        /**
+         * Moves to the next smallest value.
+         * @return false once every cursor is exhausted
+         */
+        boolean next() throws IOException {
+            if (size == 0) {
+                return false;
+            }
+            value = heads[0];
+            RunCursor top = heap[0];
+            if (top.hasNext()) {
+                heads[0] = top.next();
+            } else {
+                size--;
+                heap[0] = heap[size];
+                heads[0] = heads[size];
+                heap[size] = null;
+            }
+            siftDown(0);
+            return true;
+        }
+
+        private void siftDown(int i) {
+            RunCursor cursor = heap[i];
+            double head = heads[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heads[child + 1] < heads[child]) {
+                    child++;
+                }
+                if (heads[child] >= head) {
+                    break;
+                }
+                heap[i] = heap[child];
+                heads[i] = heads[child];
+                i = child;
+            }
+            heap[i] = cursor;
+            heads[i] = head;
+        }
+    }
+}
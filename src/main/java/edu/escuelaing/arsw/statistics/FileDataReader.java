@@ -5,9 +5,20 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * Utility class for reading numeric data from files.
@@ -29,6 +40,23 @@ public class FileDataReader {
      * @throws IllegalArgumentException if the file path is null or empty
      */
     public static CustomLinkedList<Double> readNumbersFromFile(String filePath) throws IOException {
+        return readNumbersFromFile(filePath, null);
+    }
+    
+    /**
+     * Reads numeric data from a file, optionally in lenient mode.
+     * When a report is given, invalid lines are skipped and recorded in it instead of
+     * aborting the read, until the report's error budget is exhausted.
+     * 
+     * @param filePath the path to the file to read
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return a CustomLinkedList containing the numbers from the file
+     * @throws IOException if there's an error reading the file
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty
+     */
+    public static CustomLinkedList<Double> readNumbersFromFile(String filePath, ParseReport report)
+            throws IOException {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("File path cannot be null or empty");
         }
@@ -41,27 +69,7 @@ public class FileDataReader {
         CustomLinkedList<Double> numbers = new CustomLinkedList<>();
         
         try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line;
-            int lineNumber = 0;
-            
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
-                
-                // Skip empty lines
-                if (line.isEmpty()) {
-                    continue;
-                }
-                
-                try {
-                    double number = Double.parseDouble(line);
-                    numbers.add(number);
-                } catch (NumberFormatException e) {
-                    throw new NumberFormatException(
-                        String.format("Invalid number format at line %d: '%s'", lineNumber, line)
-                    );
-                }
-            }
+            parseLines(reader, numbers::add, report);
         }
         
         if (numbers.isEmpty()) {
@@ -82,6 +90,21 @@ public class FileDataReader {
      * @throws IllegalArgumentException if the input stream is null
      */
     public static CustomLinkedList<Double> readNumbersFromStream(InputStream inputStream) throws IOException {
+        return readNumbersFromStream(inputStream, null);
+    }
+    
+    /**
+     * Reads numeric data from an InputStream, optionally in lenient mode.
+     * 
+     * @param inputStream the input stream to read from
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return a CustomLinkedList containing the numbers from the stream
+     * @throws IOException if there's an error reading the stream
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the input stream is null
+     */
+    public static CustomLinkedList<Double> readNumbersFromStream(InputStream inputStream, ParseReport report)
+            throws IOException {
         if (inputStream == null) {
             throw new IllegalArgumentException("Input stream cannot be null");
         }
@@ -89,34 +112,811 @@ public class FileDataReader {
         CustomLinkedList<Double> numbers = new CustomLinkedList<>();
         
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+            parseLines(reader, numbers::add, report);
+        }
+        
+        if (numbers.isEmpty()) {
+            throw new IOException("No valid numbers found in input stream");
+        }
+        
+        return numbers;
+    }
+    
+    /**
+     * Streams numeric data from an InputStream to a consumer without storing it, in constant
+     * memory. Values reach the consumer as soon as their line arrives, so the stream can be
+     * a pipe from a live producer; reading ends when the stream does.
+     * 
+     * @param inputStream the input stream to read from, such as System.in
+     * @param consumer the consumer receiving each parsed value
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values passed to the consumer
+     * @throws IOException if there's an error reading the stream or no numbers were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the input stream or the consumer is null
+     */
+    public static long streamNumbersFromStream(InputStream inputStream, DoubleConsumer consumer, ParseReport report)
+            throws IOException {
+        return streamNumbersFromStream(inputStream, consumer, report, null);
+    }
+    
+    /**
+     * Streams numeric data from an InputStream to a consumer, stopping early once the consumer
+     * needs no more values, as a {@link DoublePipeline} with a limit does.
+     * 
+     * @param stop checked before each line, or null to read the whole stream
+     * @see #streamNumbersFromStream(InputStream, DoubleConsumer, ParseReport)
+     */
+    static long streamNumbersFromStream(InputStream inputStream, DoubleConsumer consumer, ParseReport report,
+            BooleanSupplier stop) throws IOException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+        
+        long[] count = new long[1];
+        Reader decoder = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        try (BufferedReader reader = stop == null ? new BufferedReader(decoder) : new StoppableReader(decoder, stop)) {
+            parseLines(reader, value -> {
+                count[0]++;
+                consumer.accept(value);
+            }, report);
+        }
+        
+        if (count[0] == 0 && (stop == null || !stop.getAsBoolean())) {
+            throw new IOException("No valid numbers found in input stream");
+        }
+        
+        return count[0];
+    }
+    
+    /**
+     * Streams numeric data from a file to a consumer without storing it.
+     * Consumers can be chained with {@link DoubleConsumer#andThen(DoubleConsumer)} so that
+     * several aggregators (for example a {@link RunningStatistics} and a {@link ValueHistogram})
+     * are fed in one pass.
+     * 
+     * @param filePath the path to the file to read
+     * @param consumer the consumer receiving each parsed value
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values passed to the consumer
+     * @throws IOException if there's an error reading the file or no numbers were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, or the consumer is null
+     */
+    public static long streamNumbersFromFile(String filePath, DoubleConsumer consumer, ParseReport report)
+            throws IOException {
+        return streamNumbersFromFile(filePath, consumer, report, null);
+    }
+    
+    /**
+     * Streams numeric data from a file to a consumer, stopping early once the consumer needs
+     * no more values, as a {@link DoublePipeline} with a limit does.
+     * 
+     * @param stop checked before each line, or null to read the whole file
+     * @see #streamNumbersFromFile(String, DoubleConsumer, ParseReport)
+     */
+    static long streamNumbersFromFile(String filePath, DoubleConsumer consumer, ParseReport report,
+            BooleanSupplier stop) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+        
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("File not found: " + filePath);
+        }
+        
+        long[] count = new long[1];
+        try (BufferedReader reader = stop == null ? Files.newBufferedReader(path)
+                : new StoppableReader(Files.newBufferedReader(path), stop)) {
+            parseLines(reader, value -> {
+                count[0]++;
+                consumer.accept(value);
+            }, report);
+        }
+        
+        if (count[0] == 0 && (stop == null || !stop.getAsBoolean())) {
+            throw new IOException("No valid numbers found in file: " + filePath);
+        }
+        
+        return count[0];
+    }
+    
+    /**
+     * Reads integer data from a file into a primitive array.
+     * Lines are parsed directly as longs, so values beyond 2^53 keep their exact value.
+     * 
+     * @param filePath the path to the file to read
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the integers from the file, in file order
+     * @throws IOException if there's an error reading the file or no numbers were found
+     * @throws NumberFormatException if a line is not an integer in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty
+     */
+    public static long[] readLongsFromFile(String filePath, ParseReport report) throws IOException {
+        long[][] buffer = {new long[64]};
+        int[] size = new int[1];
+        streamLongsFromFile(filePath, value -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = value;
+        }, report);
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+    
+    /**
+     * Streams integer data from a file to a consumer without storing it.
+     * 
+     * @param filePath the path to the file to read
+     * @param consumer the consumer receiving each parsed value, for example a {@link LongStatistics}
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values passed to the consumer
+     * @throws IOException if there's an error reading the file or no numbers were found
+     * @throws NumberFormatException if a line is not an integer in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, or the consumer is null
+     */
+    public static long streamLongsFromFile(String filePath, LongConsumer consumer, ParseReport report)
+            throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+        
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("File not found: " + filePath);
+        }
+        
+        long[] count = new long[1];
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            parseLongLines(reader, value -> {
+                count[0]++;
+                consumer.accept(value);
+            }, report);
+        }
+        
+        if (count[0] == 0) {
+            throw new IOException("No valid numbers found in file: " + filePath);
+        }
+        
+        return count[0];
+    }
+    
+    /**
+     * Samples blocks of consecutive values at random positions of a file, for approximate statistics
+     * without reading the whole file. The file is split into blockCount equal byte ranges (strata);
+     * in each one a random byte offset is chosen, the partial line there is skipped, and up to
+     * blockLines lines are parsed into that block's accumulator. Pass the result to
+     * {@link SampledStatistics#fromBlocks(List, double)}. Lines following long lines are slightly
+     * more likely to start a block, and blocks of a small file may overlap. In lenient mode, the
+     * line numbers in the report are relative to the start of each block.
+     * 
+     * @param filePath the path to the file to sample
+     * @param blockCount the number of blocks (strata) to read
+     * @param blockLines the maximum number of lines read per block
+     * @param random the source of randomness, seeded for reproducible samples
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return one accumulator per block, in file order
+     * @throws IOException if there's an error reading the file or no numbers were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, the counts are not positive,
+     *         or random is null
+     */
+    public static List<RunningStatistics> sampleBlocksFromFile(String filePath, int blockCount, int blockLines,
+            Random random, ParseReport report) throws IOException {
+        if (blockCount < 1 || blockLines < 1) {
+            throw new IllegalArgumentException("Block count and block lines must be positive");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null");
+        }
+        validateFile(filePath);
+        
+        List<RunningStatistics> blocks = new ArrayList<>(blockCount);
+        long values = 0;
+        try (SeekableByteChannel channel = Files.newByteChannel(Paths.get(filePath))) {
+            long fileSize = channel.size();
+            double stratum = (double) fileSize / blockCount;
+            for (int i = 0; i < blockCount; i++) {
+                long offset = (long) (stratum * i + random.nextDouble() * stratum);
+                // Starting one byte early makes the skipped "partial line" empty when offset is a line start
+                channel.position(Math.max(0, offset - 1));
+                // The skipped partial line does not count towards the block
+                BufferedReader reader = new LineLimitedReader(
+                        new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8),
+                        offset > 0 ? blockLines + 1 : blockLines);
+                if (offset > 0) {
+                    reader.readLine();
+                }
+                RunningStatistics block = new RunningStatistics();
+                parseLines(reader, block, report);
+                values += block.getCount();
+                blocks.add(block);
+            }
+        }
+        
+        if (values == 0) {
+            throw new IOException("No valid numbers found in file: " + filePath);
+        }
+        
+        return blocks;
+    }
+    
+    /**
+     * Reader that ends after a fixed number of lines, leaving the underlying channel open.
+     */
+    private static final class LineLimitedReader extends BufferedReader {
+        private int remaining;
+        
+        LineLimitedReader(Reader in, int lines) {
+            super(in);
+            this.remaining = lines;
+        }
+        
+        @Override
+        public String readLine() throws IOException {
+            if (remaining <= 0) {
+                return null;
+            }
+            remaining--;
+            return super.readLine();
+        }
+    }
+    
+    /**
+     * Reader that ends as soon as a stop condition holds.
+     */
+    private static final class StoppableReader extends BufferedReader {
+        private final BooleanSupplier stop;
+        
+        StoppableReader(Reader in, BooleanSupplier stop) {
+            super(in);
+            this.stop = stop;
+        }
+        
+        @Override
+        public String readLine() throws IOException {
+            return stop.getAsBoolean() ? null : super.readLine();
+        }
+    }
+    
+    /**
+     * Reads the lines of a file that start within a byte range and passes each parsed value
+     * to a consumer. A line belongs to the range containing its first byte, so splitting a file
+     * into adjacent ranges and reading each one, on any thread or machine, visits every line
+     * exactly once. Numbers are expected to be ASCII, and in lenient mode the line numbers in
+     * the report are relative to the start of the range.
+     * 
+     * @param filePath the path to the file to read
+     * @param start the first byte of the range, inclusive
+     * @param end the last byte of the range, exclusive
+     * @param consumer the consumer receiving each parsed value
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values passed to the consumer, possibly zero
+     * @throws IOException if there's an error reading the file
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, the range is invalid,
+     *         or the consumer is null
+     */
+    public static long streamRangeFromFile(String filePath, long start, long end, DoubleConsumer consumer,
+            ParseReport report) throws IOException {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid byte range: [" + start + ", " + end + ")");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+        validateFile(filePath);
+        
+        long[] count = new long[1];
+        try (SeekableByteChannel channel = Files.newByteChannel(Paths.get(filePath))) {
+            parseLines(new RangeLineReader(channel, start, end), value -> {
+                count[0]++;
+                consumer.accept(value);
+            }, report);
+        }
+        return count[0];
+    }
+    
+    /**
+     * Reader returning the lines that start within a byte range of a channel.
+     * Works on bytes so that line start positions are exact.
+     */
+    private static final class RangeLineReader extends BufferedReader {
+        private final InputStream in;
+        private final long end;
+        private final byte[] buffer = new byte[8192];
+        private byte[] line = new byte[64];
+        private int bufferPosition;
+        private int bufferLimit;
+        private long position;
+        
+        RangeLineReader(SeekableByteChannel channel, long start, long end) throws IOException {
+            super(Reader.nullReader());
+            this.end = end;
+            this.position = Math.max(0, start - 1);
+            channel.position(position);
+            this.in = Channels.newInputStream(channel);
+            // A line starting before the range belongs to the previous one; starting one byte
+            // early makes the skipped part empty when start is itself a line start
+            if (start > 0) {
+                int b;
+                while ((b = nextByte()) != -1 && b != '\n') {
+                    // skip
+                }
+            }
+        }
+        
+        @Override
+        public String readLine() throws IOException {
+            if (position >= end) {
+                return null;
+            }
+            int length = 0;
+            int b = nextByte();
+            if (b == -1) {
+                return null;
+            }
+            while (b != -1 && b != '\n') {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = (byte) b;
+                b = nextByte();
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            // UTF-8 keeps grouping keys intact; numbers are plain ASCII either way
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+        
+        private int nextByte() throws IOException {
+            if (bufferPosition == bufferLimit) {
+                bufferLimit = in.read(buffer);
+                bufferPosition = 0;
+                if (bufferLimit <= 0) {
+                    bufferLimit = 0;
+                    return -1;
+                }
+            }
+            position++;
+            return buffer[bufferPosition++] & 0xff;
+        }
+    }
+    
+    /**
+     * Streams {@code key value} lines from a file into per-key statistics. The value is the
+     * last field of the line, after the last space, tab or comma, and the key is everything
+     * before it with trailing separators removed, so keys may contain spaces. A line without
+     * a key or whose value is not a number is invalid.
+     * 
+     * @param filePath the path to the file to read
+     * @param groups the table receiving each value under its key
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values added to the table
+     * @throws IOException if there's an error reading the file or no valid lines were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, or the table is null
+     * @see GroupedStatistics#ofFile(String, int, ParseReport)
+     */
+    public static long streamGroupedFromFile(String filePath, GroupedStatistics groups, ParseReport report)
+            throws IOException {
+        if (groups == null) {
+            throw new IllegalArgumentException("Grouped statistics cannot be null");
+        }
+        validateFile(filePath);
+        
+        long count;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath))) {
+            count = parseGroupedLines(reader, groups, report);
+        }
+        if (count == 0) {
+            throw new IOException("No valid key-value lines found in file: " + filePath);
+        }
+        return count;
+    }
+    
+    /**
+     * Streams the {@code key value} lines that start within a byte range of a file into
+     * per-key statistics, with the same range rules as
+     * {@link #streamRangeFromFile(String, long, long, DoubleConsumer, ParseReport)}.
+     * 
+     * @param filePath the path to the file to read
+     * @param start the first byte of the range, inclusive
+     * @param end the last byte of the range, exclusive
+     * @param groups the table receiving each value under its key
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the number of values added to the table, possibly zero
+     * @throws IOException if there's an error reading the file
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, the range is invalid,
+     *         or the table is null
+     */
+    public static long streamGroupedRangeFromFile(String filePath, long start, long end, GroupedStatistics groups,
+            ParseReport report) throws IOException {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid byte range: [" + start + ", " + end + ")");
+        }
+        if (groups == null) {
+            throw new IllegalArgumentException("Grouped statistics cannot be null");
+        }
+        validateFile(filePath);
+        
+        try (SeekableByteChannel channel = Files.newByteChannel(Paths.get(filePath))) {
+            return parseGroupedLines(new RangeLineReader(channel, start, end), groups, report);
+        }
+    }
+    
+    /**
+     * Parses {@code key value} lines from a reader into per-key statistics.
+     * @return the number of values added
+     */
+    private static long parseGroupedLines(BufferedReader reader, GroupedStatistics groups, ParseReport report)
+            throws IOException {
+        long before = groups.getTotalCount();
+        parseLines(reader, new LineParser() {
+            @Override
+            public boolean isValid(String line) {
+                int separator = valueSeparator(line);
+                return separator > 0 && keyLength(line, separator) > 0
+                        && NumberValidator.isValidDouble(line.substring(separator + 1));
+            }
+            
+            @Override
+            public void parse(String line) {
+                int separator = valueSeparator(line);
+                int keyLength = separator > 0 ? keyLength(line, separator) : 0;
+                if (keyLength == 0) {
+                    throw new NumberFormatException("Missing key");
+                }
+                groups.accept(line, keyLength, Double.parseDouble(line.substring(separator + 1)));
+            }
+        }, report);
+        return groups.getTotalCount() - before;
+    }
+    
+    /**
+     * Finds the separator before the value of a trimmed line.
+     * @return the index of the last space, tab or comma, or -1 if there is none
+     */
+    private static int valueSeparator(String line) {
+        for (int i = line.length() - 1; i >= 0; i--) {
+            char c = line.charAt(i);
+            if (c == ' ' || c == '\t' || c == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the length of the key before a separator, without trailing separators.
+     */
+    private static int keyLength(String line, int separator) {
+        int end = separator;
+        while (end > 0) {
+            char c = line.charAt(end - 1);
+            if (c != ' ' && c != '\t' && c != ',') {
+                break;
+            }
+            end--;
+        }
+        return end;
+    }
+    
+    /**
+     * Reads two paired column files in lockstep into a paired accumulator.
+     * The k-th number of the first file is paired with the k-th number of the second;
+     * empty lines are skipped in both. Neither column is stored. Parsing is always strict:
+     * skipping an invalid line in one column would shift every later pair.
+     * 
+     * @param xFilePath the file with the first column
+     * @param yFilePath the file with the second column
+     * @param stats the accumulator receiving each pair
+     * @return the number of pairs read
+     * @throws IOException if there's an error reading, the files hold different numbers of values,
+     *         or no numbers were found
+     * @throws NumberFormatException if a line cannot be parsed as a number
+     * @throws IllegalArgumentException if a file path is null or empty, or the accumulator is null
+     */
+    public static long readPairedFiles(String xFilePath, String yFilePath, PairedStatistics stats)
+            throws IOException {
+        if (stats == null) {
+            throw new IllegalArgumentException("Accumulator cannot be null");
+        }
+        validateFile(xFilePath);
+        validateFile(yFilePath);
+        
+        long pairs = 0;
+        try (BufferedReader xReader = Files.newBufferedReader(Paths.get(xFilePath));
+             BufferedReader yReader = Files.newBufferedReader(Paths.get(yFilePath))) {
+            ValueCursor xs = new ValueCursor(xReader);
+            ValueCursor ys = new ValueCursor(yReader);
+            boolean hasX = xs.advance();
+            boolean hasY = ys.advance();
+            while (hasX && hasY) {
+                stats.accept(xs.value, ys.value);
+                pairs++;
+                hasX = xs.advance();
+                hasY = ys.advance();
+            }
+            if (hasX || hasY) {
+                throw new IOException(String.format("Columns have different lengths: %s has more than %d values",
+                        hasX ? xFilePath : yFilePath, pairs));
+            }
+        }
+        
+        if (pairs == 0) {
+            throw new IOException("No valid numbers found in files: " + xFilePath + ", " + yFilePath);
+        }
+        
+        return pairs;
+    }
+    
+    /**
+     * Pull-style strict reader of one number per line, for reading several files in lockstep.
+     * Lines go through the same parser as the push-style readers.
+     */
+    private static final class ValueCursor implements LineParser {
+        private final BufferedReader reader;
+        private int lineNumber;
+        double value;
+        
+        ValueCursor(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public boolean isValid(String line) {
+            return NumberValidator.isValidDouble(line);
+        }
+        
+        @Override
+        public void parse(String line) {
+            value = Double.parseDouble(line);
+        }
+        
+        /**
+         * Moves to the next number, skipping empty lines.
+         * @return false at the end of the input
+         */
+        boolean advance() throws IOException {
             String line;
-            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    return parseLine(line, lineNumber, this, null);
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Reads numeric data from a file into an off-heap column.
+     * Values are appended to the given column without boxing, so heap usage does not
+     * grow with the size of the file.
+     * 
+     * @param filePath the path to the file to read
+     * @param column the column that receives the numbers
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the given column
+     * @throws IOException if there's an error reading the file or no numbers were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, or the column is null
+     */
+    public static OffHeapDoubleColumn readNumbersToColumn(String filePath, OffHeapDoubleColumn column,
+            ParseReport report) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+        if (column == null) {
+            throw new IllegalArgumentException("Column cannot be null");
+        }
+        
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("File not found: " + filePath);
+        }
+        
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            parseLines(reader, column::add, report);
+        }
+        
+        if (column.isEmpty()) {
+            throw new IOException("No valid numbers found in file: " + filePath);
+        }
+        
+        return column;
+    }
+    
+    /**
+     * Parses one number per line from a reader and passes each value to a consumer.
+     * Empty lines are skipped. In strict mode (null report) the first invalid line aborts
+     * the read; in lenient mode invalid lines are detected without throwing and recorded
+     * in the report until its error budget is exceeded.
+     * <p>
+     * When a flight recording or the global {@link MetricsRegistry} is enabled, the pass
+     * is reported with its line counts and the time spent reading versus parsing (the
+     * latter includes handing values to the sink).
+     * 
+     * @param reader the reader to consume
+     * @param sink the consumer receiving each parsed value
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @throws IOException if there's an error reading
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     */
+    static void parseLines(BufferedReader reader, DoubleConsumer sink, ParseReport report) throws IOException {
+        parseLines(reader, new LineParser() {
+            @Override
+            public boolean isValid(String line) {
+                return NumberValidator.isValidDouble(line);
+            }
+            
+            @Override
+            public void parse(String line) {
+                sink.accept(Double.parseDouble(line));
+            }
+        }, report);
+    }
+    
+    /**
+     * Parses one integer per line from a reader and passes each value to a consumer,
+     * without going through floating point.
+     * 
+     * @param reader the reader to consume
+     * @param sink the consumer receiving each parsed value
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @throws IOException if there's an error reading
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     */
+    static void parseLongLines(BufferedReader reader, LongConsumer sink, ParseReport report) throws IOException {
+        parseLines(reader, new LineParser() {
+            @Override
+            public boolean isValid(String line) {
+                return NumberValidator.isValidLong(line);
+            }
             
+            @Override
+            public void parse(String line) {
+                sink.accept(Long.parseLong(line));
+            }
+        }, report);
+    }
+    
+    /**
+     * Converts the text of one trimmed, non-empty line and forwards the value.
+     */
+    private interface LineParser {
+        /**
+         * Checks the line syntax without throwing.
+         */
+        boolean isValid(String line);
+        
+        /**
+         * Parses the line and forwards the value.
+         * @throws NumberFormatException if the line is not valid
+         */
+        void parse(String line);
+    }
+    
+    private static void parseLines(BufferedReader reader, LineParser parser, ParseReport report)
+            throws IOException {
+        StatisticsEvents.Ingestion event = StatisticsEvents.isRecorderInitialized()
+                ? new StatisticsEvents.Ingestion() : null;
+        MetricsRegistry metrics = MetricsRegistry.global();
+        // Timing is only taken when someone is listening, keeping the default path free of clock reads
+        boolean timed = (event != null && event.isEnabled()) || metrics.isEnabled();
+        if (event != null) {
+            event.begin();
+        }
+        
+        String line;
+        int lineNumber = 0;
+        long values = 0;
+        long badLines = 0;
+        long chars = 0;
+        long readNanos = 0;
+        long parseNanos = 0;
+        long mark = timed ? System.nanoTime() : 0L;
+        
+        try {
             while ((line = reader.readLine()) != null) {
+                if (timed) {
+                    long now = System.nanoTime();
+                    readNanos += now - mark;
+                    mark = now;
+                }
                 lineNumber++;
+                chars += line.length() + 1;
                 line = line.trim();
+                if (report != null) {
+                    report.lineRead();
+                }
                 
                 // Skip empty lines
-                if (line.isEmpty()) {
-                    continue;
+                if (!line.isEmpty()) {
+                    if (parseLine(line, lineNumber, parser, report)) {
+                        values++;
+                    } else {
+                        badLines++;
+                    }
                 }
                 
-                try {
-                    double number = Double.parseDouble(line);
-                    numbers.add(number);
-                } catch (NumberFormatException e) {
-                    throw new NumberFormatException(
-                        String.format("Invalid number format at line %d: '%s'", lineNumber, line)
-                    );
+                if (timed) {
+                    long now = System.nanoTime();
+                    parseNanos += now - mark;
+                    mark = now;
+                }
+            }
+        } finally {
+            if (timed) {
+                if (event != null) {
+                    event.lines = lineNumber;
+                    event.values = values;
+                    event.badLines = badLines;
+                    event.chars = chars;
+                    event.readNanos = readNanos;
+                    event.parseNanos = parseNanos;
+                    event.commit();
+                }
+                if (metrics.isEnabled()) {
+                    metrics.counter(MetricsRegistry.READER_LINES).add(lineNumber);
+                    metrics.counter(MetricsRegistry.READER_VALUES).add(values);
+                    metrics.counter(MetricsRegistry.READER_BAD_LINES).add(badLines);
+                    metrics.counter(MetricsRegistry.READER_CHARS).add(chars);
+                    metrics.counter(MetricsRegistry.READER_READ_NANOS).add(readNanos);
+                    metrics.counter(MetricsRegistry.READER_PARSE_NANOS).add(parseNanos);
+                    long elapsed = readNanos + parseNanos;
+                    if (elapsed > 0) {
+                        metrics.histogram(MetricsRegistry.READER_PARSE_RATE).record(values * 1_000_000_000L / elapsed);
+                    }
                 }
             }
         }
-        
-        if (numbers.isEmpty()) {
-            throw new IOException("No valid numbers found in input stream");
+    }
+    
+    /**
+     * Parses one trimmed, non-empty line, failing on an invalid line in strict mode and
+     * skipping it in lenient mode while the error budget allows.
+     * 
+     * @return true if the line was parsed, false if it was skipped as invalid
+     * @throws NumberFormatException if the line is invalid in strict mode or the error budget is exceeded
+     */
+    private static boolean parseLine(String line, int lineNumber, LineParser parser, ParseReport report) {
+        if (report == null) {
+            try {
+                parser.parse(line);
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException(
+                    String.format("Invalid number format at line %d: '%s'", lineNumber, line)
+                );
+            }
+            return true;
         }
-        
-        return numbers;
+        if (parser.isValid(line)) {
+            parser.parse(line);
+            report.valueParsed();
+            return true;
+        }
+        if (!report.badLine(lineNumber)) {
+            throw new NumberFormatException(
+                String.format("Error budget exceeded: %d invalid lines (budget %d), last at line %d",
+                        report.getBadLineCount(), report.getErrorBudget(), lineNumber)
+            );
+        }
+        return false;
     }
     
     /**
@@ -0,0 +1,430 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Streaming statistics per key, for input given as {@code key value} lines.
+ * Keys live in an open-addressing hash table with linear probing, and the state of each key
+ * (count, mean, M2, minimum and maximum, updated as in {@link RunningStatistics}) is stored in
+ * primitive arrays indexed by the key's slot, so adding a value allocates nothing once its key
+ * is known. The mean, M2, minimum and maximum of a slot are interleaved in one array so that an
+ * update touches a single cache line. Tables built over separate parts of the input, for
+ * example one per thread, combine exactly with {@link #merge(GroupedStatistics)}.
+ * Instances are not thread-safe.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class GroupedStatistics {
+
+    /** Smallest part of a file worth giving its own thread in {@link #ofFile(String, int, ParseReport)}. */
+    static final long MIN_RANGE_BYTES = 1L << 20;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // moments holds four doubles per slot; 2^28 slots keep its length within an int
+    private static final int MAX_CAPACITY = 1 << 28;
+
+    private static final int MEAN = 0;
+    private static final int M2 = 1;
+    private static final int MIN = 2;
+    private static final int MAX = 3;
+
+    private String[] keys;
+    private int[] hashes;
+    private long[] counts;
+    private double[] moments;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private long totalCount;
+
+    /**
+     * Creates an empty table.
+     */
+    public GroupedStatistics() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty table sized for a number of keys, avoiding rehashing while it fills.
+     *
+     * @param expectedKeys the number of distinct keys expected
+     * @throws IllegalArgumentException if the number is negative or too large for one table
+     */
+    public GroupedStatistics(int expectedKeys) {
+        if (expectedKeys < 0 || expectedKeys > MAX_CAPACITY / 4 * 3) {
+            throw new IllegalArgumentException("Expected keys must be between 0 and " + MAX_CAPACITY / 4 * 3);
+        }
+        int capacity = INITIAL_CAPACITY;
+        while (capacity / 4 * 3 < expectedKeys) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Adds a value to the statistics of a key.
+     *
+     * @param key the group of the value
+     * @param value the value to add
+     * @throws IllegalArgumentException if the key is null
+     */
+    public void accept(String key, double value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        update(slot(key, key.length(), key.hashCode()), value);
+    }
+
+    /**
+     * Adds a value to the key formed by the first characters of a line, without creating the
+     * key string unless the key is new. Used by the reader, whose lines start with their key.
+     *
+     * @param line the line holding the key
+     * @param keyLength the length of the key at the start of the line
+     * @param value the value to add
+     */
+    void accept(String line, int keyLength, double value) {
+        // Same result as line.substring(0, keyLength).hashCode()
+        int hash = 0;
+        for (int i = 0; i < keyLength; i++) {
+            hash = 31 * hash + line.charAt(i);
+        }
+        update(slot(line, keyLength, hash), value);
+    }
+
+    /**
+     * Combines another table into this one, as if all of its values had been added here.
+     * Keys are combined with the same formulas as {@link RunningStatistics#merge(RunningStatistics)}.
+     *
+     * @param other the table to merge
+     * @return this table
+     * @throws IllegalArgumentException if the other table is null
+     */
+    public GroupedStatistics merge(GroupedStatistics other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Other statistics cannot be null");
+        }
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge statistics into themselves");
+        }
+        for (int from = 0; from < other.keys.length; from++) {
+            String key = other.keys[from];
+            if (key == null) {
+                continue;
+            }
+            int to = slot(key, key.length(), other.hashes[from]);
+            long count = counts[to];
+            long otherCount = other.counts[from];
+            int base = to << 2;
+            int otherBase = from << 2;
+            if (count == 0) {
+                System.arraycopy(other.moments, otherBase, moments, base, 4);
+            } else {
+                long n = count + otherCount;
+                double delta = other.moments[otherBase + MEAN] - moments[base + MEAN];
+                moments[base + MEAN] += delta * ((double) otherCount / n);
+                moments[base + M2] += other.moments[otherBase + M2] + delta * delta * ((double) count * otherCount / n);
+                moments[base + MIN] = Math.min(moments[base + MIN], other.moments[otherBase + MIN]);
+                moments[base + MAX] = Math.max(moments[base + MAX], other.moments[otherBase + MAX]);
+            }
+            counts[to] = count + otherCount;
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    /**
+     * Gets the statistics of one key.
+     *
+     * @param key the key to look up
+     * @return a copy of the key's accumulator, or null if the key has no values
+     */
+    public RunningStatistics get(String key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = key.hashCode();
+        for (int i = mix(hash) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == hash && keys[i].equals(key)) {
+                return toStatistics(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Passes every key with a copy of its accumulator to an action, in no particular order.
+     *
+     * @param action the action to run per key
+     * @throws IllegalArgumentException if the action is null
+     */
+    public void forEach(BiConsumer<String, RunningStatistics> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], toStatistics(i));
+            }
+        }
+    }
+
+    /**
+     * Gets the keys in natural string order.
+     * @return a new sorted list of the keys
+     */
+    public List<String> sortedKeys() {
+        String[] sorted = new String[size];
+        int next = 0;
+        for (String key : keys) {
+            if (key != null) {
+                sorted[next++] = key;
+            }
+        }
+        Arrays.sort(sorted);
+        return Arrays.asList(sorted);
+    }
+
+    /**
+     * Gets the number of distinct keys.
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of values added over all keys.
+     * @return the total count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Computes the statistics per key of a file of {@code key value} lines, splitting it into
+     * byte ranges read by separate threads. Each thread fills its own table and the tables are
+     * merged at the end, so threads never contend on a key. Files under
+     * {@link #MIN_RANGE_BYTES} per thread use fewer threads. The first range to fail, or to take
+     * the invalid lines of all ranges past the error budget, stops the others. In lenient mode
+     * the report holds the totals of all ranges, but with more than one range no invalid line
+     * numbers are recorded, since range line numbers are relative to the range; a single-range
+     * read records them up to the report's cap.
+     *
+     * @param filePath the path to the file to read
+     * @param threads the maximum number of threads reading the file
+     * @param report the report to fill in lenient mode, or null for strict parsing
+     * @return the statistics per key
+     * @throws IOException if there's an error reading the file or no valid lines were found
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the file path is null or empty, or threads is not positive
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     * @see FileDataReader#streamGroupedFromFile(String, GroupedStatistics, ParseReport)
+     */
+    public static GroupedStatistics ofFile(String filePath, int threads, ParseReport report)
+            throws IOException, InterruptedException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        FileDataReader.validateFile(filePath);
+        long fileSize = Files.size(Paths.get(filePath));
+        int parts = (int) Math.max(1, Math.min(threads, fileSize / MIN_RANGE_BYTES));
+        if (parts == 1) {
+            GroupedStatistics groups = new GroupedStatistics();
+            FileDataReader.streamGroupedFromFile(filePath, groups, report);
+            return groups;
+        }
+
+        long errorBudget = report != null ? report.getErrorBudget() : -1;
+        // Counted by every range as it goes, so an overrun is caught where it happens
+        AtomicLong badLines = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(parts);
+        try {
+            CompletionService<Part> completion = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < parts; i++) {
+                int index = i;
+                long start = fileSize * i / parts;
+                long end = fileSize * (i + 1) / parts;
+                Callable<Part> task = () -> {
+                    ParseReport partReport = errorBudget >= 0 ? new ParseReport(errorBudget, 0, badLines) : null;
+                    GroupedStatistics groups = new GroupedStatistics();
+                    FileDataReader.streamGroupedRangeFromFile(filePath, start, end, groups, partReport);
+                    return new Part(index, groups, partReport);
+                };
+                completion.submit(task);
+            }
+
+            // Take the ranges as they finish, so the first failure stops the rest (shutdownNow
+            // interrupts their reads), then merge in file order for reproducible results
+            Part[] done = new Part[parts];
+            for (int i = 0; i < parts; i++) {
+                try {
+                    Part part = completion.take().get();
+                    done[part.index] = part;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof NumberFormatException && report != null && badLines.get() > errorBudget) {
+                        throw new NumberFormatException(String.format(
+                                "Error budget exceeded: %d invalid lines (budget %d)", badLines.get(), errorBudget));
+                    }
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException(cause);
+                }
+            }
+
+            GroupedStatistics total = null;
+            for (Part part : done) {
+                if (report != null) {
+                    report.addCounts(part.report.getLinesRead(), part.report.getValuesParsed(),
+                            part.report.getBadLineCount());
+                }
+                // Merge the smaller table into the larger one
+                if (total == null) {
+                    total = part.groups;
+                } else if (part.groups.size > total.size) {
+                    total = part.groups.merge(total);
+                } else {
+                    total.merge(part.groups);
+                }
+            }
+
+            if (total.totalCount == 0) {
+                throw new IOException("No valid key-value lines found in file: " + filePath);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The table and report of one byte range.
+     */
+    private static final class Part {
+        final int index;
+        final GroupedStatistics groups;
+        final ParseReport report;
+
+        Part(int index, GroupedStatistics groups, ParseReport report) {
+            this.index = index;
+            this.groups = groups;
+            this.report = report;
+        }
+    }
+
+    private void update(int slot, double value) {
+        long n = ++counts[slot];
+        int base = slot << 2;
+        double delta = value - moments[base + MEAN];
+        double mean = moments[base + MEAN] + delta / n;
+        moments[base + MEAN] = mean;
+        moments[base + M2] += delta * (value - mean);
+        if (value < moments[base + MIN]) {
+            moments[base + MIN] = value;
+        }
+        if (value > moments[base + MAX]) {
+            moments[base + MAX] = value;
+        }
+        totalCount++;
+    }
+
+    /**
+     * Finds the slot of the key formed by the first characters of some text, adding the key
+     * with an empty state if it is new.
+     */
+    private int slot(String text, int keyLength, int hash) {
+        int i = mix(hash) & mask;
+        String key;
+        while ((key = keys[i]) != null) {
+            if (hashes[i] == hash && key.length() == keyLength && text.startsWith(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            grow();
+            i = mix(hash) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+        }
+        keys[i] = keyLength == text.length() ? text : text.substring(0, keyLength);
+        hashes[i] = hash;
+        int base = i << 2;
+        moments[base + MIN] = Double.POSITIVE_INFINITY;
+        moments[base + MAX] = Double.NEGATIVE_INFINITY;
+        size++;
+        return i;
+    }
+
+    /**
+     * Spreads the bits of a string hash, whose low bits alone cluster for similar keys.
+     */
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new long[capacity];
+        moments = new double[capacity << 2];
+        mask = capacity - 1;
+        // Load factor 3/4; the largest table takes keys until one slot is left for probes to stop at
+        resizeAt = capacity == MAX_CAPACITY ? capacity - 1 : capacity / 4 * 3;
+    }
+
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Too many distinct keys: " + size);
+        }
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        long[] oldCounts = counts;
+        double[] oldMoments = moments;
+        allocate(oldKeys.length << 1);
+        for (int from = 0; from < oldKeys.length; from++) {
+            if (oldKeys[from] != null) {
+                int to = mix(oldHashes[from]) & mask;
+                while (keys[to] != null) {
+                    to = (to + 1) & mask;
+                }
+                keys[to] = oldKeys[from];
+                hashes[to] = oldHashes[from];
+                counts[to] = oldCounts[from];
+                System.arraycopy(oldMoments, from << 2, moments, to << 2, 4);
+            }
+        }
+    }
+
+    private RunningStatistics toStatistics(int slot) {
+        int base = slot << 2;
+        return new RunningStatistics(counts[slot], moments[base + MEAN], moments[base + M2],
+                moments[base + MIN], moments[base + MAX]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Keys: %d, Count: %d", size, totalCount);
+    }
+}
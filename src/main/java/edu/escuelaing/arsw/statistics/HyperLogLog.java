@@ -0,0 +1,202 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values in a numeric column.
+ * Values are hashed from their raw bits ({@link Double#doubleToLongBits(double)}), so two
+ * values are distinct exactly when {@link Double#equals(Object)} says so. Whole numbers can
+ * be added as longs, which hashes their own bits, so values beyond 2^53 that share a double
+ * stay distinct; a sketch should be fed one way only, since 3 and 3.0 hash differently.
+ * The sketch uses
+ * 2^precision one-byte registers regardless of the number of values, has a relative
+ * standard error of about 1.04 / sqrt(2^precision), and can be merged with sketches of
+ * the same precision built over other chunks, threads or machines. Not thread-safe.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class HyperLogLog implements DoubleConsumer, LongConsumer {
+
+    /** Smallest supported precision (16 registers). */
+    public static final int MIN_PRECISION = 4;
+
+    /** Largest supported precision (262144 registers). */
+    public static final int MAX_PRECISION = 18;
+
+    /** Default precision: 16384 registers, about 0.8% standard error. */
+    public static final int DEFAULT_PRECISION = 14;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Creates an empty sketch with the default precision.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param precision number of index bits, between MIN_PRECISION and MAX_PRECISION
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION
+                    + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Recreates a sketch from the bytes returned by {@link #toByteArray()}.
+     *
+     * @param bytes the register contents
+     * @return the sketch
+     * @throws IllegalArgumentException if the length does not match a supported precision or
+     *         a register holds a rank that {@link #accept(double)} cannot produce
+     */
+    public static HyperLogLog fromByteArray(byte[] bytes) {
+        int precision = Integer.numberOfTrailingZeros(bytes.length);
+        if (Integer.bitCount(bytes.length) != 1 || precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Invalid sketch length: " + bytes.length);
+        }
+        int maxRank = Long.SIZE - precision + 1;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] < 0 || bytes[i] > maxRank) {
+                throw new IllegalArgumentException("Invalid register " + i + ": " + bytes[i]);
+            }
+        }
+        HyperLogLog sketch = new HyperLogLog(precision);
+        System.arraycopy(bytes, 0, sketch.registers, 0, bytes.length);
+        return sketch;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     * @param value the value to add
+     */
+    @Override
+    public void accept(double value) {
+        add(mix(Double.doubleToLongBits(value)));
+    }
+
+    /**
+     * Adds a whole number to the sketch, hashing its bits without going through a double.
+     * @param value the value to add
+     */
+    @Override
+    public void accept(long value) {
+        add(mix(value));
+    }
+
+    private void add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // Position of the first set bit after the index bits, capped by the remaining width
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Merges another sketch into this one, as if all of its values had been added here.
+     *
+     * @param other the sketch to merge
+     * @return this sketch
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches with different precisions");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Estimates the number of distinct values added.
+     * Uses linear counting while many registers are still empty, where it is more accurate.
+     *
+     * @return the estimated distinct count
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0.0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Gets the precision of this sketch.
+     * @return the number of index bits
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Gets the expected relative standard error of the estimate.
+     * @return 1.04 / sqrt(number of registers)
+     */
+    public double getRelativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * Gets a copy of the registers, suitable for {@link #fromByteArray(byte[])}.
+     * @return the register contents
+     */
+    public byte[] toByteArray() {
+        return registers.clone();
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1.0 + 1.079 / m);
+        }
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3, spreading similar bit patterns across the hash.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Distinct values: ~%d (+/- %.1f%%)", estimate(), getRelativeStandardError() * 100);
+    }
+}
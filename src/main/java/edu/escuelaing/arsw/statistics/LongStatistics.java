@@ -0,0 +1,232 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.math.BigInteger;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Single-pass, mergeable accumulator specialized for integer columns.
+ * The sum is kept exactly in a long and promoted to a BigInteger only if
+ * {@link Math#addExact(long, long)} overflows, so the count, sum, minimum, maximum and mean
+ * are exact (the mean is rounded once at the end). Floating point is only used for the
+ * variance, accumulated with Welford's update on values shifted by the first one to keep
+ * precision for large clustered values. Not thread-safe.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class LongStatistics implements LongConsumer, IntConsumer {
+
+    private long count;
+    private long sum;
+    private BigInteger overflowSum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private long shift;
+    private double shiftedMean;
+    private double m2;
+
+    /**
+     * Adds a value.
+     * @param value the value to add
+     */
+    @Override
+    public void accept(long value) {
+        if (count == 0) {
+            shift = value;
+        }
+        count++;
+        if (overflowSum == null) {
+            try {
+                sum = Math.addExact(sum, value);
+            } catch (ArithmeticException e) {
+                overflowSum = BigInteger.valueOf(sum).add(BigInteger.valueOf(value));
+            }
+        } else {
+            overflowSum = overflowSum.add(BigInteger.valueOf(value));
+        }
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        double x = shifted(value);
+        double delta = x - shiftedMean;
+        shiftedMean += delta / count;
+        m2 += delta * (x - shiftedMean);
+    }
+
+    /**
+     * Adds an int value.
+     * @param value the value to add
+     */
+    @Override
+    public void accept(int value) {
+        accept((long) value);
+    }
+
+    /**
+     * Combines another accumulator into this one, as if all of its values had been added here.
+     *
+     * @param other the accumulator to merge
+     * @return this accumulator
+     */
+    public LongStatistics merge(LongStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            sum = other.sum;
+            overflowSum = other.overflowSum;
+            min = other.min;
+            max = other.max;
+            shift = other.shift;
+            shiftedMean = other.shiftedMean;
+            m2 = other.m2;
+            return this;
+        }
+        // Re-express the other mean relative to this shift before combining
+        double otherMean = other.shiftedMean + shiftDifference(other.shift, shift);
+        long n = count + other.count;
+        double delta = otherMean - shiftedMean;
+        shiftedMean += delta * ((double) other.count / n);
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+
+        if (overflowSum == null && other.overflowSum == null) {
+            try {
+                sum = Math.addExact(sum, other.sum);
+            } catch (ArithmeticException e) {
+                overflowSum = BigInteger.valueOf(sum).add(BigInteger.valueOf(other.sum));
+            }
+        } else {
+            overflowSum = getSum().add(other.getSum());
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Gets the number of values added.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the exact sum of the values.
+     * @return the sum
+     */
+    public BigInteger getSum() {
+        return overflowSum != null ? overflowSum : BigInteger.valueOf(sum);
+    }
+
+    /**
+     * Gets the exact sum of the values as a long.
+     * @return the sum
+     * @throws ArithmeticException if the sum does not fit in a long
+     */
+    public long getSumAsLong() {
+        if (overflowSum != null) {
+            return overflowSum.longValueExact();
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the smallest value.
+     * @return the minimum, or Long.MAX_VALUE if no values were added
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest value.
+     * @return the maximum, or Long.MIN_VALUE if no values were added
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean, computed from the exact sum and rounded once.
+     * @return the mean, or NaN if no values were added
+     */
+    public double getMean() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (overflowSum == null && Math.abs(sum) < (1L << 53)) {
+            return (double) sum / count;
+        }
+        // Keep at least 55 quotient bits and fold a nonzero remainder into the lowest one, so the
+        // conversion to double rounds the same way the exact quotient would
+        BigInteger magnitude = getSum().abs();
+        BigInteger divisor = BigInteger.valueOf(count);
+        int shift = Math.max(0, 56 + divisor.bitLength() - magnitude.bitLength());
+        BigInteger[] quotient = magnitude.shiftLeft(shift).divideAndRemainder(divisor);
+        BigInteger bits = quotient[1].signum() == 0 ? quotient[0] : quotient[0].setBit(0);
+        double mean = Math.scalb(bits.doubleValue(), -shift);
+        return getSum().signum() < 0 ? -mean : mean;
+    }
+
+    /**
+     * Gets the sample variance, using n - 1 as in {@link StatisticsCalculator}.
+     * @return the variance, or NaN if fewer than 2 values were added
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * Gets the sample standard deviation.
+     * @return the standard deviation, or NaN if fewer than 2 values were added
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Converts the accumulated values to a result, with the same validation as
+     * {@link StatisticsCalculator#calculateStatistics(java.util.List)}.
+     *
+     * @return a StatisticsResult with mean and standard deviation
+     * @throws IllegalArgumentException if fewer than 2 values were added
+     */
+    public StatisticsCalculator.StatisticsResult toResult() {
+        if (count == 0) {
+            throw new IllegalArgumentException("List cannot be null or empty");
+        }
+        if (count < 2) {
+            throw new IllegalArgumentException("Standard deviation requires at least 2 values");
+        }
+        return new StatisticsCalculator.StatisticsResult(getMean(), getStandardDeviation());
+    }
+
+    private double shifted(long value) {
+        return shiftDifference(value, shift);
+    }
+
+    /**
+     * Computes a - b, exactly when it fits in a long.
+     */
+    private static double shiftDifference(long a, long b) {
+        long d = a - b;
+        // Overflow iff a and b have different signs and the result's sign differs from a
+        if (((a ^ b) & (a ^ d)) < 0) {
+            return (double) a - (double) b;
+        }
+        return d;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Count: %d, Sum: %s, Mean: %.2f, Standard Deviation: %.2f",
+                count, getSum(), getMean(), getStandardDeviation());
+    }
+}
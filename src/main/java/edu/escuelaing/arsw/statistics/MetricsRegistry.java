@@ -0,0 +1,219 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process registry of named counters and histograms.
+ * The global registry is disabled by default; instrumented code checks {@link #isEnabled()}
+ * once per operation, so the cost when disabled is a single volatile read.
+ * It can be enabled with the system property {@code statistics.metrics=true} or
+ * through {@link #setEnabled(boolean)}.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class MetricsRegistry {
+
+    /** Lines read by FileDataReader, including empty and invalid lines. */
+    public static final String READER_LINES = "reader.lines";
+    /** Values parsed by FileDataReader. */
+    public static final String READER_VALUES = "reader.values";
+    /** Invalid lines skipped by FileDataReader in lenient mode. */
+    public static final String READER_BAD_LINES = "reader.badLines";
+    /**
+     * Characters consumed by FileDataReader, counting one per line terminator; the reader sees
+     * decoded lines, so this equals the byte count only for single-byte text with LF endings.
+     */
+    public static final String READER_CHARS = "reader.chars";
+    /** Nanoseconds spent waiting for lines from the underlying reader. */
+    public static final String READER_READ_NANOS = "reader.readNanos";
+    /** Nanoseconds spent validating and parsing lines. */
+    public static final String READER_PARSE_NANOS = "reader.parseNanos";
+    /** Histogram of values parsed per second, one sample per read. */
+    public static final String READER_PARSE_RATE = "reader.parseRate";
+    /** Histogram of calculateStatistics durations in nanoseconds. */
+    public static final String COMPUTE_NANOS = "calculator.computeNanos";
+    /** Histogram of the number of values passed to calculateStatistics. */
+    public static final String COMPUTE_SIZE = "calculator.size";
+
+    private static final MetricsRegistry GLOBAL =
+            new MetricsRegistry(Boolean.getBoolean("statistics.metrics"));
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    /**
+     * Creates a registry.
+     * @param enabled whether instrumented code should record into it
+     */
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the registry used by the reader and calculator instrumentation.
+     * @return the global registry
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Checks whether instrumented code should record into this registry.
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording into this registry.
+     * @param enabled whether instrumented code should record
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets or creates the counter with the given name.
+     * @param name the counter name
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * Gets or creates the histogram with the given name.
+     * @param name the histogram name
+     * @return the histogram
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Removes all counters and histograms.
+     */
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+
+    /**
+     * Renders every metric as {@code name=value} lines, sorted by name.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(counters).forEach((name, counter) ->
+                sb.append(name).append('=').append(counter.get()).append('\n'));
+        new TreeMap<>(histograms).forEach((name, histogram) ->
+                sb.append(name).append('=').append(histogram).append('\n'));
+        return sb.toString();
+    }
+
+    /**
+     * Monotonic counter that is cheap to update from many threads.
+     */
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        /**
+         * Adds to the counter.
+         * @param delta the amount to add
+         */
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        /**
+         * Gets the current value.
+         * @return the counter value
+         */
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Histogram of non-negative long samples with power-of-two buckets.
+     * Percentiles are reported as the upper bound of the bucket they fall in.
+     */
+    public static class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * Records a sample; negative samples are recorded as zero.
+         * @param value the sample
+         */
+        public void record(long value) {
+            long v = Math.max(0, value);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(v));
+            count.increment();
+            sum.add(v);
+            max.accumulateAndGet(v, Math::max);
+        }
+
+        /**
+         * Gets the number of samples.
+         * @return the sample count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Gets the mean of the samples.
+         * @return the mean, or 0 if there are no samples
+         */
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * Gets the largest sample.
+         * @return the maximum sample
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Estimates a percentile from the bucket counts.
+         * @param percentile the percentile, between 0 and 100
+         * @return the upper bound of the bucket holding the percentile
+         */
+        public long getPercentile(double percentile) {
+            long n = count.sum();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * n);
+            long seen = 0;
+            for (int b = 0; b < buckets.length(); b++) {
+                seen += buckets.get(b);
+                if (seen >= Math.max(1, rank)) {
+                    return b == 0 ? 0 : Math.min(max.get(), b == Long.SIZE ? Long.MAX_VALUE : (1L << b) - 1);
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count:%d mean:%.1f p50:%d p99:%d max:%d",
+                    getCount(), getMean(), getPercentile(50), getPercentile(99), getMax());
+        }
+    }
+}
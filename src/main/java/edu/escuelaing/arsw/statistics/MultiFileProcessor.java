@@ -0,0 +1,218 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Processes many column files concurrently, one task per file.
+ * On Java 21 and later each file runs on its own virtual thread, so threads blocked on
+ * slow storage cost almost nothing; on older runtimes a platform thread pool sized to the
+ * open file limit is used instead. In both cases a semaphore caps the number of files
+ * open at the same time, and each file keeps its permit until its statistics are computed,
+ * so the cap also bounds the number of columns held in memory.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class MultiFileProcessor {
+
+    /** Default maximum number of files read at the same time. */
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor, which only exists on Java 21+.
+     * Reflection keeps the class loadable by the Java 11 build.
+     */
+    private static Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the running JVM supports virtual threads.
+     * @return true if files will be processed on virtual threads
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Computes the statistics of every file concurrently.
+     * A failure in one file is reported in its outcome and does not affect the others.
+     *
+     * @param filePaths the files to process
+     * @param maxOpenFiles the maximum number of files read or held in memory at the same time
+     * @param lenient whether invalid lines are skipped instead of failing the file
+     * @return one outcome per file, in the order of the given paths
+     * @throws IllegalArgumentException if the list is null or maxOpenFiles is not positive
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static List<FileOutcome> processFiles(List<String> filePaths, int maxOpenFiles, boolean lenient)
+            throws InterruptedException {
+        return processFiles(filePaths, maxOpenFiles, lenient, ParseReport.UNLIMITED);
+    }
+
+    /**
+     * Computes the statistics of every file concurrently, failing a file in lenient mode once
+     * it has more invalid lines than the error budget. Each file gets its own budget.
+     *
+     * @param filePaths the files to process
+     * @param maxOpenFiles the maximum number of files read or held in memory at the same time
+     * @param lenient whether invalid lines are skipped instead of failing the file
+     * @param errorBudget the number of invalid lines tolerated per file in lenient mode
+     * @return one outcome per file, in the order of the given paths
+     * @throws IllegalArgumentException if the list is null, maxOpenFiles is not positive or the
+     *         error budget is negative
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static List<FileOutcome> processFiles(List<String> filePaths, int maxOpenFiles, boolean lenient,
+            long errorBudget) throws InterruptedException {
+        if (filePaths == null) {
+            throw new IllegalArgumentException("File list cannot be null");
+        }
+        if (maxOpenFiles <= 0) {
+            throw new IllegalArgumentException("Maximum open files must be positive");
+        }
+        if (errorBudget < 0) {
+            throw new IllegalArgumentException("Error budget cannot be negative");
+        }
+
+        Semaphore openFiles = new Semaphore(maxOpenFiles);
+        ExecutorService executor = newExecutor(maxOpenFiles);
+        try {
+            List<Future<FileOutcome>> futures = new ArrayList<>(filePaths.size());
+            for (String filePath : filePaths) {
+                Callable<FileOutcome> task = () -> processFile(filePath, openFiles, lenient, errorBudget);
+                futures.add(executor.submit(task));
+            }
+
+            List<FileOutcome> outcomes = new ArrayList<>(filePaths.size());
+            for (Future<FileOutcome> future : futures) {
+                try {
+                    outcomes.add(future.get());
+                } catch (ExecutionException e) {
+                    // processFile captures its own failures, so this only covers errors
+                    throw new IllegalStateException("File task failed", e.getCause());
+                }
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static FileOutcome processFile(String filePath, Semaphore openFiles, boolean lenient,
+            long errorBudget) throws InterruptedException {
+        ParseReport report = lenient ? new ParseReport(errorBudget) : null;
+        // The permit is held until the values can be dropped, so it bounds memory as well as open files
+        openFiles.acquire();
+        try {
+            CustomLinkedList<Double> numbers;
+            try {
+                numbers = FileDataReader.readNumbersFromFile(filePath, report);
+            } catch (Exception e) {
+                return new FileOutcome(filePath, 0, null, report, e);
+            }
+
+            try {
+                StatisticsCalculator.StatisticsResult result = StatisticsCalculator.calculateStatistics(numbers);
+                return new FileOutcome(filePath, numbers.size(), result, report, null);
+            } catch (IllegalArgumentException e) {
+                return new FileOutcome(filePath, numbers.size(), null, report, e);
+            }
+        } finally {
+            openFiles.release();
+        }
+    }
+
+    private static ExecutorService newExecutor(int maxOpenFiles) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall through to platform threads
+            }
+        }
+        return Executors.newFixedThreadPool(maxOpenFiles);
+    }
+
+    /**
+     * Result of processing a single file: either statistics or the error that stopped it.
+     */
+    public static class FileOutcome {
+        private final String filePath;
+        private final int count;
+        private final StatisticsCalculator.StatisticsResult result;
+        private final ParseReport report;
+        private final Exception error;
+
+        FileOutcome(String filePath, int count, StatisticsCalculator.StatisticsResult result,
+                ParseReport report, Exception error) {
+            this.filePath = filePath;
+            this.count = count;
+            this.result = result;
+            this.report = report;
+            this.error = error;
+        }
+
+        /**
+         * Gets the path of the processed file.
+         * @return the file path
+         */
+        public String getFilePath() {
+            return filePath;
+        }
+
+        /**
+         * Gets the number of values read from the file.
+         * @return the number of values
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the statistics of the file.
+         * @return the statistics, or null if processing failed
+         */
+        public StatisticsCalculator.StatisticsResult getResult() {
+            return result;
+        }
+
+        /**
+         * Gets the parse report of the file.
+         * @return the parse report, or null in strict mode
+         */
+        public ParseReport getReport() {
+            return report;
+        }
+
+        /**
+         * Gets the error that stopped processing of the file.
+         * @return the error, or null if processing succeeded
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        /**
+         * Checks whether the file was processed successfully.
+         * @return true if statistics are available
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
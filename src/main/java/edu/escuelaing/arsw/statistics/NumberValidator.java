@@ -0,0 +1,165 @@
+package edu.escuelaing.arsw.statistics;
+
+/**
+ * Exception-free syntax check for the textual number formats accepted by
+ * {@link Double#parseDouble(String)}.
+ * A string that passes {@link #isValidDouble(String)} is guaranteed to parse,
+ * so lenient readers can skip bad lines without building a NumberFormatException.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public final class NumberValidator {
+
+    private NumberValidator() {
+    }
+
+    /**
+     * Checks whether a trimmed string is a valid Java floating point literal.
+     * Accepts optional sign, decimal and hexadecimal forms, exponents,
+     * the f/F/d/D suffixes, "NaN" and "Infinity".
+     *
+     * @param s the string to check, already trimmed
+     * @return true if Double.parseDouble would accept the string
+     */
+    public static boolean isValidDouble(String s) {
+        if (s == null) {
+            return false;
+        }
+        int len = s.length();
+        if (len == 0) {
+            return false;
+        }
+
+        int i = 0;
+        char c = s.charAt(0);
+        if (c == '+' || c == '-') {
+            i++;
+        }
+        if (i == len) {
+            return false;
+        }
+
+        c = s.charAt(i);
+        if (c == 'N') {
+            return s.startsWith("NaN", i) && i + 3 == len;
+        }
+        if (c == 'I') {
+            return s.startsWith("Infinity", i) && i + 8 == len;
+        }
+        if (c == '0' && i + 1 < len && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            return isValidHex(s, i + 2, len);
+        }
+        return isValidDecimal(s, i, len);
+    }
+
+    /**
+     * Checks whether a trimmed string is a valid decimal long literal, as accepted by
+     * {@link Long#parseLong(String)}, including the range check.
+     *
+     * @param s the string to check, already trimmed
+     * @return true if Long.parseLong would accept the string
+     */
+    public static boolean isValidLong(String s) {
+        if (s == null) {
+            return false;
+        }
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (s.charAt(0) == '+' || s.charAt(0) == '-')) {
+            negative = s.charAt(0) == '-';
+            i++;
+        }
+        if (i == len) {
+            return false;
+        }
+        // Accumulate negatively so that Long.MIN_VALUE is representable
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return false;
+            }
+            int digit = c - '0';
+            if (result < (limit + digit) / 10) {
+                return false;
+            }
+            result = result * 10 - digit;
+        }
+        return true;
+    }
+
+    private static boolean isValidDecimal(String s, int i, int len) {
+        int digits = 0;
+        while (i < len && isDigit(s.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < len && s.charAt(i) == '.') {
+            i++;
+            while (i < len && isDigit(s.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i = skipExponent(s, i + 1, len);
+            if (i < 0) {
+                return false;
+            }
+        }
+        return isSuffixEnd(s, i, len);
+    }
+
+    private static boolean isValidHex(String s, int i, int len) {
+        int digits = 0;
+        while (i < len && Character.digit(s.charAt(i), 16) >= 0) {
+            i++;
+            digits++;
+        }
+        if (i < len && s.charAt(i) == '.') {
+            i++;
+            while (i < len && Character.digit(s.charAt(i), 16) >= 0) {
+                i++;
+                digits++;
+            }
+        }
+        // Hexadecimal literals require a binary exponent
+        if (digits == 0 || i >= len || (s.charAt(i) != 'p' && s.charAt(i) != 'P')) {
+            return false;
+        }
+        i = skipExponent(s, i + 1, len);
+        return i >= 0 && isSuffixEnd(s, i, len);
+    }
+
+    /**
+     * Skips an optionally signed exponent, returning the next index or -1 if malformed.
+     */
+    private static int skipExponent(String s, int i, int len) {
+        if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        int start = i;
+        while (i < len && isDigit(s.charAt(i))) {
+            i++;
+        }
+        return i == start ? -1 : i;
+    }
+
+    private static boolean isSuffixEnd(String s, int i, int len) {
+        if (i == len) {
+            return true;
+        }
+        char c = s.charAt(i);
+        return i + 1 == len && (c == 'f' || c == 'F' || c == 'd' || c == 'D');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
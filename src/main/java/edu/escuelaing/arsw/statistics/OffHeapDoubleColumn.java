@@ -0,0 +1,238 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Append-only column of primitive doubles stored outside the Java heap.
+ * Values live in fixed-size chunks of direct memory, or in chunks memory-mapped from a
+ * temporary spill file, so heap usage stays flat regardless of the number of values.
+ * The column must be closed to release its memory and delete any spill file.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class OffHeapDoubleColumn implements AutoCloseable {
+
+    /** Default number of doubles per chunk (8 MB of memory). */
+    public static final int DEFAULT_CHUNK_CAPACITY = 1 << 20;
+
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Fall back to releasing memory when the buffers are garbage collected
+            invokeCleaner = null;
+            unsafe = null;
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private final Path spillFile;
+    private final FileChannel spillChannel;
+    private ByteBuffer[] buffers = new ByteBuffer[8];
+    private DoubleBuffer[] chunks = new DoubleBuffer[8];
+    private int chunkCount;
+    private long size;
+    private boolean closed;
+
+    /**
+     * Constructs an empty column backed by direct memory.
+     */
+    public OffHeapDoubleColumn() {
+        this.chunkShift = Integer.numberOfTrailingZeros(DEFAULT_CHUNK_CAPACITY);
+        this.chunkMask = DEFAULT_CHUNK_CAPACITY - 1;
+        this.spillFile = null;
+        this.spillChannel = null;
+    }
+
+    /**
+     * Constructs an empty column.
+     *
+     * @param chunkCapacity number of doubles per chunk, must be a power of two
+     * @param spillDirectory directory for a memory-mapped spill file, or null for direct memory
+     * @throws IOException if the spill file cannot be created
+     * @throws IllegalArgumentException if the chunk capacity is not a positive power of two
+     */
+    public OffHeapDoubleColumn(int chunkCapacity, Path spillDirectory) throws IOException {
+        if (chunkCapacity <= 0 || Integer.bitCount(chunkCapacity) != 1
+                || chunkCapacity > Integer.MAX_VALUE / Double.BYTES) {
+            throw new IllegalArgumentException("Chunk capacity must be a power of two: " + chunkCapacity);
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkCapacity);
+        this.chunkMask = chunkCapacity - 1;
+        if (spillDirectory == null) {
+            this.spillFile = null;
+            this.spillChannel = null;
+        } else {
+            this.spillFile = Files.createTempFile(spillDirectory, "column", ".bin");
+            this.spillChannel = FileChannel.open(spillFile,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+
+    /**
+     * Appends a value to the end of this column.
+     *
+     * @param value the value to add
+     * @throws IllegalStateException if the column is closed
+     * @throws java.io.UncheckedIOException if a spill chunk cannot be mapped
+     */
+    public void add(double value) {
+        int offset = (int) (size & chunkMask);
+        if (offset == 0) {
+            ensureOpen();
+            allocateChunk();
+        }
+        chunks[chunkCount - 1].put(offset, value);
+        size++;
+    }
+
+    /**
+     * Returns the value at the specified position.
+     *
+     * @param index index of the value to return
+     * @return the value at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if the column is closed
+     */
+    public double get(long index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return chunks[(int) (index >>> chunkShift)].get((int) (index & chunkMask));
+    }
+
+    /**
+     * Returns the number of values in this column.
+     * @return the number of values
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this column contains no values.
+     * @return true if the column is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if this column keeps its chunks in a memory-mapped spill file.
+     * @return true if the column spills to disk
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Passes every value, in order, to the given consumer.
+     *
+     * @param action the action to perform for each value
+     * @throws IllegalStateException if the column is closed
+     */
+    public void forEach(DoubleConsumer action) {
+        ensureOpen();
+        long remaining = size;
+        for (int c = 0; c < chunkCount && remaining > 0; c++) {
+            DoubleBuffer chunk = chunks[c];
+            int n = (int) Math.min(remaining, chunkMask + 1L);
+            for (int i = 0; i < n; i++) {
+                action.accept(chunk.get(i));
+            }
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Releases the memory of this column and deletes its spill file, if any.
+     * Closing an already closed column has no effect.
+     *
+     * @throws IOException if the spill file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int c = 0; c < chunkCount; c++) {
+            free(buffers[c]);
+            buffers[c] = null;
+            chunks[c] = null;
+        }
+        chunkCount = 0;
+        size = 0;
+        if (spillChannel != null) {
+            spillChannel.close();
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    private void allocateChunk() {
+        if (chunkCount == chunks.length) {
+            buffers = Arrays.copyOf(buffers, chunkCount * 2);
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        int bytes = (chunkMask + 1) * Double.BYTES;
+        ByteBuffer buffer;
+        if (spillChannel == null) {
+            buffer = ByteBuffer.allocateDirect(bytes);
+        } else {
+            try {
+                buffer = spillChannel.map(FileChannel.MapMode.READ_WRITE, (long) chunkCount * bytes, bytes);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException("Cannot map spill chunk in " + spillFile, e);
+            }
+        }
+        buffer.order(ByteOrder.nativeOrder());
+        buffers[chunkCount] = buffer;
+        chunks[chunkCount] = buffer.asDoubleBuffer();
+        chunkCount++;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Column is closed");
+        }
+    }
+
+    /**
+     * Frees a direct or mapped buffer immediately when the runtime allows it.
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Memory is released when the buffer is garbage collected
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package edu.escuelaing.arsw.statistics;
+
+/**
+ * Single-pass, mergeable accumulator for two paired columns.
+ * Keeps the means, the sums of squared differences and the co-moment of x and y using
+ * Welford-style updates, from which covariance, Pearson correlation and the least-squares
+ * line y = beta0 + beta1 x follow without a second pass or random access.
+ * Not thread-safe; give each thread its own instance and merge them.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class PairedStatistics {
+
+    private long count;
+    private double meanX;
+    private double meanY;
+    private double m2x;
+    private double m2y;
+    private double cxy;
+
+    /**
+     * Adds one (x, y) pair.
+     *
+     * @param x the value from the first column
+     * @param y the value from the second column
+     */
+    public void accept(double x, double y) {
+        count++;
+        double dx = x - meanX;
+        meanX += dx / count;
+        double dy = y - meanY;
+        meanY += dy / count;
+        // Mixing the old x delta with the new y mean keeps the co-moment update exact
+        m2x += dx * (x - meanX);
+        m2y += dy * (y - meanY);
+        cxy += dx * (y - meanY);
+    }
+
+    /**
+     * Combines another accumulator into this one, as if all of its pairs had been added here.
+     *
+     * @param other the accumulator to merge
+     * @return this accumulator
+     */
+    public PairedStatistics merge(PairedStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            meanX = other.meanX;
+            meanY = other.meanY;
+            m2x = other.m2x;
+            m2y = other.m2y;
+            cxy = other.cxy;
+            return this;
+        }
+        long n = count + other.count;
+        double dx = other.meanX - meanX;
+        double dy = other.meanY - meanY;
+        double weight = (double) count * other.count / n;
+        m2x += other.m2x + dx * dx * weight;
+        m2y += other.m2y + dy * dy * weight;
+        cxy += other.cxy + dx * dy * weight;
+        meanX += dx * ((double) other.count / n);
+        meanY += dy * ((double) other.count / n);
+        count = n;
+        return this;
+    }
+
+    /**
+     * Gets the number of pairs added.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the first column.
+     * @return the mean of x
+     */
+    public double getMeanX() {
+        return count == 0 ? Double.NaN : meanX;
+    }
+
+    /**
+     * Gets the mean of the second column.
+     * @return the mean of y
+     */
+    public double getMeanY() {
+        return count == 0 ? Double.NaN : meanY;
+    }
+
+    /**
+     * Gets the sample covariance, using n - 1.
+     * @return the covariance, or NaN if fewer than 2 pairs were added
+     */
+    public double getCovariance() {
+        return count < 2 ? Double.NaN : cxy / (count - 1);
+    }
+
+    /**
+     * Gets the Pearson correlation coefficient.
+     * @return r, or NaN if fewer than 2 pairs were added or a column is constant
+     */
+    public double getCorrelation() {
+        if (count < 2 || m2x == 0.0 || m2y == 0.0) {
+            return Double.NaN;
+        }
+        return cxy / Math.sqrt(m2x * m2y);
+    }
+
+    /**
+     * Gets the slope of the least-squares line.
+     * @return beta1, or NaN if fewer than 2 pairs were added or x is constant
+     */
+    public double getSlope() {
+        return count < 2 || m2x == 0.0 ? Double.NaN : cxy / m2x;
+    }
+
+    /**
+     * Gets the intercept of the least-squares line.
+     * @return beta0, or NaN if the slope is undefined
+     */
+    public double getIntercept() {
+        return meanY - getSlope() * meanX;
+    }
+
+    /**
+     * Converts the accumulated moments to a regression result.
+     *
+     * @return a RegressionResult with covariance, correlation and the least-squares line
+     * @throws IllegalArgumentException if fewer than 2 pairs were added or the first column is constant
+     */
+    public StatisticsCalculator.RegressionResult toResult() {
+        if (count < 2) {
+            throw new IllegalArgumentException("Regression requires at least 2 pairs");
+        }
+        if (m2x == 0.0) {
+            throw new IllegalArgumentException("Regression requires non-constant x values");
+        }
+        double r = getCorrelation();
+        return new StatisticsCalculator.RegressionResult(count, getCovariance(), r, r * r,
+                getIntercept(), getSlope());
+    }
+}
@@ -0,0 +1,180 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report filled by the lenient reading mode of {@link FileDataReader}.
+ * Carries the error budget for a read and records how many lines were parsed
+ * and which line numbers were rejected (up to a fixed cap).
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class ParseReport {
+
+    /** Error budget that never aborts the read. */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    /** Default number of bad line numbers kept in the report. */
+    public static final int DEFAULT_RECORDED_LINES = 100;
+
+    private final long errorBudget;
+    private final int[] badLineNumbers;
+    private final AtomicLong sharedBadLines;
+    private int recordedLines;
+    private long linesRead;
+    private long valuesParsed;
+    private long badLines;
+
+    /**
+     * Creates a report with an unlimited error budget.
+     */
+    public ParseReport() {
+        this(UNLIMITED);
+    }
+
+    /**
+     * Creates a report with the given error budget.
+     *
+     * @param errorBudget maximum number of invalid lines tolerated before aborting
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public ParseReport(long errorBudget) {
+        this(errorBudget, DEFAULT_RECORDED_LINES);
+    }
+
+    /**
+     * Creates a report with the given error budget and cap on recorded line numbers.
+     *
+     * @param errorBudget maximum number of invalid lines tolerated before aborting
+     * @param maxRecordedLines maximum number of bad line numbers to keep
+     * @throws IllegalArgumentException if either argument is negative
+     */
+    public ParseReport(long errorBudget, int maxRecordedLines) {
+        this(errorBudget, maxRecordedLines, null);
+    }
+
+    /**
+     * Creates a report for one part of a read split across threads. Its invalid lines also
+     * count against the budget through a counter shared by all parts, so the first part to
+     * exceed the combined budget stops without waiting for the others.
+     *
+     * @param errorBudget maximum number of invalid lines tolerated over all parts
+     * @param maxRecordedLines maximum number of bad line numbers to keep
+     * @param sharedBadLines the invalid lines counted by all parts, or null for a standalone report
+     * @throws IllegalArgumentException if either number is negative
+     */
+    ParseReport(long errorBudget, int maxRecordedLines, AtomicLong sharedBadLines) {
+        if (errorBudget < 0) {
+            throw new IllegalArgumentException("Error budget cannot be negative");
+        }
+        if (maxRecordedLines < 0) {
+            throw new IllegalArgumentException("Recorded line cap cannot be negative");
+        }
+        this.errorBudget = errorBudget;
+        this.badLineNumbers = new int[maxRecordedLines];
+        this.sharedBadLines = sharedBadLines;
+    }
+
+    /**
+     * Counts a line read from the input, including empty and invalid ones.
+     */
+    void lineRead() {
+        linesRead++;
+    }
+
+    /**
+     * Counts a successfully parsed value.
+     */
+    void valueParsed() {
+        valuesParsed++;
+    }
+
+    /**
+     * Records an invalid line.
+     *
+     * @param lineNumber the 1-based line number of the invalid line
+     * @return true if the error budget still allows reading to continue
+     */
+    boolean badLine(int lineNumber) {
+        if (recordedLines < badLineNumbers.length) {
+            badLineNumbers[recordedLines++] = lineNumber;
+        }
+        badLines++;
+        if (sharedBadLines != null) {
+            return sharedBadLines.incrementAndGet() <= errorBudget;
+        }
+        return badLines <= errorBudget;
+    }
+
+    /**
+     * Adds the counts of a read done elsewhere, such as on a remote worker, whose invalid
+     * line numbers are not known. Those lines count as not recorded.
+     *
+     * @param lines the number of lines read
+     * @param values the number of values parsed
+     * @param invalidLines the number of invalid lines
+     * @return true if the error budget still allows reading to continue
+     */
+    boolean addCounts(long lines, long values, long invalidLines) {
+        linesRead += lines;
+        valuesParsed += values;
+        badLines += invalidLines;
+        return badLines <= errorBudget;
+    }
+
+    /**
+     * Gets the error budget of this report.
+     * @return the maximum number of invalid lines tolerated
+     */
+    public long getErrorBudget() {
+        return errorBudget;
+    }
+
+    /**
+     * Gets the number of lines read, including empty and invalid ones.
+     * @return the number of lines read
+     */
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    /**
+     * Gets the number of values successfully parsed.
+     * @return the number of parsed values
+     */
+    public long getValuesParsed() {
+        return valuesParsed;
+    }
+
+    /**
+     * Gets the total number of invalid lines seen.
+     * @return the number of invalid lines
+     */
+    public long getBadLineCount() {
+        return badLines;
+    }
+
+    /**
+     * Gets the recorded bad line numbers, at most the configured cap.
+     * @return a copy of the recorded line numbers in input order
+     */
+    public int[] getBadLineNumbers() {
+        return Arrays.copyOf(badLineNumbers, recordedLines);
+    }
+
+    /**
+     * Checks whether more bad lines were seen than could be recorded.
+     * @return true if some bad line numbers were not recorded
+     */
+    public boolean isTruncated() {
+        return badLines > recordedLines;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Lines read: %d, Values parsed: %d, Invalid lines: %d",
+                linesRead, valuesParsed, badLines);
+    }
+}
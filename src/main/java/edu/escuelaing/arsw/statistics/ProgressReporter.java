@@ -0,0 +1,84 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Consumer that forwards each value and calls a listener periodically, every given number of
+ * values and/or once a given time has passed since the last call. Placed after the
+ * accumulators of an unbounded stream, it lets the listener print snapshots of them while
+ * the data is still arriving. The clock is checked as values arrive, so an idle stream
+ * produces no snapshots; nothing has changed in that time anyway.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class ProgressReporter implements DoubleConsumer {
+
+    private final DoubleConsumer next;
+    private final long everyValues;
+    private final long intervalNanos;
+    private final LongConsumer listener;
+    private long count;
+    private long lastReport;
+    private long reports;
+
+    /**
+     * Creates a reporter.
+     *
+     * @param next the consumer receiving every value, called before the listener
+     * @param everyValues the number of values between calls, or 0 for no count trigger
+     * @param intervalMillis the time between calls in milliseconds, or 0 for no time trigger
+     * @param listener the listener, called with the number of values so far
+     * @throws IllegalArgumentException if a consumer is null or a period is negative
+     */
+    public ProgressReporter(DoubleConsumer next, long everyValues, long intervalMillis, LongConsumer listener) {
+        if (next == null || listener == null) {
+            throw new IllegalArgumentException("Consumer and listener cannot be null");
+        }
+        if (everyValues < 0 || intervalMillis < 0) {
+            throw new IllegalArgumentException("Reporting periods cannot be negative");
+        }
+        this.next = next;
+        this.everyValues = everyValues;
+        this.intervalNanos = intervalMillis * 1_000_000L;
+        this.listener = listener;
+        this.lastReport = intervalNanos > 0 ? System.nanoTime() : 0L;
+    }
+
+    @Override
+    public void accept(double value) {
+        next.accept(value);
+        count++;
+        if (everyValues > 0 && count % everyValues == 0) {
+            report();
+        } else if (intervalNanos > 0 && System.nanoTime() - lastReport >= intervalNanos) {
+            // The clock is only read when a time trigger is set
+            report();
+        }
+    }
+
+    /**
+     * Gets the number of values seen.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of times the listener was called.
+     * @return the number of reports
+     */
+    public long getReportCount() {
+        return reports;
+    }
+
+    private void report() {
+        reports++;
+        listener.accept(count);
+        if (intervalNanos > 0) {
+            lastReport = System.nanoTime();
+        }
+    }
+}
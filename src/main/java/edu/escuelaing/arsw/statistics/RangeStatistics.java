@@ -0,0 +1,261 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.List;
+
+/**
+ * Index answering mean and standard deviation queries over arbitrary index ranges of a column
+ * in O(log n), built once in O(n). It is a bottom-up segment tree of 2n nodes in which each
+ * node holds the count, mean and M2 of its span, combined with the same formulas as
+ * {@link RunningStatistics#merge(RunningStatistics)}; those aggregates merge without the
+ * cancellation that prefix sums of x and x^2 suffer from. A query merges the O(log n) nodes
+ * that exactly cover the range, and {@link #set(int, double)} updates one value in O(log n).
+ * The index copies the column, so later changes to the source are not seen.
+ * Instances are not thread-safe.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class RangeStatistics {
+
+    /** Largest column that can be indexed, since the tree has 2n nodes. */
+    public static final int MAX_SIZE = Integer.MAX_VALUE / 2;
+
+    private final int size;
+    private final int[] counts;
+    private final double[] means;
+    private final double[] m2s;
+
+    /**
+     * Builds the index over a list of numbers, iterating it once.
+     *
+     * @param numbers the column to index
+     * @throws IllegalArgumentException if the list is null, empty, too large or contains null values
+     */
+    public RangeStatistics(List<Double> numbers) {
+        this(checkedSize(numbers == null ? -1 : numbers.size()));
+        int leaf = size;
+        for (Double number : numbers) {
+            if (number == null) {
+                throw new IllegalArgumentException("List cannot contain null values");
+            }
+            setLeaf(leaf++, number);
+        }
+        build();
+    }
+
+    /**
+     * Builds the index over an array of numbers.
+     *
+     * @param values the column to index
+     * @throws IllegalArgumentException if the array is null, empty or too large
+     */
+    public RangeStatistics(double[] values) {
+        this(checkedSize(values == null ? -1 : values.length));
+        for (int i = 0; i < size; i++) {
+            setLeaf(size + i, values[i]);
+        }
+        build();
+    }
+
+    /**
+     * Builds the index over an off-heap column, reading it once.
+     *
+     * @param column the column to index
+     * @throws IllegalArgumentException if the column is null, empty or too large
+     * @throws IllegalStateException if the column is closed
+     */
+    public RangeStatistics(OffHeapDoubleColumn column) {
+        this(checkedSize(column == null ? -1 : column.size()));
+        int[] leaf = {size};
+        column.forEach(value -> setLeaf(leaf[0]++, value));
+        build();
+    }
+
+    private RangeStatistics(int size) {
+        this.size = size;
+        this.counts = new int[2 * size];
+        this.means = new double[2 * size];
+        this.m2s = new double[2 * size];
+    }
+
+    private static int checkedSize(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Column cannot be null");
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("Column cannot be empty");
+        }
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Column is too large to index: " + size);
+        }
+        return (int) size;
+    }
+
+    /**
+     * Gets the number of values indexed.
+     * @return the column size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the value at a position.
+     *
+     * @param index the position of the value
+     * @return the value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double get(int index) {
+        checkIndex(index);
+        return means[size + index];
+    }
+
+    /**
+     * Replaces the value at a position and updates the aggregates above it.
+     *
+     * @param index the position of the value
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, double value) {
+        checkIndex(index);
+        int node = size + index;
+        setLeaf(node, value);
+        for (node >>= 1; node >= 1; node >>= 1) {
+            combine(node);
+        }
+    }
+
+    /**
+     * Calculates the mean of the values in [fromIndex, toIndex).
+     *
+     * @param fromIndex the first position, inclusive
+     * @param toIndex the last position, exclusive
+     * @return the mean of the range
+     * @throws IndexOutOfBoundsException if the range is out of bounds or empty
+     */
+    public double mean(int fromIndex, int toIndex) {
+        return query(fromIndex, toIndex).mean;
+    }
+
+    /**
+     * Calculates the sample variance of the values in [fromIndex, toIndex), using n - 1 as in
+     * {@link StatisticsCalculator}.
+     *
+     * @param fromIndex the first position, inclusive
+     * @param toIndex the last position, exclusive
+     * @return the variance of the range, or NaN if it holds a single value
+     * @throws IndexOutOfBoundsException if the range is out of bounds or empty
+     */
+    public double variance(int fromIndex, int toIndex) {
+        Moments moments = query(fromIndex, toIndex);
+        return moments.count < 2 ? Double.NaN : moments.m2 / (moments.count - 1);
+    }
+
+    /**
+     * Calculates the sample standard deviation of the values in [fromIndex, toIndex).
+     *
+     * @param fromIndex the first position, inclusive
+     * @param toIndex the last position, exclusive
+     * @return the standard deviation of the range, or NaN if it holds a single value
+     * @throws IndexOutOfBoundsException if the range is out of bounds or empty
+     */
+    public double standardDeviation(int fromIndex, int toIndex) {
+        return Math.sqrt(variance(fromIndex, toIndex));
+    }
+
+    /**
+     * Calculates the mean and standard deviation of the values in [fromIndex, toIndex), with the
+     * same result as {@link StatisticsCalculator#calculateStatistics(List)} on the sublist.
+     *
+     * @param fromIndex the first position, inclusive
+     * @param toIndex the last position, exclusive
+     * @return a StatisticsResult with mean and standard deviation
+     * @throws IndexOutOfBoundsException if the range is out of bounds or empty
+     * @throws IllegalArgumentException if the range holds a single value
+     */
+    public StatisticsCalculator.StatisticsResult statistics(int fromIndex, int toIndex) {
+        Moments moments = query(fromIndex, toIndex);
+        if (moments.count < 2) {
+            throw new IllegalArgumentException("Standard deviation requires at least 2 values");
+        }
+        return new StatisticsCalculator.StatisticsResult(moments.mean, Math.sqrt(moments.m2 / (moments.count - 1)));
+    }
+
+    /**
+     * Merges the nodes covering [fromIndex, toIndex), walking up from both ends.
+     */
+    private Moments query(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException(
+                    "Range [" + fromIndex + ", " + toIndex + ") is empty or outside [0, " + size + ")");
+        }
+        Moments moments = new Moments();
+        for (int left = fromIndex + size, right = toIndex + size; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                moments.add(counts[left], means[left], m2s[left]);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                moments.add(counts[right], means[right], m2s[right]);
+            }
+        }
+        return moments;
+    }
+
+    private void setLeaf(int node, double value) {
+        counts[node] = 1;
+        means[node] = value;
+        m2s[node] = 0.0;
+    }
+
+    private void build() {
+        for (int node = size - 1; node >= 1; node--) {
+            combine(node);
+        }
+    }
+
+    /**
+     * Recomputes a node from its two children.
+     */
+    private void combine(int node) {
+        int left = 2 * node;
+        int right = left + 1;
+        long n = (long) counts[left] + counts[right];
+        double delta = means[right] - means[left];
+        counts[node] = (int) n;
+        means[node] = means[left] + delta * ((double) counts[right] / n);
+        m2s[node] = m2s[left] + m2s[right] + delta * delta * ((double) counts[left] * counts[right] / n);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Running combination of the nodes of one query.
+     */
+    private static final class Moments {
+        long count;
+        double mean;
+        double m2;
+
+        void add(long otherCount, double otherMean, double otherM2) {
+            if (count == 0) {
+                count = otherCount;
+                mean = otherMean;
+                m2 = otherM2;
+                return;
+            }
+            long n = count + otherCount;
+            double delta = otherMean - mean;
+            mean += delta * ((double) otherCount / n);
+            m2 += otherM2 + delta * delta * ((double) count * otherCount / n);
+            count = n;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Uniform fixed-size sample of a stream of values of unknown length.
+ * Uses Li's Algorithm L, which computes how many values to skip between replacements
+ * instead of drawing a random number per value, so after the reservoir fills the cost per
+ * value is a counter increment. Every value seen has the same probability of being kept.
+ * Not thread-safe.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class ReservoirSampler implements DoubleConsumer {
+
+    private final double[] reservoir;
+    private final Random random;
+    private int size;
+    private long seen;
+    private long nextReplacement;
+    private double w;
+
+    /**
+     * Creates an empty sampler with a random seed.
+     *
+     * @param capacity the maximum number of values kept
+     * @throws IllegalArgumentException if the capacity is less than 2
+     */
+    public ReservoirSampler(int capacity) {
+        this(capacity, new Random());
+    }
+
+    /**
+     * Creates an empty sampler.
+     *
+     * @param capacity the maximum number of values kept
+     * @param random the source of randomness, seeded for reproducible samples
+     * @throws IllegalArgumentException if the capacity is less than 2 or random is null
+     */
+    public ReservoirSampler(int capacity, Random random) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Sample capacity must be at least 2: " + capacity);
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null");
+        }
+        this.reservoir = new double[capacity];
+        this.random = random;
+    }
+
+    /**
+     * Offers a value to the sample.
+     * @param value the value
+     */
+    @Override
+    public void accept(double value) {
+        seen++;
+        if (size < reservoir.length) {
+            reservoir[size++] = value;
+            if (size == reservoir.length) {
+                w = Math.exp(Math.log(uniform()) / reservoir.length);
+                scheduleNext();
+            }
+        } else if (seen == nextReplacement) {
+            reservoir[random.nextInt(reservoir.length)] = value;
+            w *= Math.exp(Math.log(uniform()) / reservoir.length);
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Gets the number of values offered so far.
+     * @return the population size seen
+     */
+    public long getSeenCount() {
+        return seen;
+    }
+
+    /**
+     * Gets the number of values currently in the sample.
+     * @return the sample size, at most the capacity
+     */
+    public int getSampleSize() {
+        return size;
+    }
+
+    /**
+     * Gets a copy of the sampled values, in no particular order.
+     * @return the sample
+     */
+    public double[] getSample() {
+        return Arrays.copyOf(reservoir, size);
+    }
+
+    /**
+     * Estimates the mean and standard deviation of all the values seen from the sample.
+     *
+     * @param confidence the confidence level of the intervals, for example 0.95
+     * @return the estimate with its confidence intervals
+     * @throws IllegalArgumentException if fewer than 2 values were seen or the confidence is not in (0, 1)
+     */
+    public SampledStatistics toEstimate(double confidence) {
+        return SampledStatistics.fromSample(getSample(), seen, confidence);
+    }
+
+    private void scheduleNext() {
+        nextReplacement = seen + (long) Math.floor(Math.log(uniform()) / Math.log1p(-w)) + 1;
+    }
+
+    /**
+     * Draws from (0, 1], keeping the logarithms finite.
+     */
+    private double uniform() {
+        return 1.0 - random.nextDouble();
+    }
+}
@@ -0,0 +1,173 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Single-pass, mergeable accumulator for count, mean, variance, minimum and maximum.
+ * Uses Welford's update, which stays numerically stable without a second pass, and the
+ * pairwise combination of Chan et al. to merge accumulators built over separate chunks
+ * or threads. Not thread-safe; give each thread its own instance and merge them.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class RunningStatistics implements DoubleConsumer {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates an empty accumulator.
+     */
+    public RunningStatistics() {
+    }
+
+    /**
+     * Creates an accumulator from previously computed moments.
+     *
+     * @param count the number of values
+     * @param mean the mean of the values
+     * @param m2 the sum of squared differences from the mean
+     * @param min the smallest value
+     * @param max the largest value
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public RunningStatistics(long count, double mean, double m2, double min, double max) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        this.count = count;
+        this.mean = count == 0 ? 0.0 : mean;
+        this.m2 = count == 0 ? 0.0 : m2;
+        this.min = count == 0 ? Double.POSITIVE_INFINITY : min;
+        this.max = count == 0 ? Double.NEGATIVE_INFINITY : max;
+    }
+
+    /**
+     * Adds a value.
+     * @param value the value to add
+     */
+    @Override
+    public void accept(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Combines another accumulator into this one, as if all of its values had been added here.
+     *
+     * @param other the accumulator to merge
+     * @return this accumulator
+     */
+    public RunningStatistics merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * ((double) other.count / n);
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Gets the number of values added.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the values.
+     * @return the mean, or NaN if no values were added
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Gets the sum of squared differences from the mean.
+     * @return the second central moment sum
+     */
+    public double getM2() {
+        return m2;
+    }
+
+    /**
+     * Gets the sample variance, using n - 1 as in {@link StatisticsCalculator}.
+     * @return the variance, or NaN if fewer than 2 values were added
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * Gets the sample standard deviation.
+     * @return the standard deviation, or NaN if fewer than 2 values were added
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the smallest value.
+     * @return the minimum, or positive infinity if no values were added
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest value.
+     * @return the maximum, or negative infinity if no values were added
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Converts the accumulated moments to a result, with the same validation as
+     * {@link StatisticsCalculator#calculateStatistics(java.util.List)}.
+     *
+     * @return a StatisticsResult with mean and standard deviation
+     * @throws IllegalArgumentException if fewer than 2 values were added
+     */
+    public StatisticsCalculator.StatisticsResult toResult() {
+        if (count == 0) {
+            throw new IllegalArgumentException("List cannot be null or empty");
+        }
+        if (count < 2) {
+            throw new IllegalArgumentException("Standard deviation requires at least 2 values");
+        }
+        return new StatisticsCalculator.StatisticsResult(mean, getStandardDeviation());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Count: %d, Mean: %.2f, Standard Deviation: %.2f",
+                count, getMean(), getStandardDeviation());
+    }
+}
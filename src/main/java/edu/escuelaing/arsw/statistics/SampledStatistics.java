@@ -0,0 +1,261 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.List;
+
+/**
+ * Approximate mean and standard deviation estimated from a sample, with confidence intervals.
+ * The mean interval uses the normal approximation of the sampling distribution (with the finite
+ * population correction when the population size is known); the standard deviation interval
+ * uses the large-sample approximation SE(s) = s / sqrt(2(n - 1)), which assumes roughly normal
+ * data. Both widen when the sample is small or, for block samples, when the blocks disagree.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class SampledStatistics {
+
+    /** Default confidence level of the intervals. */
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+
+    private final long sampleSize;
+    private final long populationSize;
+    private final double confidence;
+    private final double mean;
+    private final double meanMargin;
+    private final double standardDeviation;
+    private final double standardDeviationMargin;
+
+    private SampledStatistics(long sampleSize, long populationSize, double confidence, double mean,
+            double meanMargin, double standardDeviation, double standardDeviationMargin) {
+        this.sampleSize = sampleSize;
+        this.populationSize = populationSize;
+        this.confidence = confidence;
+        this.mean = mean;
+        this.meanMargin = meanMargin;
+        this.standardDeviation = standardDeviation;
+        this.standardDeviationMargin = standardDeviationMargin;
+    }
+
+    /**
+     * Estimates from a simple random sample, such as the contents of a {@link ReservoirSampler}.
+     *
+     * @param sample the sampled values
+     * @param populationSize the number of values the sample was drawn from, or -1 if unknown
+     * @param confidence the confidence level of the intervals, for example 0.95
+     * @return the estimate
+     * @throws IllegalArgumentException if the sample has fewer than 2 values or the confidence is not in (0, 1)
+     */
+    public static SampledStatistics fromSample(double[] sample, long populationSize, double confidence) {
+        if (sample == null || sample.length < 2) {
+            throw new IllegalArgumentException("Sample must contain at least 2 values");
+        }
+        double z = zScore(confidence);
+        RunningStatistics stats = new RunningStatistics();
+        for (double value : sample) {
+            stats.accept(value);
+        }
+        long n = stats.getCount();
+        double s = stats.getStandardDeviation();
+        double correction = 1.0;
+        if (populationSize >= n) {
+            // Sampling without replacement: the error vanishes as the sample covers the population
+            correction = Math.sqrt((double) (populationSize - n) / Math.max(1, populationSize - 1));
+        }
+        double meanMargin = z * s / Math.sqrt(n) * correction;
+        double sdMargin = z * s / Math.sqrt(2.0 * (n - 1)) * correction;
+        return new SampledStatistics(n, populationSize, confidence, stats.getMean(), meanMargin, s, sdMargin);
+    }
+
+    /**
+     * Estimates from blocks of consecutive values read at random positions, as returned by
+     * {@link FileDataReader#sampleBlocksFromFile}. Values within a block are usually correlated,
+     * so the intervals are computed from the variation between block means (ratio estimator of
+     * cluster sampling) rather than treating every value as independent.
+     *
+     * @param blocks the per-block accumulators; empty blocks are ignored
+     * @param confidence the confidence level of the intervals, for example 0.95
+     * @return the estimate
+     * @throws IllegalArgumentException if fewer than 2 blocks hold values, there are fewer than 2 values,
+     *         or the confidence is not in (0, 1)
+     */
+    public static SampledStatistics fromBlocks(List<RunningStatistics> blocks, double confidence) {
+        if (blocks == null) {
+            throw new IllegalArgumentException("Blocks cannot be null");
+        }
+        double z = zScore(confidence);
+        RunningStatistics pooled = new RunningStatistics();
+        int nonEmpty = 0;
+        for (RunningStatistics block : blocks) {
+            if (block.getCount() > 0) {
+                pooled.merge(block);
+                nonEmpty++;
+            }
+        }
+        if (nonEmpty < 2 || pooled.getCount() < 2) {
+            throw new IllegalArgumentException("Block sample must contain at least 2 non-empty blocks and 2 values");
+        }
+
+        long n = pooled.getCount();
+        double mean = pooled.getMean();
+        double s = pooled.getStandardDeviation();
+        double blockMean = (double) n / nonEmpty;
+        double sum = 0.0;
+        for (RunningStatistics block : blocks) {
+            if (block.getCount() > 0) {
+                double residual = block.getCount() * (block.getMean() - mean) / blockMean;
+                sum += residual * residual;
+            }
+        }
+        double meanStandardError = Math.sqrt(sum / (nonEmpty - 1) / nonEmpty);
+        double meanMargin = z * meanStandardError;
+
+        // Blocks carry less information than independent values; size the deviation interval
+        // by the effective sample size implied by the design effect
+        double effectiveSize = n;
+        if (s > 0.0 && meanStandardError > 0.0) {
+            double designEffect = meanStandardError * meanStandardError * n / (s * s);
+            effectiveSize = Math.max(2.0, Math.min(n, n / designEffect));
+        }
+        double sdMargin = z * s / Math.sqrt(2.0 * (effectiveSize - 1));
+        return new SampledStatistics(n, -1, confidence, mean, meanMargin, s, sdMargin);
+    }
+
+    /**
+     * Gets the number of sampled values the estimate is based on.
+     * @return the sample size
+     */
+    public long getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * Gets the size of the sampled population.
+     * @return the population size, or -1 if unknown
+     */
+    public long getPopulationSize() {
+        return populationSize;
+    }
+
+    /**
+     * Gets the confidence level of the intervals.
+     * @return the confidence level
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * Gets the estimated mean.
+     * @return the mean
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the half-width of the mean confidence interval.
+     * @return the margin of error of the mean
+     */
+    public double getMeanMargin() {
+        return meanMargin;
+    }
+
+    /**
+     * Gets the lower bound of the mean confidence interval.
+     * @return the lower bound
+     */
+    public double getMeanLow() {
+        return mean - meanMargin;
+    }
+
+    /**
+     * Gets the upper bound of the mean confidence interval.
+     * @return the upper bound
+     */
+    public double getMeanHigh() {
+        return mean + meanMargin;
+    }
+
+    /**
+     * Gets the estimated standard deviation.
+     * @return the standard deviation
+     */
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    /**
+     * Gets the lower bound of the standard deviation confidence interval.
+     * @return the lower bound, never negative
+     */
+    public double getStandardDeviationLow() {
+        return Math.max(0.0, standardDeviation - standardDeviationMargin);
+    }
+
+    /**
+     * Gets the upper bound of the standard deviation confidence interval.
+     * @return the upper bound
+     */
+    public double getStandardDeviationHigh() {
+        return standardDeviation + standardDeviationMargin;
+    }
+
+    /**
+     * Converts the point estimates to a result.
+     * @return a StatisticsResult with the estimated mean and standard deviation
+     */
+    public StatisticsCalculator.StatisticsResult toResult() {
+        return new StatisticsCalculator.StatisticsResult(mean, standardDeviation);
+    }
+
+    /**
+     * Gets the two-sided standard normal critical value for a confidence level.
+     */
+    private static double zScore(double confidence) {
+        if (!(confidence > 0.0 && confidence < 1.0)) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1: " + confidence);
+        }
+        return normalQuantile(0.5 + confidence / 2.0);
+    }
+
+    /**
+     * Inverse of the standard normal distribution function, using Acklam's rational
+     * approximation (relative error below 1.2e-9).
+     *
+     * @param p the probability, in (0, 1)
+     * @return the quantile
+     */
+    static double normalQuantile(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+            3.754408661907416e+00};
+        final double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log1p(-p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Mean: %.2f (%.2f to %.2f), Standard Deviation: %.2f (%.2f to %.2f), "
+                + "%.0f%% confidence, n=%d", mean, getMeanLow(), getMeanHigh(), standardDeviation,
+                getStandardDeviationLow(), getStandardDeviationHigh(), confidence * 100, sampleSize);
+    }
+}
@@ -0,0 +1,129 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.Arrays;
+
+/**
+ * In-place multi-rank selection (introselect) on primitive double arrays.
+ * After {@link #select(double[], int[])} every requested rank holds the value it would
+ * have in sorted order, everything before it is not greater and everything after it is
+ * not smaller. All ranks are resolved in one recursive partitioning pass, each partition
+ * step only descending into the sides that still contain requested ranks.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+final class Selection {
+
+    /** Ranges at most this long are finished with insertion sort. */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /** Ranges longer than this use a ninther instead of a median of three as pivot. */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    private Selection() {
+    }
+
+    /**
+     * Partially orders the array so that each given rank holds its order statistic.
+     * Expected O(n) time for a constant number of ranks; falls back to sorting the
+     * remaining range if partitioning degenerates, bounding the worst case at O(n log n).
+     *
+     * @param a the array to reorder in place, must not contain NaN
+     * @param ranks the 0-based ranks to resolve, in any order and possibly repeated
+     * @throws IndexOutOfBoundsException if a rank is outside the array
+     */
+    static void select(double[] a, int... ranks) {
+        if (a.length == 0 || ranks.length == 0) {
+            return;
+        }
+        int[] sorted = ranks.clone();
+        Arrays.sort(sorted);
+        if (sorted[0] < 0 || sorted[sorted.length - 1] >= a.length) {
+            throw new IndexOutOfBoundsException("Rank out of range for " + a.length + " values");
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(a.length));
+        select(a, 0, a.length - 1, sorted, 0, sorted.length - 1, depthLimit);
+    }
+
+    private static void select(double[] a, int lo, int hi, int[] ranks, int rlo, int rhi, int depth) {
+        while (rlo <= rhi && lo < hi) {
+            if (hi - lo < INSERTION_THRESHOLD) {
+                insertionSort(a, lo, hi);
+                return;
+            }
+            if (depth == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return;
+            }
+            depth--;
+
+            // Three-way partition keeps runs of duplicates from degrading the pass
+            double pivot = pivot(a, lo, hi);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                double x = a[i];
+                if (x < pivot) {
+                    swap(a, lt++, i++);
+                } else if (x > pivot) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            int leftEnd = rlo;
+            while (leftEnd <= rhi && ranks[leftEnd] < lt) {
+                leftEnd++;
+            }
+            int rightStart = leftEnd;
+            while (rightStart <= rhi && ranks[rightStart] <= gt) {
+                rightStart++;
+            }
+
+            if (leftEnd > rlo) {
+                select(a, lo, lt - 1, ranks, rlo, leftEnd - 1, depth);
+            }
+            lo = gt + 1;
+            rlo = rightStart;
+        }
+    }
+
+    private static double pivot(double[] a, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (hi - lo < NINTHER_THRESHOLD) {
+            return medianOf3(a[lo], a[mid], a[hi]);
+        }
+        int step = (hi - lo) / 8;
+        return medianOf3(
+                medianOf3(a[lo], a[lo + step], a[lo + 2 * step]),
+                medianOf3(a[mid - step], a[mid], a[mid + step]),
+                medianOf3(a[hi - 2 * step], a[hi - step], a[hi]));
+    }
+
+    private static double medianOf3(double x, double y, double z) {
+        if (x < y) {
+            return y < z ? y : Math.max(x, z);
+        }
+        return x < z ? x : Math.max(y, z);
+    }
+
+    private static void insertionSort(double[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double x = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > x) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = x;
+        }
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -1,7 +1,16 @@
 package edu.escuelaing.arsw.statistics;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * Main application class for the Statistics Calculator program.
@@ -13,35 +22,503 @@ import java.util.List;
  */
 public class StatisticsApp {
     
+    /** Lines read per block in block sampling mode unless --block-lines is given. */
+    private static final long DEFAULT_BLOCK_LINES = 256;
+    
     /**
      * Main method to run the statistics calculator application.
      * 
      * @param args command line arguments - expects the file path as first argument
      */
     public static void main(String[] args) {
-        if (args.length == 0) {
-            System.err.println("Usage: java StatisticsApp <file_path>");
-            System.err.println("Example: java StatisticsApp data/column1.txt");
-            System.exit(1);
+        String filePath = null;
+        List<String> filePaths = new ArrayList<>();
+        boolean lenient = false;
+        long errorBudget = ParseReport.UNLIMITED;
+        boolean offHeap = false;
+        boolean orderStats = false;
+        boolean distinct = false;
+        boolean integers = false;
+        boolean paired = false;
+        boolean grouped = false;
+        long maxMemoryMb = 0;
+        boolean stdin = false;
+        long reportEvery = 0;
+        long reportSeconds = 0;
+        String tempDirectory = null;
+        long sampleSize = 0;
+        long sampleBlocks = 0;
+        long blockLines = DEFAULT_BLOCK_LINES;
+        double confidence = SampledStatistics.DEFAULT_CONFIDENCE;
+        boolean serve = false;
+        long port = StatisticsServer.DEFAULT_PORT;
+        boolean worker = false;
+        long workerPort = StatisticsWorker.DEFAULT_PORT;
+        String bindAddress = null;
+        String coordinatorWorkers = null;
+        long chunkSize = StatisticsCoordinator.DEFAULT_CHUNK_SIZE;
+        long workers = Runtime.getRuntime().availableProcessors();
+        boolean concurrentFiles = false;
+        long maxOpenFiles = MultiFileProcessor.DEFAULT_MAX_OPEN_FILES;
+        DoublePipeline pipeline = DoublePipeline.create();
+        boolean pipelineValid = true;
+        for (int i = 0; i < args.length; i++) {
+            if ("--lenient".equals(args[i])) {
+                lenient = true;
+            } else if ("--drop".equals(args[i]) && i + 1 < args.length) {
+                // Transformation flags are applied in the order given
+                if (NumberValidator.isValidDouble(args[++i])) {
+                    double sentinel = Double.parseDouble(args[i]);
+                    pipeline = pipeline.filter(Double.isNaN(sentinel) ? v -> !Double.isNaN(v) : v -> v != sentinel);
+                } else {
+                    pipelineValid = false;
+                }
+            } else if ("--scale".equals(args[i]) && i + 1 < args.length) {
+                if (NumberValidator.isValidDouble(args[++i])) {
+                    double factor = Double.parseDouble(args[i]);
+                    pipeline = pipeline.map(v -> v * factor);
+                } else {
+                    pipelineValid = false;
+                }
+            } else if ("--offset".equals(args[i]) && i + 1 < args.length) {
+                if (NumberValidator.isValidDouble(args[++i])) {
+                    double offset = Double.parseDouble(args[i]);
+                    pipeline = pipeline.map(v -> v + offset);
+                } else {
+                    pipelineValid = false;
+                }
+            } else if ("--clip".equals(args[i]) && i + 1 < args.length) {
+                String[] bounds = args[++i].split(":", -1);
+                if (bounds.length == 2 && NumberValidator.isValidDouble(bounds[0])
+                        && NumberValidator.isValidDouble(bounds[1])
+                        && Double.parseDouble(bounds[0]) <= Double.parseDouble(bounds[1])) {
+                    pipeline = pipeline.clip(Double.parseDouble(bounds[0]), Double.parseDouble(bounds[1]));
+                } else {
+                    pipelineValid = false;
+                }
+            } else if ("--limit".equals(args[i]) && i + 1 < args.length) {
+                long limit = parseCount(args[++i]);
+                if (limit >= 0) {
+                    pipeline = pipeline.limit(limit);
+                } else {
+                    pipelineValid = false;
+                }
+            } else if ("--max-bad-lines".equals(args[i]) && i + 1 < args.length) {
+                lenient = true;
+                errorBudget = parseCount(args[++i]);
+            } else if ("--serve".equals(args[i])) {
+                serve = true;
+                if (i + 1 < args.length && NumberValidator.isValidLong(args[i + 1])) {
+                    port = parseCount(args[++i]);
+                }
+            } else if ("--worker".equals(args[i])) {
+                worker = true;
+                if (i + 1 < args.length && NumberValidator.isValidLong(args[i + 1])) {
+                    workerPort = parseCount(args[++i]);
+                }
+            } else if ("--bind".equals(args[i]) && i + 1 < args.length) {
+                bindAddress = args[++i];
+            } else if ("--coordinator".equals(args[i]) && i + 1 < args.length) {
+                coordinatorWorkers = args[++i];
+            } else if ("--chunk-size".equals(args[i]) && i + 1 < args.length) {
+                chunkSize = parseCount(args[++i]);
+            } else if ("--workers".equals(args[i]) && i + 1 < args.length) {
+                workers = parseCount(args[++i]);
+            } else if ("--virtual-threads".equals(args[i])) {
+                concurrentFiles = true;
+            } else if ("--max-open-files".equals(args[i]) && i + 1 < args.length) {
+                maxOpenFiles = parseCount(args[++i]);
+            } else if ("--stdin".equals(args[i])) {
+                stdin = true;
+            } else if ("--every".equals(args[i]) && i + 1 < args.length) {
+                reportEvery = parseCount(args[++i]);
+            } else if ("--interval".equals(args[i]) && i + 1 < args.length) {
+                reportSeconds = parseCount(args[++i]);
+            } else if ("--max-memory".equals(args[i]) && i + 1 < args.length) {
+                maxMemoryMb = parseCount(args[++i]);
+            } else if ("--temp-dir".equals(args[i]) && i + 1 < args.length) {
+                tempDirectory = args[++i];
+            } else if ("--order-stats".equals(args[i])) {
+                orderStats = true;
+            } else if ("--integers".equals(args[i])) {
+                integers = true;
+            } else if ("--sample".equals(args[i]) && i + 1 < args.length) {
+                sampleSize = parseCount(args[++i]);
+            } else if ("--sample-blocks".equals(args[i]) && i + 1 < args.length) {
+                sampleBlocks = parseCount(args[++i]);
+            } else if ("--block-lines".equals(args[i]) && i + 1 < args.length) {
+                blockLines = parseCount(args[++i]);
+            } else if ("--confidence".equals(args[i]) && i + 1 < args.length) {
+                confidence = NumberValidator.isValidDouble(args[++i]) ? Double.parseDouble(args[i]) : -1;
+            } else if ("--paired".equals(args[i])) {
+                paired = true;
+            } else if ("--group-by".equals(args[i])) {
+                grouped = true;
+            } else if ("--distinct".equals(args[i])) {
+                distinct = true;
+            } else if ("--metrics".equals(args[i])) {
+                MetricsRegistry.global().setEnabled(true);
+            } else if ("--off-heap".equals(args[i])) {
+                offHeap = true;
+            } else {
+                if (filePath == null) {
+                    filePath = args[i];
+                }
+                filePaths.add(args[i]);
+            }
+        }
+        
+        if (workers <= 0 || workers > Integer.MAX_VALUE) {
+            printUsage();
+        }
+        
+        if (stdin) {
+            // Standard input is streamed once through the transformations; modes that keep or
+            // re-read the values need a file
+            if (!filePaths.isEmpty() || !pipelineValid || errorBudget < 0 || reportEvery < 0
+                    || reportSeconds < 0 || reportSeconds > Long.MAX_VALUE / 1000 || offHeap || integers
+                    || orderStats || maxMemoryMb != 0 || grouped || sampleSize != 0 || sampleBlocks != 0
+                    || coordinatorWorkers != null || serve || worker || concurrentFiles || paired) {
+                printUsage();
+            }
+            runStdin(pipeline, reportEvery, reportSeconds * 1000, distinct,
+                    lenient ? new ParseReport(errorBudget) : null);
+            return;
+        }
+        
+        if (serve) {
+            if (worker || port < 0 || port > 65535) {
+                printUsage();
+            }
+            runServer((int) port, (int) workers);
+            return;
+        }
+        
+        if (worker) {
+            if (workerPort < 0 || workerPort > 65535) {
+                printUsage();
+            }
+            runWorker(bindAddress, (int) workerPort, (int) workers);
+            return;
+        }
+        
+        List<InetSocketAddress> workerAddresses = parseAddresses(coordinatorWorkers);
+        if (workerAddresses != null && !filePaths.isEmpty() && chunkSize > 0 && errorBudget >= 0) {
+            runCoordinator(workerAddresses, filePaths, chunkSize, lenient ? new ParseReport(errorBudget) : null);
+            return;
+        }
+        
+        if (maxOpenFiles <= 0 || maxOpenFiles > Integer.MAX_VALUE) {
+            printUsage();
+        }
+        
+        if (concurrentFiles && !filePaths.isEmpty() && errorBudget >= 0) {
+            runConcurrentFiles(filePaths, (int) maxOpenFiles, lenient, errorBudget);
+            return;
+        }
+        
+        if (paired && filePaths.size() == 2) {
+            // Skipping an invalid line in one column would shift every later pair
+            if (lenient) {
+                printUsage();
+            }
+            runPaired(filePaths.get(0), filePaths.get(1));
+            return;
+        }
+        
+        if (grouped && filePath != null && errorBudget >= 0) {
+            runGrouped(filePath, (int) workers, lenient ? new ParseReport(errorBudget) : null);
+            return;
+        }
+        
+        boolean sampled = sampleSize != 0 || sampleBlocks != 0;
+        if (sampled && filePath != null && errorBudget >= 0 && sampleSize >= 0 && sampleSize <= Integer.MAX_VALUE
+                && sampleBlocks >= 0 && sampleBlocks <= Integer.MAX_VALUE
+                && blockLines > 0 && blockLines <= Integer.MAX_VALUE) {
+            runSampled(filePath, (int) sampleSize, (int) sampleBlocks, (int) blockLines, confidence,
+                    lenient ? new ParseReport(errorBudget) : null);
+            return;
         }
         
-        String filePath = args[0];
+        // A memory limit computes order statistics on disk, which needs the streaming path
+        boolean external = maxMemoryMb != 0;
+        boolean transformed = !pipeline.isEmpty() || external;
+        if (filePath == null || errorBudget < 0 || paired || sampled || coordinatorWorkers != null
+                || !pipelineValid || ((transformed || orderStats) && (offHeap || integers))
+                || (external && (maxMemoryMb << 20 < ExternalQuantiles.MIN_MEMORY_BYTES || maxMemoryMb > 1L << 20))) {
+            printUsage();
+        }
+        
+        ParseReport report = lenient ? new ParseReport(errorBudget) : null;
         
         try {
-            // Read numbers from file into custom linked list
-            CustomLinkedList<Double> numbers = FileDataReader.readNumbersFromFile(filePath);
+            long count;
+            StatisticsCalculator.StatisticsResult result;
+            StatisticsCalculator.OrderStatisticsResult summary = null;
+            HyperLogLog sketch = distinct ? new HyperLogLog() : null;
+            LongStatistics exact = null;
+            if (integers) {
+                // Parse integers directly and sum them exactly
+                exact = new LongStatistics();
+                LongConsumer sink = exact;
+                if (sketch != null) {
+                    sink = sink.andThen(sketch);
+                }
+                count = FileDataReader.streamLongsFromFile(filePath, sink, report);
+                result = exact.toResult();
+            } else if (offHeap) {
+                // Read numbers into an off-heap column, released when done, feeding the sketch in the same pass
+                try (OffHeapDoubleColumn column = new OffHeapDoubleColumn()) {
+                    DoubleConsumer sink = column::add;
+                    if (sketch != null) {
+                        sink = sink.andThen(sketch);
+                    }
+                    count = FileDataReader.streamNumbersFromFile(filePath, sink, report);
+                    result = StatisticsCalculator.calculateStatistics(column);
+                }
+            } else if (transformed) {
+                // Stream through the transformations straight into the accumulators; order
+                // statistics keep the values in a list, or in sorted runs on disk under a memory limit
+                RunningStatistics stats = new RunningStatistics();
+                CustomLinkedList<Double> kept = orderStats && !external ? new CustomLinkedList<>() : null;
+                try (ExternalQuantiles runs = external ? new ExternalQuantiles(maxMemoryMb << 20,
+                        tempDirectory != null ? Paths.get(tempDirectory) : null) : null) {
+                    DoubleConsumer sink = stats;
+                    if (kept != null) {
+                        sink = sink.andThen(kept::add);
+                    }
+                    if (runs != null) {
+                        sink = sink.andThen(runs);
+                    }
+                    if (sketch != null) {
+                        sink = sink.andThen(sketch);
+                    }
+                    count = pipeline.streamFile(filePath, sink, report);
+                    result = stats.toResult();
+                    if (kept != null) {
+                        summary = StatisticsCalculator.calculateOrderStatistics(kept);
+                    }
+                    if (runs != null) {
+                        summary = runs.orderStatistics();
+                    }
+                }
+            } else {
+                // Read numbers from file into custom linked list, feeding the sketch in the same pass
+                CustomLinkedList<Double> numbers = new CustomLinkedList<>();
+                DoubleConsumer sink = numbers::add;
+                if (sketch != null) {
+                    sink = sink.andThen(sketch);
+                }
+                count = FileDataReader.streamNumbersFromFile(filePath, sink, report);
+                
+                // Calculate statistics
+                result = StatisticsCalculator.calculateStatistics(numbers);
+                if (orderStats) {
+                    summary = StatisticsCalculator.calculateOrderStatistics(numbers);
+                }
+            }
             
-            // Calculate statistics
-            StatisticsCalculator.StatisticsResult result = StatisticsCalculator.calculateStatistics(numbers);
+            printResults(filePath, count, result, report);
+            if (exact != null) {
+                System.out.println("Sum: " + exact.getSum());
+                System.out.println("Range: " + exact.getMin() + " to " + exact.getMax());
+            }
+            if (summary != null) {
+                System.out.printf("Median: %.2f%n", summary.getMedian());
+                System.out.printf("Quartiles: Q1 %.2f, Q3 %.2f (IQR %.2f)%n", summary.getFirstQuartile(),
+                        summary.getThirdQuartile(), summary.getInterquartileRange());
+                System.out.printf("Range: %.2f to %.2f%n", summary.getMinimum(), summary.getMaximum());
+            }
+            if (sketch != null) {
+                System.out.println(sketch);
+            }
+            if (MetricsRegistry.global().isEnabled()) {
+                System.out.println();
+                System.out.println("Metrics");
+                System.out.println("=======");
+                System.out.print(MetricsRegistry.global());
+            }
             
-            // Display results
-            System.out.println("Statistics Calculator Results");
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            System.exit(1);
+        } catch (UncheckedIOException e) {
+            System.err.println("Error writing temporary file: " + e.getMessage());
+            System.exit(1);
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing numbers: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Starts the statistics service and keeps it running until the JVM shuts down.
+     */
+    private static void runServer(int port, int workers) {
+        try {
+            StatisticsServer server = new StatisticsServer(port, workers);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            server.start();
+            System.out.println("Statistics service listening on http://127.0.0.1:" + server.getPort()
+                    + " with " + workers + " workers");
+        } catch (IOException e) {
+            System.err.println("Error starting service: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Starts a distributed-mode worker and keeps it running until the JVM shuts down.
+     */
+    private static void runWorker(String bindAddress, int port, int threads) {
+        try {
+            InetSocketAddress address = bindAddress == null
+                    ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                    : new InetSocketAddress(bindAddress, port);
+            StatisticsWorker worker = new StatisticsWorker(address, threads);
+            Runtime.getRuntime().addShutdownHook(new Thread(worker::close));
+            worker.start();
+            System.out.println("Statistics worker listening on " + address.getAddress().getHostAddress() + ":"
+                    + worker.getPort() + " with " + threads + " threads");
+        } catch (IOException e) {
+            System.err.println("Error starting worker: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Splits the files across the given workers and prints the reduced statistics.
+     */
+    private static void runCoordinator(List<InetSocketAddress> workerAddresses, List<String> filePaths,
+            long chunkSize, ParseReport report) {
+        try {
+            StatisticsCoordinator coordinator = new StatisticsCoordinator(workerAddresses, chunkSize,
+                    StatisticsCoordinator.DEFAULT_MAX_ATTEMPTS, StatisticsCoordinator.DEFAULT_TIMEOUT_MILLIS);
+            StatisticsCoordinator.JobResult job = coordinator.computeStatistics(filePaths, report);
+            StatisticsCalculator.StatisticsResult result = job.toResult();
+            
+            System.out.println("Statistics Calculator Results (" + workerAddresses.size() + " workers)");
             System.out.println("=============================");
-            System.out.println("File: " + filePath);
-            System.out.println("Number of values: " + numbers.size());
+            System.out.println("Files: " + String.join(", ", filePaths));
+            System.out.println("Number of values: " + job.getStatistics().getCount());
             System.out.printf("Mean: %.2f%n", result.getMean());
             System.out.printf("Standard Deviation: %.2f%n", result.getStandardDeviation());
+            System.out.println("Tasks: " + job.getTaskCount() + ", retries: " + job.getRetryCount());
+            if (report != null) {
+                System.out.println("Invalid lines skipped: " + report.getBadLineCount());
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            System.exit(1);
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing numbers: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while waiting for workers");
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Parses a comma-separated list of host:port worker addresses.
+     * @return the addresses, or null if the list is missing or invalid
+     */
+    private static List<InetSocketAddress> parseAddresses(String value) {
+        if (value == null) {
+            return null;
+        }
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon <= 0) {
+                return null;
+            }
+            long port = parseCount(entry.substring(colon + 1));
+            if (port < 1 || port > 65535) {
+                return null;
+            }
+            addresses.add(new InetSocketAddress(entry.substring(0, colon), (int) port));
+        }
+        return addresses;
+    }
+    
+    /**
+     * Processes several files concurrently and prints one result line per file.
+     */
+    private static void runConcurrentFiles(List<String> filePaths, int maxOpenFiles, boolean lenient,
+            long errorBudget) {
+        try {
+            List<MultiFileProcessor.FileOutcome> outcomes =
+                    MultiFileProcessor.processFiles(filePaths, maxOpenFiles, lenient, errorBudget);
+            boolean failed = false;
+            System.out.println("Statistics Calculator Results ("
+                    + (MultiFileProcessor.isVirtualThreadsAvailable() ? "virtual" : "platform") + " threads)");
+            System.out.println("=============================");
+            for (MultiFileProcessor.FileOutcome outcome : outcomes) {
+                if (outcome.isSuccess()) {
+                    System.out.printf("%s: n=%d, %s%n", outcome.getFilePath(), outcome.getCount(), outcome.getResult());
+                } else {
+                    failed = true;
+                    System.err.println(outcome.getFilePath() + ": " + outcome.getError().getMessage());
+                }
+            }
+            if (failed) {
+                System.exit(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while processing files");
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Estimates the mean and standard deviation of a file from a sample and prints them with
+     * their confidence intervals. Block sampling is used when sampleBlocks is positive;
+     * otherwise the whole file is streamed through a reservoir of sampleSize values.
+     */
+    private static void runSampled(String filePath, int sampleSize, int sampleBlocks, int blockLines,
+            double confidence, ParseReport report) {
+        try {
+            SampledStatistics estimate;
+            String method;
+            if (sampleBlocks > 0) {
+                List<RunningStatistics> blocks = FileDataReader.sampleBlocksFromFile(filePath, sampleBlocks,
+                        blockLines, new Random(), report);
+                estimate = SampledStatistics.fromBlocks(blocks, confidence);
+                method = sampleBlocks + " blocks of up to " + blockLines + " lines";
+            } else {
+                ReservoirSampler sampler = new ReservoirSampler(sampleSize);
+                FileDataReader.streamNumbersFromFile(filePath, sampler, report);
+                estimate = sampler.toEstimate(confidence);
+                method = "reservoir of " + sampleSize + " values";
+            }
             
+            System.out.println("Statistics Calculator Results (approximate)");
+            System.out.println("===========================================");
+            System.out.println("File: " + filePath);
+            System.out.println("Sample: " + method);
+            System.out.println("Number of values sampled: " + estimate.getSampleSize()
+                    + (estimate.getPopulationSize() >= 0 ? " of " + estimate.getPopulationSize() : ""));
+            System.out.printf("Mean: %.2f (%.0f%% CI %.2f to %.2f)%n", estimate.getMean(),
+                    estimate.getConfidence() * 100, estimate.getMeanLow(), estimate.getMeanHigh());
+            System.out.printf("Standard Deviation: %.2f (%.0f%% CI %.2f to %.2f)%n", estimate.getStandardDeviation(),
+                    estimate.getConfidence() * 100, estimate.getStandardDeviationLow(),
+                    estimate.getStandardDeviationHigh());
+            if (report != null) {
+                System.out.println("Invalid lines skipped: " + report.getBadLineCount());
+            }
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
             System.exit(1);
@@ -51,13 +528,129 @@ public class StatisticsApp {
         } catch (IllegalArgumentException e) {
             System.err.println("Invalid input: " + e.getMessage());
             System.exit(1);
-        } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Streams numbers from standard input into running statistics in constant memory, printing
+     * a snapshot every so many values or seconds and the final results at the end of input.
+     */
+    private static void runStdin(DoublePipeline pipeline, long everyValues, long intervalMillis, boolean distinct,
+            ParseReport report) {
+        RunningStatistics stats = new RunningStatistics();
+        HyperLogLog sketch = distinct ? new HyperLogLog() : null;
+        long start = System.nanoTime();
+        DoubleConsumer sink = sketch != null ? stats.andThen(sketch) : stats;
+        if (everyValues > 0 || intervalMillis > 0) {
+            sink = new ProgressReporter(sink, everyValues, intervalMillis, count -> {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("[%.1f s] %s, Min: %s, Max: %s%s%n", seconds, stats, stats.getMin(), stats.getMax(),
+                        report != null ? ", Invalid lines: " + report.getBadLineCount() : "");
+                System.out.flush();
+            });
+        }
+        try {
+            long count = pipeline.streamInput(System.in, sink, report);
+            printResults("<stdin>", count, stats.toResult(), report);
+            System.out.println("Range: " + stats.getMin() + " to " + stats.getMax());
+            if (sketch != null) {
+                System.out.println(sketch);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading input: " + e.getMessage());
+            System.exit(1);
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing numbers: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Computes the statistics per key of a file of key-value lines and prints them in key order.
+     */
+    private static void runGrouped(String filePath, int threads, ParseReport report) {
+        try {
+            GroupedStatistics groups = GroupedStatistics.ofFile(filePath, threads, report);
+            
+            System.out.println("Statistics Calculator Results (" + groups.size() + " keys)");
+            System.out.println("=============================");
+            System.out.println("File: " + filePath);
+            System.out.println("Number of values: " + groups.getTotalCount());
+            if (report != null) {
+                System.out.println("Invalid lines skipped: " + report.getBadLineCount());
+            }
+            for (String key : groups.sortedKeys()) {
+                System.out.println(key + ": " + groups.get(key));
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            System.exit(1);
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing numbers: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while reading file");
             System.exit(1);
         }
     }
     
+    /**
+     * Reads two paired columns in lockstep and prints their covariance, correlation and regression line.
+     */
+    private static void runPaired(String xFilePath, String yFilePath) {
+        try {
+            PairedStatistics stats = new PairedStatistics();
+            long pairs = FileDataReader.readPairedFiles(xFilePath, yFilePath, stats);
+            StatisticsCalculator.RegressionResult result = stats.toResult();
+            
+            System.out.println("Statistics Calculator Results");
+            System.out.println("=============================");
+            System.out.println("X: " + xFilePath);
+            System.out.println("Y: " + yFilePath);
+            System.out.println("Number of pairs: " + pairs);
+            System.out.printf("Covariance: %.4f%n", result.getCovariance());
+            System.out.printf("Correlation (r): %.4f%n", result.getCorrelation());
+            System.out.printf("r^2: %.4f%n", result.getRSquared());
+            System.out.printf("Regression: y = %.4f + %.4f x%n", result.getBeta0(), result.getBeta1());
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            System.exit(1);
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing numbers: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Prints the results of processing a file.
+     */
+    private static void printResults(String filePath, long count, StatisticsCalculator.StatisticsResult result,
+            ParseReport report) {
+        System.out.println("Statistics Calculator Results");
+        System.out.println("=============================");
+        System.out.println("File: " + filePath);
+        System.out.println("Number of values: " + count);
+        System.out.printf("Mean: %.2f%n", result.getMean());
+        System.out.printf("Standard Deviation: %.2f%n", result.getStandardDeviation());
+        if (report != null) {
+            System.out.println("Invalid lines skipped: " + report.getBadLineCount()
+                    + (report.getBadLineCount() > 0
+                            ? " " + Arrays.toString(report.getBadLineNumbers())
+                                    + (report.isTruncated() ? " ..." : "")
+                            : ""));
+        }
+    }
+    
     /**
      * Processes a file and returns the statistics result.
      * This method is useful for programmatic access and testing.
@@ -81,6 +674,24 @@ public class StatisticsApp {
         return StatisticsCalculator.calculateStatistics(numbers);
     }
     
+    /**
+     * Processes a file in lenient mode and returns the statistics result.
+     * Invalid lines are skipped and recorded in the report until its error budget is exceeded.
+     * 
+     * @param filePath the path to the file containing numbers
+     * @param report the report that receives parsing counters and bad line numbers
+     * @return StatisticsResult containing mean and standard deviation
+     * @throws IOException if there's an error reading the file
+     * @throws NumberFormatException if the error budget is exceeded
+     * @throws IllegalArgumentException if the input is invalid
+     */
+    public static StatisticsCalculator.StatisticsResult processFile(String filePath, ParseReport report)
+            throws IOException, NumberFormatException, IllegalArgumentException {
+        FileDataReader.validateFile(filePath);
+        CustomLinkedList<Double> numbers = FileDataReader.readNumbersFromFile(filePath, report);
+        return StatisticsCalculator.calculateStatistics(numbers);
+    }
+    
     /**
      * Processes a list of numbers and returns the statistics result.
      * This method is useful for programmatic access with pre-loaded data.
@@ -94,6 +705,35 @@ public class StatisticsApp {
         return StatisticsCalculator.calculateStatistics(numbers);
     }
     
+    /**
+     * Parses a non-negative count option, returning -1 if it is not a valid count.
+     */
+    private static long parseCount(String value) {
+        if (!NumberValidator.isValidLong(value)) {
+            return -1;
+        }
+        return Math.max(-1, Long.parseLong(value));
+    }
+    
+    /**
+     * Prints the command line usage to standard error and exits with status 1.
+     */
+    private static void printUsage() {
+        System.err.println("Usage: java StatisticsApp [--lenient | --max-bad-lines <n>] [--off-heap | --order-stats | --integers] [--distinct] [--metrics] <file_path>");
+        System.err.println("       java StatisticsApp [--drop <v>] [--scale <f>] [--offset <d>] [--clip <lo>:<hi>] [--limit <n>] [--order-stats] <file_path>");
+        System.err.println("       java StatisticsApp --max-memory <MB> [--temp-dir <dir>] <file_path>");
+        System.err.println("       <producer> | java StatisticsApp --stdin [--every <n>] [--interval <seconds>] [--lenient] [--distinct] [--drop <v>] [--scale <f>] ...");
+        System.err.println("       java StatisticsApp --virtual-threads [--max-open-files <n>] [--lenient | --max-bad-lines <n>] <file_path>...");
+        System.err.println("       java StatisticsApp (--sample <n> | --sample-blocks <n> [--block-lines <n>]) [--confidence <p>] <file_path>");
+        System.err.println("       java StatisticsApp --paired <x_file_path> <y_file_path>");
+        System.err.println("       java StatisticsApp --group-by [--workers <n>] [--lenient] <file_path>");
+        System.err.println("       java StatisticsApp --serve [port] [--workers <n>]");
+        System.err.println("       java StatisticsApp --worker [port] [--bind <address>] [--workers <n>]");
+        System.err.println("       java StatisticsApp --coordinator <host:port>[,<host:port>...] [--chunk-size <bytes>] [--lenient] <file_path>...");
+        System.err.println("Example: java StatisticsApp data/column1.txt");
+        System.exit(1);
+    }
+    
     /**
      * Displays help information for using the application.
      */
@@ -107,6 +747,44 @@ public class StatisticsApp {
         System.out.println("  java -jar statistics-calculator.jar <file_path>");
         System.out.println("  mvn exec:java -Dexec.args=\"<file_path>\"");
         System.out.println();
+        System.out.println("Options:");
+        System.out.println("  --lenient            Skip invalid lines instead of failing");
+        System.out.println("  --max-bad-lines <n>  Skip invalid lines, failing after more than n");
+        System.out.println("  --off-heap           Store values outside the Java heap");
+        System.out.println("  --virtual-threads    Process all given files concurrently, one virtual thread each");
+        System.out.println("  --max-open-files <n> Files open or in memory at the same time in concurrent mode (default 64)");
+        System.out.println("  --order-stats        Also print median, quartiles and range");
+        System.out.println("  --stdin              Stream numbers from standard input in constant memory");
+        System.out.println("  --every <n>          With --stdin, print a snapshot every n values");
+        System.out.println("  --interval <s>       With --stdin, print a snapshot every s seconds while data arrives");
+        System.out.println("  --max-memory <MB>    Compute order statistics exactly with at most MB of heap,");
+        System.out.println("                       spilling sorted runs to disk");
+        System.out.println("  --temp-dir <dir>     Directory for the sorted runs (default: system temp)");
+        System.out.println("  --integers           Parse whole numbers exactly as longs and print the exact sum");
+        System.out.println("  --sample <n>         Estimate from a uniform reservoir sample of n values");
+        System.out.println("  --sample-blocks <n>  Estimate from n blocks read at random offsets, without");
+        System.out.println("                       reading the whole file");
+        System.out.println("  --block-lines <n>    Lines read per sampled block (default 256)");
+        System.out.println("  --confidence <p>     Confidence level of the sampled intervals (default 0.95)");
+        System.out.println("  --paired             Read two files as paired columns and print covariance,");
+        System.out.println("                       correlation and the least-squares line");
+        System.out.println("  --group-by           Read 'key value' lines and print statistics per key,");
+        System.out.println("                       using --workers threads");
+        System.out.println("  --drop <v>           Ignore values equal to a sentinel such as -999 or NaN");
+        System.out.println("  --scale <f>          Multiply each value by f");
+        System.out.println("  --offset <d>         Add d to each value");
+        System.out.println("  --clip <lo>:<hi>     Clamp each value to the range [lo, hi]");
+        System.out.println("  --limit <n>          Use only the first n values that pass the steps before it");
+        System.out.println("                       (the steps above are applied in the order given)");
+        System.out.println("  --distinct           Also print the approximate number of distinct values");
+        System.out.println("  --metrics            Record and print reader and calculator metrics");
+        System.out.println("  --serve [port]       Run as a local HTTP service (default port 8089)");
+        System.out.println("  --workers <n>        Worker threads of the service, distributed worker or --group-by");
+        System.out.println("  --worker [port]      Run as a distributed worker (default port 8090, loopback only)");
+        System.out.println("  --bind <address>     Address the distributed worker listens on");
+        System.out.println("  --coordinator <list> Split the files across workers given as host:port,host:port");
+        System.out.println("  --chunk-size <bytes> Bytes of a file sent to a worker per task (default 64 MiB)");
+        System.out.println();
         System.out.println("File Format:");
         System.out.println("  - Each line should contain one number");
         System.out.println("  - Empty lines are ignored");
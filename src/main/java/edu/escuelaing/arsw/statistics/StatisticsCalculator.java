@@ -1,5 +1,6 @@
 package edu.escuelaing.arsw.statistics;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -69,6 +70,394 @@ public class StatisticsCalculator {
         return Math.sqrt(variance);
     }
     
+    /**
+     * Calculates the mean of the values in an off-heap column.
+     * 
+     * @param column the column to calculate mean for
+     * @return the mean of the values
+     * @throws IllegalArgumentException if the column is null or empty
+     */
+    public static double calculateMean(OffHeapDoubleColumn column) {
+        if (column == null || column.isEmpty()) {
+            throw new IllegalArgumentException("Column cannot be null or empty");
+        }
+        
+        double sum = 0.0;
+        long n = column.size();
+        for (long i = 0; i < n; i++) {
+            sum += column.get(i);
+        }
+        
+        return sum / n;
+    }
+    
+    /**
+     * Calculates the standard deviation of the values in an off-heap column.
+     * 
+     * @param column the column to calculate standard deviation for
+     * @return the standard deviation of the values
+     * @throws IllegalArgumentException if the column is null, empty, or has less than 2 values
+     */
+    public static double calculateStandardDeviation(OffHeapDoubleColumn column) {
+        if (column == null || column.isEmpty()) {
+            throw new IllegalArgumentException("Column cannot be null or empty");
+        }
+        
+        if (column.size() < 2) {
+            throw new IllegalArgumentException("Standard deviation requires at least 2 values");
+        }
+        
+        double mean = calculateMean(column);
+        double sumOfSquaredDifferences = 0.0;
+        long n = column.size();
+        for (long i = 0; i < n; i++) {
+            double difference = column.get(i) - mean;
+            sumOfSquaredDifferences += difference * difference;
+        }
+        
+        double variance = sumOfSquaredDifferences / (n - 1);
+        return Math.sqrt(variance);
+    }
+    
+    /**
+     * Calculates the median of a list of numbers.
+     * For an even number of values the median is the mean of the two middle values.
+     * 
+     * @param numbers the list of numbers to calculate the median for
+     * @return the median of the numbers
+     * @throws IllegalArgumentException if the list is null, empty, or contains null or NaN values
+     */
+    public static double calculateMedian(List<Double> numbers) {
+        return calculateQuantiles(numbers, 0.5)[0];
+    }
+    
+    /**
+     * Finds the k-th smallest value of a list of numbers without sorting it.
+     * 
+     * @param numbers the list of numbers to search
+     * @param k the 1-based rank of the value to find (1 is the minimum)
+     * @return the k-th smallest value
+     * @throws IllegalArgumentException if the list is null, empty, contains null or NaN values,
+     *         or k is outside [1, n]
+     */
+    public static double calculateKthSmallest(List<Double> numbers, int k) {
+        double[] values = toSelectableArray(numbers);
+        if (k < 1 || k > values.length) {
+            throw new IllegalArgumentException("Rank must be between 1 and " + values.length + ": " + k);
+        }
+        Selection.select(values, k - 1);
+        return values[k - 1];
+    }
+    
+    /**
+     * Calculates several quantiles of a list of numbers in one selection pass.
+     * Quantiles are linearly interpolated between the closest ranks:
+     * Q(p) = x[h] + (h - ⌊h⌋)(x[⌊h⌋ + 1] - x[⌊h⌋]) with h = (n - 1)p.
+     * 
+     * @param numbers the list of numbers
+     * @param probabilities the quantile probabilities, each in [0, 1]
+     * @return the quantiles, in the order of the given probabilities
+     * @throws IllegalArgumentException if the list is null, empty, contains null or NaN values,
+     *         or a probability is outside [0, 1]
+     */
+    public static double[] calculateQuantiles(List<Double> numbers, double... probabilities) {
+        return quantiles(toSelectableArray(numbers), probabilities);
+    }
+    
+    /**
+     * Calculates the interquartile range (Q3 - Q1) of a list of numbers.
+     * 
+     * @param numbers the list of numbers
+     * @return the interquartile range
+     * @throws IllegalArgumentException if the list is null, empty, or contains null or NaN values
+     */
+    public static double calculateInterquartileRange(List<Double> numbers) {
+        double[] quartiles = calculateQuantiles(numbers, 0.25, 0.75);
+        return quartiles[1] - quartiles[0];
+    }
+    
+    /**
+     * Calculates the trimmed mean of a list of numbers.
+     * ⌊trimFraction · n⌋ values are discarded from each end before averaging.
+     * 
+     * @param numbers the list of numbers
+     * @param trimFraction the fraction to trim from each end, in [0, 0.5)
+     * @return the mean of the remaining values
+     * @throws IllegalArgumentException if the list is null, empty, contains null or NaN values,
+     *         or the fraction is outside [0, 0.5)
+     */
+    public static double calculateTrimmedMean(List<Double> numbers, double trimFraction) {
+        if (!(trimFraction >= 0.0 && trimFraction < 0.5)) {
+            throw new IllegalArgumentException("Trim fraction must be in [0, 0.5): " + trimFraction);
+        }
+        double[] values = toSelectableArray(numbers);
+        int n = values.length;
+        int g = (int) Math.floor(trimFraction * n);
+        int last = n - g - 1;
+        // Selecting both cut points leaves exactly the kept values between them
+        Selection.select(values, g, last);
+        double sum = 0.0;
+        for (int i = g; i <= last; i++) {
+            sum += values[i];
+        }
+        return sum / (last - g + 1);
+    }
+    
+    /**
+     * Calculates the five-number summary (minimum, quartiles, maximum) in one selection pass.
+     * 
+     * @param numbers the list of numbers
+     * @return an OrderStatisticsResult with the five-number summary
+     * @throws IllegalArgumentException if the list is null, empty, or contains null or NaN values
+     */
+    public static OrderStatisticsResult calculateOrderStatistics(List<Double> numbers) {
+        double[] q = calculateQuantiles(numbers, 0.0, 0.25, 0.5, 0.75, 1.0);
+        return new OrderStatisticsResult(q[0], q[1], q[2], q[3], q[4]);
+    }
+    
+    /**
+     * Interpolated quantiles of a primitive array, reordering it in place.
+     */
+    static double[] quantiles(double[] values, double... probabilities) {
+        int n = values.length;
+        int[] ranks = new int[probabilities.length * 2];
+        for (int i = 0; i < probabilities.length; i++) {
+            double p = probabilities[i];
+            if (!(p >= 0.0 && p <= 1.0)) {
+                throw new IllegalArgumentException("Probability must be in [0, 1]: " + p);
+            }
+            int lower = (int) Math.floor((n - 1) * p);
+            ranks[2 * i] = lower;
+            ranks[2 * i + 1] = Math.min(lower + 1, n - 1);
+        }
+        Selection.select(values, ranks);
+        
+        double[] result = new double[probabilities.length];
+        for (int i = 0; i < probabilities.length; i++) {
+            double h = (n - 1) * probabilities[i];
+            int lower = ranks[2 * i];
+            double fraction = h - lower;
+            double lowerValue = values[lower];
+            result[i] = fraction == 0.0
+                    ? lowerValue
+                    : lowerValue + fraction * (values[ranks[2 * i + 1]] - lowerValue);
+        }
+        return result;
+    }
+    
+    /**
+     * Copies a list into a primitive array for selection, rejecting null and NaN values.
+     */
+    private static double[] toSelectableArray(List<Double> numbers) {
+        if (numbers == null || numbers.isEmpty()) {
+            throw new IllegalArgumentException("List cannot be null or empty");
+        }
+        double[] values = new double[numbers.size()];
+        int i = 0;
+        for (Double number : numbers) {
+            if (number == null) {
+                throw new IllegalArgumentException("List cannot contain null values");
+            }
+            if (Double.isNaN(number)) {
+                throw new IllegalArgumentException("List cannot contain NaN values");
+            }
+            values[i++] = number;
+        }
+        return values;
+    }
+    
+    /**
+     * Calculates covariance, correlation and the least-squares line of two paired lists
+     * in a single pass. Both lists are walked with iterators, never by index.
+     * 
+     * @param x the first column
+     * @param y the second column, paired element by element with x
+     * @return a RegressionResult for the pairs
+     * @throws IllegalArgumentException if a list is null, contains null values, the lists
+     *         differ in size, there are fewer than 2 pairs, or x is constant
+     */
+    public static RegressionResult calculateRegression(List<Double> x, List<Double> y) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException("Lists cannot be null");
+        }
+        if (x.size() != y.size()) {
+            throw new IllegalArgumentException("Lists must have the same size: " + x.size() + " vs " + y.size());
+        }
+        
+        PairedStatistics stats = new PairedStatistics();
+        Iterator<Double> xs = x.iterator();
+        Iterator<Double> ys = y.iterator();
+        while (xs.hasNext() && ys.hasNext()) {
+            Double xi = xs.next();
+            Double yi = ys.next();
+            if (xi == null || yi == null) {
+                throw new IllegalArgumentException("List cannot contain null values");
+            }
+            stats.accept(xi, yi);
+        }
+        return stats.toResult();
+    }
+    
+    /**
+     * Data class to hold paired-column results: covariance, correlation and the
+     * least-squares line y = beta0 + beta1 x.
+     */
+    public static class RegressionResult {
+        private final long count;
+        private final double covariance;
+        private final double correlation;
+        private final double rSquared;
+        private final double beta0;
+        private final double beta1;
+        
+        public RegressionResult(long count, double covariance, double correlation, double rSquared,
+                double beta0, double beta1) {
+            this.count = count;
+            this.covariance = covariance;
+            this.correlation = correlation;
+            this.rSquared = rSquared;
+            this.beta0 = beta0;
+            this.beta1 = beta1;
+        }
+        
+        /**
+         * Gets the number of pairs.
+         * @return the number of pairs
+         */
+        public long getCount() {
+            return count;
+        }
+        
+        /**
+         * Gets the sample covariance.
+         * @return the covariance
+         */
+        public double getCovariance() {
+            return covariance;
+        }
+        
+        /**
+         * Gets the Pearson correlation coefficient r.
+         * @return the correlation, NaN if y is constant
+         */
+        public double getCorrelation() {
+            return correlation;
+        }
+        
+        /**
+         * Gets the coefficient of determination r².
+         * @return r squared
+         */
+        public double getRSquared() {
+            return rSquared;
+        }
+        
+        /**
+         * Gets the intercept of the least-squares line.
+         * @return beta0
+         */
+        public double getBeta0() {
+            return beta0;
+        }
+        
+        /**
+         * Gets the slope of the least-squares line.
+         * @return beta1
+         */
+        public double getBeta1() {
+            return beta1;
+        }
+        
+        /**
+         * Predicts y for a given x with the least-squares line.
+         * @param x the x value
+         * @return beta0 + beta1 x
+         */
+        public double predict(double x) {
+            return beta0 + beta1 * x;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Covariance: %.4f, r: %.4f, r^2: %.4f, beta0: %.4f, beta1: %.4f",
+                    covariance, correlation, rSquared, beta0, beta1);
+        }
+    }
+    
+    /**
+     * Data class to hold a five-number summary.
+     */
+    public static class OrderStatisticsResult {
+        private final double minimum;
+        private final double firstQuartile;
+        private final double median;
+        private final double thirdQuartile;
+        private final double maximum;
+        
+        public OrderStatisticsResult(double minimum, double firstQuartile, double median,
+                double thirdQuartile, double maximum) {
+            this.minimum = minimum;
+            this.firstQuartile = firstQuartile;
+            this.median = median;
+            this.thirdQuartile = thirdQuartile;
+            this.maximum = maximum;
+        }
+        
+        /**
+         * Gets the minimum value.
+         * @return the minimum
+         */
+        public double getMinimum() {
+            return minimum;
+        }
+        
+        /**
+         * Gets the first quartile (25th percentile).
+         * @return the first quartile
+         */
+        public double getFirstQuartile() {
+            return firstQuartile;
+        }
+        
+        /**
+         * Gets the median (50th percentile).
+         * @return the median
+         */
+        public double getMedian() {
+            return median;
+        }
+        
+        /**
+         * Gets the third quartile (75th percentile).
+         * @return the third quartile
+         */
+        public double getThirdQuartile() {
+            return thirdQuartile;
+        }
+        
+        /**
+         * Gets the maximum value.
+         * @return the maximum
+         */
+        public double getMaximum() {
+            return maximum;
+        }
+        
+        /**
+         * Gets the interquartile range.
+         * @return the third quartile minus the first quartile
+         */
+        public double getInterquartileRange() {
+            return thirdQuartile - firstQuartile;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Min: %.2f, Q1: %.2f, Median: %.2f, Q3: %.2f, Max: %.2f",
+                    minimum, firstQuartile, median, thirdQuartile, maximum);
+        }
+    }
+    
     /**
      * Data class to hold statistical results.
      */
@@ -111,8 +500,133 @@ public class StatisticsCalculator {
      * @throws IllegalArgumentException if the list is null, empty, or invalid
      */
     public static StatisticsResult calculateStatistics(List<Double> numbers) {
+        StatisticsEvents.Computation event = StatisticsEvents.isRecorderInitialized()
+                ? new StatisticsEvents.Computation() : null;
+        long start = beginComputation(event);
         double mean = calculateMean(numbers);
         double standardDeviation = calculateStandardDeviation(numbers);
+        endComputation(event, start, numbers.size());
         return new StatisticsResult(mean, standardDeviation);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Calculates mean and standard deviation in a single pass while feeding a histogram.
+     * The moments are accumulated with {@link RunningStatistics}, so the list is traversed
+     * once and the histogram is filled without a separate scan.
+     * 
+     * @param numbers the list of numbers to calculate statistics for
+     * @param histogram the histogram that receives every value
+     * @return a StatisticsResult containing both mean and standard deviation
+     * @throws IllegalArgumentException if the list is null, has less than 2 elements, or contains null values
+     */
+    public static StatisticsResult calculateStatistics(List<Double> numbers, ValueHistogram histogram) {
+        if (numbers == null || numbers.isEmpty()) {
+            throw new IllegalArgumentException("List cannot be null or empty");
+        }
+        if (histogram == null) {
+            throw new IllegalArgumentException("Histogram cannot be null");
+        }
+        
+        RunningStatistics stats = new RunningStatistics();
+        for (Double number : numbers) {
+            if (number == null) {
+                throw new IllegalArgumentException("List cannot contain null values");
+            }
+            stats.accept(number);
+            histogram.accept(number);
+        }
+        return stats.toResult();
+    }
+    
+    /**
+     * Calculates mean and standard deviation of an integer column without boxing.
+     * The sum is exact (see {@link LongStatistics}); only the variance uses floating point.
+     * 
+     * @param values the values to calculate statistics for
+     * @return a StatisticsResult containing both mean and standard deviation
+     * @throws IllegalArgumentException if the array is null or has less than 2 elements
+     */
+    public static StatisticsResult calculateStatistics(long[] values) {
+        return calculateLongStatistics(values).toResult();
+    }
+    
+    /**
+     * Calculates mean and standard deviation of an int column without boxing.
+     * 
+     * @param values the values to calculate statistics for
+     * @return a StatisticsResult containing both mean and standard deviation
+     * @throws IllegalArgumentException if the array is null or has less than 2 elements
+     */
+    public static StatisticsResult calculateStatistics(int[] values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("Array cannot be null or empty");
+        }
+        LongStatistics stats = new LongStatistics();
+        for (int value : values) {
+            stats.accept(value);
+        }
+        return stats.toResult();
+    }
+    
+    /**
+     * Accumulates count, exact sum, extremes and variance of an integer column in one pass.
+     * 
+     * @param values the values to accumulate
+     * @return the accumulated LongStatistics
+     * @throws IllegalArgumentException if the array is null or empty
+     */
+    public static LongStatistics calculateLongStatistics(long[] values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("Array cannot be null or empty");
+        }
+        LongStatistics stats = new LongStatistics();
+        for (long value : values) {
+            stats.accept(value);
+        }
+        return stats;
+    }
+    
+    /**
+     * Calculates both mean and standard deviation for an off-heap column.
+     * 
+     * @param column the column to calculate statistics for
+     * @return a StatisticsResult containing both mean and standard deviation
+     * @throws IllegalArgumentException if the column is null, empty, or invalid
+     */
+    public static StatisticsResult calculateStatistics(OffHeapDoubleColumn column) {
+        StatisticsEvents.Computation event = StatisticsEvents.isRecorderInitialized()
+                ? new StatisticsEvents.Computation() : null;
+        long start = beginComputation(event);
+        double mean = calculateMean(column);
+        double standardDeviation = calculateStandardDeviation(column);
+        endComputation(event, start, column.size());
+        return new StatisticsResult(mean, standardDeviation);
+    }
+    
+    /**
+     * Starts timing a computation if a recording or the metrics registry is listening.
+     * @param event the event to begin, or null when no recorder is running
+     * @return the start time, or 0 if the computation is not timed
+     */
+    private static long beginComputation(StatisticsEvents.Computation event) {
+        if (event != null) {
+            event.begin();
+        }
+        return MetricsRegistry.global().isEnabled() ? System.nanoTime() : 0L;
+    }
+    
+    /**
+     * Reports a finished computation to the flight recorder and the metrics registry.
+     */
+    private static void endComputation(StatisticsEvents.Computation event, long start, long size) {
+        if (event != null && event.shouldCommit()) {
+            event.size = size;
+            event.commit();
+        }
+        MetricsRegistry metrics = MetricsRegistry.global();
+        if (start != 0L && metrics.isEnabled()) {
+            metrics.histogram(MetricsRegistry.COMPUTE_NANOS).record(System.nanoTime() - start);
+            metrics.histogram(MetricsRegistry.COMPUTE_SIZE).record(size);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator of the distributed mode: splits column files into byte ranges, sends each range
+ * to a {@link StatisticsWorker} over TCP and reduces the partial aggregates the workers return
+ * into one {@link RunningStatistics}. A range whose worker cannot be reached, times out or fails
+ * to read it is retried on the next worker, up to a fixed number of attempts; invalid data fails
+ * the whole job at once, since every worker would reject it.
+ * The coordinator reads the file sizes locally, so it must see the same files as the workers.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class StatisticsCoordinator {
+
+    /** Default size of the byte range sent in one task. */
+    public static final long DEFAULT_CHUNK_SIZE = 64L << 20;
+
+    /** Default number of workers a range is tried on before the job fails. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** Default time to wait for a worker to answer one task. */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    /** Tasks kept in flight per worker, so a worker is never idle waiting for the coordinator. */
+    private static final int TASKS_PER_WORKER = 2;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private final List<InetSocketAddress> workers;
+    private final long chunkSize;
+    private final int maxAttempts;
+    private final int timeoutMillis;
+
+    /**
+     * Creates a coordinator with the default chunk size, attempts and timeout.
+     *
+     * @param workers the worker addresses
+     * @throws IllegalArgumentException if the list is null or empty
+     */
+    public StatisticsCoordinator(List<InetSocketAddress> workers) {
+        this(workers, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_ATTEMPTS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a coordinator.
+     *
+     * @param workers the worker addresses
+     * @param chunkSize the size in bytes of the range sent in one task
+     * @param maxAttempts the number of workers a range is tried on before the job fails
+     * @param timeoutMillis the time to wait for a worker to answer one task, 0 to wait forever
+     * @throws IllegalArgumentException if the list is null or empty, or a numeric argument is out of range
+     */
+    public StatisticsCoordinator(List<InetSocketAddress> workers, long chunkSize, int maxAttempts,
+            int timeoutMillis) {
+        if (workers == null || workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        if (chunkSize <= 0 || maxAttempts <= 0 || timeoutMillis < 0) {
+            throw new IllegalArgumentException("Chunk size and attempts must be positive and the timeout non-negative");
+        }
+        this.workers = new ArrayList<>(workers);
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Computes the combined statistics of all the given files on the workers.
+     *
+     * @param filePaths the files to process, as seen by the workers
+     * @param report the report to fill in lenient mode, or null for strict parsing; only counts are
+     *        filled, as invalid line numbers are not sent back by the workers
+     * @return the outcome of the job
+     * @throws IOException if a file cannot be found or a range failed on every attempt
+     * @throws NumberFormatException if a line is invalid in strict mode or the error budget is exceeded
+     * @throws IllegalArgumentException if the list is null or empty
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public JobResult computeStatistics(List<String> filePaths, ParseReport report)
+            throws IOException, InterruptedException {
+        if (filePaths == null || filePaths.isEmpty()) {
+            throw new IllegalArgumentException("File list cannot be null or empty");
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        for (String filePath : filePaths) {
+            FileDataReader.validateFile(filePath);
+            long size = Files.size(Paths.get(filePath));
+            for (long start = 0; start < size; start += chunkSize) {
+                ranges.add(new Range(filePath, start, Math.min(size, start + chunkSize)));
+            }
+        }
+
+        long errorBudget = report != null ? report.getErrorBudget() : -1;
+        AtomicInteger retries = new AtomicInteger();
+        int threads = Math.min(ranges.size(), workers.size() * TASKS_PER_WORKER);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Partial>> futures = new ArrayList<>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                Range range = ranges.get(i);
+                int first = i % workers.size();
+                Callable<Partial> task = () -> runWithRetry(range, first, errorBudget, retries);
+                futures.add(executor.submit(task));
+            }
+
+            RunningStatistics total = new RunningStatistics();
+            for (Future<Partial> future : futures) {
+                Partial partial;
+                try {
+                    partial = future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException(cause);
+                }
+                total.merge(partial.statistics);
+                if (report != null && !report.addCounts(partial.linesRead, partial.statistics.getCount(),
+                        partial.badLines)) {
+                    throw new NumberFormatException(String.format("Error budget exceeded: %d invalid lines (budget %d)",
+                            report.getBadLineCount(), report.getErrorBudget()));
+                }
+            }
+
+            if (total.getCount() == 0) {
+                throw new IOException("No valid numbers found in files: " + String.join(", ", filePaths));
+            }
+            return new JobResult(total, ranges.size(), retries.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one range, moving to the next worker after each failed attempt.
+     */
+    private Partial runWithRetry(Range range, int firstWorker, long errorBudget, AtomicInteger retries)
+            throws IOException {
+        IOException last = null;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IOException("Cancelled: " + range);
+            }
+            InetSocketAddress worker = workers.get((firstWorker + attempt) % workers.size());
+            if (attempt > 0) {
+                retries.incrementAndGet();
+            }
+            try {
+                return send(worker, range, errorBudget);
+            } catch (IOException e) {
+                last = new IOException("Worker " + worker + " failed on " + range + ": " + e.getMessage(), e);
+            }
+        }
+        throw new IOException(range + " failed after " + maxAttempts + " attempts; last error: "
+                + last.getMessage(), last);
+    }
+
+    private Partial send(InetSocketAddress worker, Range range, long errorBudget) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(worker, CONNECT_TIMEOUT_MILLIS);
+            socket.setSoTimeout(timeoutMillis);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeByte(StatisticsWorker.PROTOCOL_VERSION);
+            out.writeUTF(range.filePath);
+            out.writeLong(range.start);
+            out.writeLong(range.end);
+            out.writeLong(errorBudget);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            byte status = in.readByte();
+            if (status == StatisticsWorker.STATUS_INVALID_INPUT) {
+                throw new NumberFormatException(in.readUTF());
+            }
+            if (status != StatisticsWorker.STATUS_OK) {
+                throw new IOException(in.readUTF());
+            }
+            long count = in.readLong();
+            double mean = in.readDouble();
+            double m2 = in.readDouble();
+            double min = in.readDouble();
+            double max = in.readDouble();
+            long linesRead = in.readLong();
+            long badLines = in.readLong();
+            return new Partial(new RunningStatistics(count, mean, m2, min, max), linesRead, badLines);
+        }
+    }
+
+    /**
+     * A byte range of one file, processed as one task.
+     */
+    private static final class Range {
+        final String filePath;
+        final long start;
+        final long end;
+
+        Range(String filePath, long start, long end) {
+            this.filePath = filePath;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String toString() {
+            return filePath + " bytes [" + start + ", " + end + ")";
+        }
+    }
+
+    /**
+     * The partial aggregate returned by a worker for one range.
+     */
+    private static final class Partial {
+        final RunningStatistics statistics;
+        final long linesRead;
+        final long badLines;
+
+        Partial(RunningStatistics statistics, long linesRead, long badLines) {
+            this.statistics = statistics;
+            this.linesRead = linesRead;
+            this.badLines = badLines;
+        }
+    }
+
+    /**
+     * Result of a distributed job: the reduced aggregate and how it was obtained.
+     */
+    public static class JobResult {
+        private final RunningStatistics statistics;
+        private final int taskCount;
+        private final int retryCount;
+
+        JobResult(RunningStatistics statistics, int taskCount, int retryCount) {
+            this.statistics = statistics;
+            this.taskCount = taskCount;
+            this.retryCount = retryCount;
+        }
+
+        /**
+         * Gets the reduced aggregate of all ranges.
+         * @return the combined statistics
+         */
+        public RunningStatistics getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Gets the number of ranges the files were split into.
+         * @return the number of tasks
+         */
+        public int getTaskCount() {
+            return taskCount;
+        }
+
+        /**
+         * Gets the number of attempts that were retries of a failed attempt.
+         * @return the number of retries
+         */
+        public int getRetryCount() {
+            return retryCount;
+        }
+
+        /**
+         * Converts the reduced aggregate to a result.
+         * @return a StatisticsResult with mean and standard deviation
+         * @throws IllegalArgumentException if fewer than 2 values were read
+         */
+        public StatisticsCalculator.StatisticsResult toResult() {
+            return statistics.toResult();
+        }
+    }
+}
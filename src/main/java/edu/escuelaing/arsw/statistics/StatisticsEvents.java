@@ -0,0 +1,76 @@
+package edu.escuelaing.arsw.statistics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events emitted by the reader and calculator.
+ * Events are only committed while a recording has them enabled, for example with
+ * {@code java -XX:StartFlightRecording=filename=stats.jfr ...}.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public final class StatisticsEvents {
+
+    private StatisticsEvents() {
+    }
+
+    /**
+     * Checks whether a flight recorder has been started in this JVM. Until then no event can be
+     * enabled, so callers skip creating events: event classes cannot be stored in a CDS archive
+     * and registering them costs more than a short run's whole computation.
+     *
+     * @return true if events may be recorded
+     */
+    static boolean isRecorderInitialized() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * One pass of FileDataReader over a file or stream.
+     */
+    @Name("edu.escuelaing.arsw.statistics.Ingestion")
+    @Label("Numeric Ingestion")
+    @Category({"Statistics", "Ingestion"})
+    @Description("Reading and parsing of one input by FileDataReader")
+    public static class Ingestion extends Event {
+        @Label("Lines")
+        long lines;
+
+        @Label("Values")
+        long values;
+
+        @Label("Invalid Lines")
+        long badLines;
+
+        @Label("Characters Read")
+        @Description("Decoded characters, counting one per line terminator")
+        long chars;
+
+        @Label("Read Time")
+        @Timespan
+        long readNanos;
+
+        @Label("Parse Time")
+        @Timespan
+        long parseNanos;
+    }
+
+    /**
+     * One call of StatisticsCalculator.calculateStatistics.
+     */
+    @Name("edu.escuelaing.arsw.statistics.Computation")
+    @Label("Statistics Computation")
+    @Category({"Statistics", "Computation"})
+    @Description("Mean and standard deviation computation by StatisticsCalculator")
+    public static class Computation extends Event {
+        @Label("Values")
+        long size;
+    }
+}
@@ -0,0 +1,367 @@
+package edu.escuelaing.arsw.statistics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-running HTTP service that computes statistics on request, so repeated
+ * invocations do not pay JVM startup and warm-up each time.
+ * The server only listens on the loopback interface and serves requests from a
+ * bounded worker pool. Requests whose {@code Host} header, or {@code Origin} header when
+ * sent, names anything but a loopback address are refused, so a web page cannot reach the
+ * service by rebinding its own host name to 127.0.0.1.
+ *
+ * <p>Endpoints:
+ * <ul>
+ *   <li>{@code POST /stats?file=<path>} - statistics of a file on the local disk</li>
+ *   <li>{@code POST /stats} - statistics of the numbers streamed in the request body,
+ *       up to a size limit</li>
+ *   <li>{@code GET /metrics} - request counters and timings, followed by the global
+ *       {@link MetricsRegistry} when it is enabled</li>
+ * </ul>
+ * Adding {@code lenient=true} or {@code maxBadLines=<n>} to a stats request skips invalid lines.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class StatisticsServer implements AutoCloseable {
+
+    /** Default port of the service. */
+    public static final int DEFAULT_PORT = 8089;
+
+    /** Default limit on the size of a request body: 16 MiB. */
+    public static final long DEFAULT_MAX_BODY_BYTES = 16L << 20;
+
+    /** Number of requests that may wait for a worker before the dispatcher runs them itself. */
+    private static final int QUEUE_CAPACITY = 256;
+
+    /** Loopback host names and addresses, with an optional port. */
+    private static final Pattern LOOPBACK_HOST = Pattern.compile(
+            "(localhost|127(\\.\\d{1,3}){3}|\\[::1\\])(:\\d{1,5})?");
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final long maxBodyBytes;
+    private final RequestMetrics metrics = new RequestMetrics();
+
+    /**
+     * Creates a server bound to the loopback interface.
+     *
+     * @param port the port to listen on, or 0 for an ephemeral port
+     * @param workerThreads the number of worker threads
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if the worker count is not positive
+     */
+    public StatisticsServer(int port, int workerThreads) throws IOException {
+        this(port, workerThreads, DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * Creates a server bound to the loopback interface with a limit on request bodies.
+     *
+     * @param port the port to listen on, or 0 for an ephemeral port
+     * @param workerThreads the number of worker threads
+     * @param maxBodyBytes the largest request body accepted, in bytes
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if the worker count or the body limit is not positive
+     */
+    public StatisticsServer(int port, int workerThreads, long maxBodyBytes) throws IOException {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("Worker thread count must be positive");
+        }
+        if (maxBodyBytes <= 0) {
+            throw new IllegalArgumentException("Body size limit must be positive");
+        }
+        this.maxBodyBytes = maxBodyBytes;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        // Once the queue is full the dispatcher thread runs requests itself, throttling new connections
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), new ThreadPoolExecutor.CallerRunsPolicy());
+        server.setExecutor(workers);
+        server.createContext("/stats", this::handleStats);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    /**
+     * Starts serving requests in background threads.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the request metrics of this server.
+     * @return the request metrics
+     */
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stops the server, letting in-flight requests finish for up to one second.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        workers.shutdown();
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        // Anything that escapes the handlers below is answered as an internal error
+        int status = 500;
+        String body = "error=Internal error\n";
+        try {
+            if (!isLoopbackRequest(exchange)) {
+                status = 403;
+                body = "error=Only loopback host names are accepted\n";
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                status = 405;
+                body = "error=Use POST for statistics requests\n";
+                return;
+            }
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            ParseReport report = null;
+            if (params.containsKey("maxBadLines")) {
+                if (!NumberValidator.isValidLong(params.get("maxBadLines"))) {
+                    throw new IllegalArgumentException("Invalid maxBadLines: " + params.get("maxBadLines"));
+                }
+                report = new ParseReport(Long.parseLong(params.get("maxBadLines")));
+            } else if ("true".equals(params.get("lenient"))) {
+                report = new ParseReport();
+            }
+
+            CustomLinkedList<Double> numbers;
+            String file = params.get("file");
+            if (file != null) {
+                FileDataReader.validateFile(file);
+                numbers = FileDataReader.readNumbersFromFile(file, report);
+            } else {
+                String length = exchange.getRequestHeaders().getFirst("Content-Length");
+                if (length != null && (!NumberValidator.isValidLong(length) || Long.parseLong(length) > maxBodyBytes)) {
+                    throw new BodyTooLargeException(maxBodyBytes);
+                }
+                // Chunked bodies carry no length, so the limit is also enforced while reading
+                numbers = FileDataReader.readNumbersFromStream(
+                        new BoundedInputStream(exchange.getRequestBody(), maxBodyBytes), report);
+            }
+            StatisticsCalculator.StatisticsResult result = StatisticsCalculator.calculateStatistics(numbers);
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("count=").append(numbers.size()).append('\n');
+            sb.append("mean=").append(result.getMean()).append('\n');
+            sb.append("standardDeviation=").append(result.getStandardDeviation()).append('\n');
+            if (report != null) {
+                sb.append("invalidLines=").append(report.getBadLineCount()).append('\n');
+            }
+            sb.append("elapsedMicros=").append((System.nanoTime() - start) / 1000).append('\n');
+            body = sb.toString();
+            status = 200;
+        } catch (FileNotFoundException e) {
+            status = 404;
+            body = "error=" + e.getMessage() + "\n";
+        } catch (BodyTooLargeException e) {
+            status = 413;
+            body = "error=" + e.getMessage() + "\n";
+        } catch (IOException | IllegalArgumentException e) {
+            status = 400;
+            body = "error=" + e.getMessage() + "\n";
+        } catch (RuntimeException e) {
+            status = 500;
+            body = "error=" + e + "\n";
+        } finally {
+            // Recorded before sending, so a request counts even when the client has gone away,
+            // and a client that got its response sees it counted
+            metrics.record(System.nanoTime() - start, status == 200);
+            send(exchange, status, body);
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!isLoopbackRequest(exchange)) {
+            send(exchange, 403, "error=Only loopback host names are accepted\n");
+            return;
+        }
+        send(exchange, 200, metrics.toString() + MetricsRegistry.global());
+    }
+
+    /**
+     * Checks that the Host header, and the Origin header when present, name a loopback address.
+     * Names are matched literally, without a DNS lookup that a rebinding attacker controls.
+     */
+    private static boolean isLoopbackRequest(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null || !LOOPBACK_HOST.matcher(host.toLowerCase(Locale.ROOT)).matches()) {
+            return false;
+        }
+        String origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (origin == null) {
+            return true;
+        }
+        String lower = origin.toLowerCase(Locale.ROOT);
+        int scheme = lower.indexOf("://");
+        return scheme > 0 && LOOPBACK_HOST.matcher(lower.substring(scheme + 3)).matches();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Request body larger than the server accepts.
+     */
+    private static final class BodyTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLargeException(long maxBodyBytes) {
+            super("Request body exceeds " + maxBodyBytes + " bytes");
+        }
+    }
+
+    /**
+     * Input stream that fails once more than a given number of bytes have been read.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private final long limit;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws BodyTooLargeException {
+            remaining -= n;
+            if (remaining < 0) {
+                throw new BodyTooLargeException(limit);
+            }
+        }
+    }
+
+    /**
+     * Thread-safe request counters and latency totals of a server.
+     */
+    public static class RequestMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long elapsedNanos, boolean success) {
+            requests.increment();
+            if (!success) {
+                failures.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        /**
+         * Gets the number of stats requests served.
+         * @return the number of requests
+         */
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        /**
+         * Gets the number of stats requests that failed.
+         * @return the number of failed requests
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Gets the mean request latency in microseconds.
+         * @return the mean latency, or 0 if no requests were served
+         */
+        public double getMeanMicros() {
+            long n = requests.sum();
+            return n == 0 ? 0.0 : totalNanos.sum() / 1000.0 / n;
+        }
+
+        /**
+         * Gets the maximum request latency in microseconds.
+         * @return the maximum latency
+         */
+        public double getMaxMicros() {
+            return maxNanos.get() / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d%nfailures=%d%nmeanMicros=%.1f%nmaxMicros=%.1f%n",
+                    getRequests(), getFailures(), getMeanMicros(), getMaxMicros());
+        }
+    }
+}
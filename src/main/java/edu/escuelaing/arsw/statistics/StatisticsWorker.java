@@ -0,0 +1,179 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Worker process of the distributed mode: computes the partial aggregate of a byte range of a
+ * column file on request from a {@link StatisticsCoordinator}, over plain TCP.
+ * Workers read the files from their own file system, so the paths sent by the coordinator
+ * must resolve to the same data on every node (a shared mount, or replicated files).
+ * Requests are unauthenticated and name arbitrary paths; by default the worker only listens
+ * on the loopback interface, and it should only be exposed on trusted networks.
+ *
+ * <p>Each connection carries one task. Request: protocol version (byte), file path (UTF),
+ * range start and end (long), error budget (long, -1 for strict parsing). Response: a status
+ * byte, then for {@link #STATUS_OK} the count, mean, M2, minimum and maximum of the range
+ * followed by the lines read and the invalid lines, or otherwise an error message (UTF).
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class StatisticsWorker implements AutoCloseable {
+
+    /** Default port of a worker. */
+    public static final int DEFAULT_PORT = 8090;
+
+    /** Version byte sent at the start of each request. */
+    static final byte PROTOCOL_VERSION = 1;
+
+    /** The range was read; the partial aggregate follows. */
+    static final byte STATUS_OK = 0;
+
+    /** The data itself is invalid; retrying on another worker will not help. */
+    static final byte STATUS_INVALID_INPUT = 1;
+
+    /** The worker could not read the range; another worker may succeed. */
+    static final byte STATUS_FAILED = 2;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Thread acceptor;
+
+    /**
+     * Creates a worker listening on the loopback interface.
+     *
+     * @param port the port to listen on, or 0 for an ephemeral port
+     * @param threads the number of tasks processed at the same time
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if the thread count is not positive
+     */
+    public StatisticsWorker(int port, int threads) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads);
+    }
+
+    /**
+     * Creates a worker listening on the given address.
+     *
+     * @param address the address to listen on
+     * @param threads the number of tasks processed at the same time
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if the thread count is not positive
+     */
+    public StatisticsWorker(InetSocketAddress address, int threads) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Worker thread count must be positive");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+        executor = Executors.newFixedThreadPool(threads);
+        // Not a daemon: like the HTTP service, a started worker keeps the JVM alive until closed
+        acceptor = new Thread(this::acceptLoop, "statistics-worker-acceptor");
+    }
+
+    /**
+     * Starts accepting tasks in background threads.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Gets the port the worker is bound to.
+     * @return the bound port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting tasks. Tasks in progress are abandoned and their coordinators retry them elsewhere.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                // Closed by close(), or a transient accept failure
+                continue;
+            }
+            try {
+                executor.execute(() -> handle(socket));
+            } catch (RejectedExecutionException e) {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            byte version = in.readByte();
+            if (version != PROTOCOL_VERSION) {
+                out.writeByte(STATUS_INVALID_INPUT);
+                out.writeUTF("Unsupported protocol version: " + version);
+                return;
+            }
+            String filePath = in.readUTF();
+            long start = in.readLong();
+            long end = in.readLong();
+            long errorBudget = in.readLong();
+
+            ParseReport report = errorBudget >= 0 ? new ParseReport(errorBudget, 0) : null;
+            RunningStatistics stats = new RunningStatistics();
+            try {
+                FileDataReader.streamRangeFromFile(filePath, start, end, stats, report);
+            } catch (IllegalArgumentException e) {
+                // Includes NumberFormatException for invalid lines
+                out.writeByte(STATUS_INVALID_INPUT);
+                out.writeUTF(String.format("%s bytes [%d, %d): %s", filePath, start, end, e.getMessage()));
+                return;
+            } catch (IOException e) {
+                out.writeByte(STATUS_FAILED);
+                out.writeUTF(String.format("%s bytes [%d, %d): %s", filePath, start, end, e.getMessage()));
+                return;
+            }
+
+            out.writeByte(STATUS_OK);
+            out.writeLong(stats.getCount());
+            out.writeDouble(stats.getMean());
+            out.writeDouble(stats.getM2());
+            out.writeDouble(stats.getMin());
+            out.writeDouble(stats.getMax());
+            out.writeLong(report != null ? report.getLinesRead() : 0);
+            out.writeLong(report != null ? report.getBadLineCount() : 0);
+        } catch (IOException e) {
+            // Malformed request or the coordinator went away, in which case it retries the task
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+}
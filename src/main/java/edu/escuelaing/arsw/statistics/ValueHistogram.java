@@ -0,0 +1,424 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Streaming frequency distribution over a fixed bucket layout.
+ * Recording a value only increments a counter, so a histogram can be fed in the same
+ * pass as a {@link RunningStatistics} (for example through {@code stats.andThen(histogram)})
+ * without allocating per sample. Histograms with the same layout can be merged across
+ * chunks and threads. Not thread-safe.
+ *
+ * <p>Three layouts are available:
+ * <ul>
+ *   <li>{@link #fixedWidth(double, double, int)} - equal-width buckets over [min, max)</li>
+ *   <li>{@link #logarithmic(double, double, int)} - buckets whose bounds grow geometrically</li>
+ *   <li>{@link #hdr(double, double, int)} - HDR-style log-linear buckets with a bounded
+ *       relative error, indexed directly from the bits of the double</li>
+ * </ul>
+ * Values below the first bucket, above the last one, and NaN are counted separately.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class ValueHistogram implements DoubleConsumer {
+
+    private final Layout layout;
+    private final long[] counts;
+    private long underflow;
+    private long overflow;
+    private long nanCount;
+
+    private ValueHistogram(Layout layout) {
+        this.layout = layout;
+        this.counts = new long[layout.bucketCount()];
+    }
+
+    /**
+     * Creates a histogram with equal-width buckets.
+     *
+     * @param min the lower bound of the first bucket
+     * @param max the upper bound of the last bucket (exclusive, except that max itself is kept)
+     * @param bucketCount the number of buckets
+     * @return an empty histogram
+     * @throws IllegalArgumentException if the range is empty or the bucket count is not positive
+     */
+    public static ValueHistogram fixedWidth(double min, double max, int bucketCount) {
+        return new ValueHistogram(new FixedWidthLayout(min, max, bucketCount));
+    }
+
+    /**
+     * Creates a histogram whose bucket bounds grow geometrically from min to max.
+     *
+     * @param min the lower bound of the first bucket, must be positive
+     * @param max the upper bound of the last bucket
+     * @param bucketCount the number of buckets
+     * @return an empty histogram
+     * @throws IllegalArgumentException if min is not positive, the range is empty,
+     *         or the bucket count is not positive
+     */
+    public static ValueHistogram logarithmic(double min, double max, int bucketCount) {
+        return new ValueHistogram(new LogarithmicLayout(min, max, bucketCount));
+    }
+
+    /**
+     * Creates an HDR-style histogram: each power of two between lowest and highest is split
+     * into 2^precisionBits linear sub-buckets, bounding the relative bucket width by
+     * 2^-precisionBits. Values from 0 up to the power of two at or below lowest share
+     * the first bucket.
+     *
+     * @param lowest the smallest value resolved with full precision, must be positive
+     * @param highest the largest value tracked
+     * @param precisionBits sub-bucket bits per power of two, between 0 and 16
+     * @return an empty histogram
+     * @throws IllegalArgumentException if the arguments are out of range
+     */
+    public static ValueHistogram hdr(double lowest, double highest, int precisionBits) {
+        return new ValueHistogram(new HdrLayout(lowest, highest, precisionBits));
+    }
+
+    /**
+     * Records a value.
+     * @param value the value to record
+     */
+    @Override
+    public void accept(double value) {
+        if (Double.isNaN(value)) {
+            nanCount++;
+            return;
+        }
+        int index = layout.indexOf(value);
+        if (index < 0) {
+            underflow++;
+        } else if (index >= counts.length) {
+            overflow++;
+        } else {
+            counts[index]++;
+        }
+    }
+
+    /**
+     * Adds the counts of another histogram with the same layout to this one.
+     *
+     * @param other the histogram to merge
+     * @return this histogram
+     * @throws IllegalArgumentException if the layouts differ
+     */
+    public ValueHistogram merge(ValueHistogram other) {
+        if (!layout.equals(other.layout)) {
+            throw new IllegalArgumentException("Cannot merge histograms with different bucket layouts");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        underflow += other.underflow;
+        overflow += other.overflow;
+        nanCount += other.nanCount;
+        return this;
+    }
+
+    /**
+     * Creates an empty histogram with the same layout, for use by another chunk or thread.
+     * @return an empty histogram that can be merged with this one
+     */
+    public ValueHistogram emptyCopy() {
+        return new ValueHistogram(layout);
+    }
+
+    /**
+     * Gets the number of buckets.
+     * @return the bucket count
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Gets the number of values recorded in a bucket.
+     * @param bucket the bucket index
+     * @return the bucket count
+     */
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Gets the inclusive lower bound of a bucket.
+     * @param bucket the bucket index
+     * @return the lower bound
+     */
+    public double getLowerBound(int bucket) {
+        return layout.lowerBound(bucket);
+    }
+
+    /**
+     * Gets the exclusive upper bound of a bucket.
+     * @param bucket the bucket index
+     * @return the upper bound
+     */
+    public double getUpperBound(int bucket) {
+        return layout.lowerBound(bucket + 1);
+    }
+
+    /**
+     * Gets the number of values below the first bucket.
+     * @return the underflow count
+     */
+    public long getUnderflowCount() {
+        return underflow;
+    }
+
+    /**
+     * Gets the number of values above the last bucket.
+     * @return the overflow count
+     */
+    public long getOverflowCount() {
+        return overflow;
+    }
+
+    /**
+     * Gets the number of NaN values recorded.
+     * @return the NaN count
+     */
+    public long getNanCount() {
+        return nanCount;
+    }
+
+    /**
+     * Gets the number of values recorded, including underflow, overflow and NaN.
+     * @return the total count
+     */
+    public long getTotalCount() {
+        long total = underflow + overflow + nanCount;
+        for (long c : counts) {
+            total += c;
+        }
+        return total;
+    }
+
+    /**
+     * Gets a copy of the bucket counts.
+     * @return the counts, one per bucket
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Renders the non-empty buckets, one per line.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (underflow > 0) {
+            sb.append(String.format("< %.4g: %d%n", layout.lowerBound(0), underflow));
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                sb.append(String.format("[%.4g, %.4g): %d%n", getLowerBound(i), getUpperBound(i), counts[i]));
+            }
+        }
+        if (overflow > 0) {
+            sb.append(String.format(">= %.4g: %d%n", layout.lowerBound(counts.length), overflow));
+        }
+        if (nanCount > 0) {
+            sb.append(String.format("NaN: %d%n", nanCount));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Maps values to bucket indexes. Indexes below 0 or at least bucketCount() are out of range.
+     */
+    private abstract static class Layout {
+        abstract int bucketCount();
+
+        abstract int indexOf(double value);
+
+        abstract double lowerBound(int bucket);
+    }
+
+    private static final class FixedWidthLayout extends Layout {
+        private final double min;
+        private final double max;
+        private final int buckets;
+        private final double inverseWidth;
+
+        FixedWidthLayout(double min, double max, int buckets) {
+            if (!(min < max) || Double.isInfinite(min) || Double.isInfinite(max)) {
+                throw new IllegalArgumentException("Histogram range must be finite and non-empty");
+            }
+            if (buckets <= 0) {
+                throw new IllegalArgumentException("Bucket count must be positive");
+            }
+            this.min = min;
+            this.max = max;
+            this.buckets = buckets;
+            this.inverseWidth = buckets / (max - min);
+        }
+
+        @Override
+        int bucketCount() {
+            return buckets;
+        }
+
+        @Override
+        int indexOf(double value) {
+            if (value < min) {
+                return -1;
+            }
+            if (value >= max) {
+                return value == max ? buckets - 1 : buckets;
+            }
+            return Math.min((int) ((value - min) * inverseWidth), buckets - 1);
+        }
+
+        @Override
+        double lowerBound(int bucket) {
+            return bucket == buckets ? max : min + bucket / inverseWidth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FixedWidthLayout)) {
+                return false;
+            }
+            FixedWidthLayout other = (FixedWidthLayout) o;
+            return min == other.min && max == other.max && buckets == other.buckets;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new double[] {min, max, buckets});
+        }
+    }
+
+    private static final class LogarithmicLayout extends Layout {
+        private final double min;
+        private final double max;
+        private final int buckets;
+        private final double logMin;
+        private final double inverseLogRatio;
+
+        LogarithmicLayout(double min, double max, int buckets) {
+            if (!(min > 0) || !(min < max) || Double.isInfinite(max)) {
+                throw new IllegalArgumentException("Logarithmic range must be positive, finite and non-empty");
+            }
+            if (buckets <= 0) {
+                throw new IllegalArgumentException("Bucket count must be positive");
+            }
+            this.min = min;
+            this.max = max;
+            this.buckets = buckets;
+            this.logMin = Math.log(min);
+            this.inverseLogRatio = buckets / (Math.log(max) - logMin);
+        }
+
+        @Override
+        int bucketCount() {
+            return buckets;
+        }
+
+        @Override
+        int indexOf(double value) {
+            if (value < min) {
+                return -1;
+            }
+            if (value >= max) {
+                return value == max ? buckets - 1 : buckets;
+            }
+            return Math.min((int) ((Math.log(value) - logMin) * inverseLogRatio), buckets - 1);
+        }
+
+        @Override
+        double lowerBound(int bucket) {
+            return bucket == buckets ? max : Math.exp(logMin + bucket / inverseLogRatio);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LogarithmicLayout)) {
+                return false;
+            }
+            LogarithmicLayout other = (LogarithmicLayout) o;
+            return min == other.min && max == other.max && buckets == other.buckets;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new double[] {min, max, buckets});
+        }
+    }
+
+    private static final class HdrLayout extends Layout {
+        private final double lowest;
+        private final double highest;
+        private final int precisionBits;
+        private final int minExponent;
+        private final int buckets;
+
+        HdrLayout(double lowest, double highest, int precisionBits) {
+            if (!(lowest > 0) || !(lowest < highest) || Double.isInfinite(highest)) {
+                throw new IllegalArgumentException("HDR range must be positive, finite and non-empty");
+            }
+            if (precisionBits < 0 || precisionBits > 16) {
+                throw new IllegalArgumentException("Precision bits must be between 0 and 16");
+            }
+            this.lowest = lowest;
+            this.highest = highest;
+            this.precisionBits = precisionBits;
+            this.minExponent = Math.getExponent(lowest);
+            int exponents = Math.getExponent(highest) - minExponent + 1;
+            // Bucket 0 holds [0, 2^minExponent); the rest are log-linear
+            this.buckets = 1 + (exponents << precisionBits);
+        }
+
+        @Override
+        int bucketCount() {
+            return buckets;
+        }
+
+        @Override
+        int indexOf(double value) {
+            if (value < 0) {
+                return -1;
+            }
+            if (value > highest) {
+                return buckets;
+            }
+            int exponent = Math.getExponent(value);
+            if (exponent < minExponent) {
+                return 0;
+            }
+            long mantissa = Double.doubleToRawLongBits(value) & 0x000F_FFFF_FFFF_FFFFL;
+            int subBucket = (int) (mantissa >>> (52 - precisionBits));
+            return 1 + ((exponent - minExponent) << precisionBits) + subBucket;
+        }
+
+        @Override
+        double lowerBound(int bucket) {
+            if (bucket == 0) {
+                return 0.0;
+            }
+            int offset = bucket - 1;
+            int exponent = minExponent + (offset >>> precisionBits);
+            int subBucket = offset & ((1 << precisionBits) - 1);
+            return Math.scalb(1.0 + (double) subBucket / (1 << precisionBits), exponent);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof HdrLayout)) {
+                return false;
+            }
+            HdrLayout other = (HdrLayout) o;
+            return lowest == other.lowest && highest == other.highest && precisionBits == other.precisionBits;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new double[] {lowest, highest, precisionBits});
+        }
+    }
+}
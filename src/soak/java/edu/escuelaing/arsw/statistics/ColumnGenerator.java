@@ -0,0 +1,491 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Deterministic generator of column files for scale and soak testing. The same seed and
+ * settings always produce the same bytes. Every value is written with a fixed number of
+ * decimals, so the generator can sum the exact decimal values in 128-bit integers and
+ * record a reference mean and standard deviation free of floating-point rounding.
+ * Usage: ColumnGenerator &lt;file&gt; &lt;size&gt; [options], where size is a byte count with an
+ * optional KB, MB or GB suffix; run without arguments for the options.
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class ColumnGenerator {
+
+    /** Largest magnitude of a generated value in units of the last decimal, so it parses exactly. */
+    static final long MAX_UNITS = 1L << 53;
+
+    private static final byte[][] BAD_LINES = {
+        bytes("n/a"), bytes("12.3.4"), bytes("1,5"), bytes("abc"), bytes("--7"), bytes("0x1G"), bytes("1e")
+    };
+
+    /**
+     * Shape of the generated values, with the location and scale used when none are given.
+     */
+    public enum Distribution {
+        /** Uniform on [location - scale, location + scale); by default [350, 650). */
+        UNIFORM(500, 150),
+        /** Normal with mean location and standard deviation scale; by default 500 and 150. */
+        NORMAL(500, 150),
+        /**
+         * Log-normal whose logarithm has mean ln(location) and standard deviation scale, so
+         * scale is unitless; by default a median of 100 and a long right tail.
+         */
+        LOGNORMAL(100, 1),
+        /** Exponential with mean scale, shifted by location; by default a mean of 100 from 0. */
+        EXPONENTIAL(0, 100);
+
+        private final double defaultLocation;
+        private final double defaultScale;
+
+        Distribution(double defaultLocation, double defaultScale) {
+            this.defaultLocation = defaultLocation;
+            this.defaultScale = defaultScale;
+        }
+
+        /**
+         * @return the location used when none is given
+         */
+        public double getDefaultLocation() {
+            return defaultLocation;
+        }
+
+        /**
+         * @return the scale used when none is given
+         */
+        public double getDefaultScale() {
+            return defaultScale;
+        }
+    }
+
+    /**
+     * Textual format of the valid lines.
+     */
+    public enum Format {
+        /** Plain decimals such as 123.45. */
+        PLAIN,
+        /** Scientific notation such as 1.2345E2. */
+        SCIENTIFIC,
+        /** Plain and scientific lines mixed with padding, blank lines and CRLF endings. */
+        MIXED
+    }
+
+    private final long seed;
+    private final Distribution distribution;
+    private final double location;
+    private final double scale;
+    private final Format format;
+    private final double badLineRate;
+    private final int decimals;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed the seed of the random sequence
+     * @param distribution the shape of the values
+     * @param location the location parameter of the distribution
+     * @param scale the scale parameter of the distribution
+     * @param format the format of the valid lines
+     * @param badLineRate the probability of writing an invalid line instead of a value
+     * @param decimals the number of decimals of every value, from 0 to 9
+     * @throws IllegalArgumentException if an argument is null or out of range
+     */
+    public ColumnGenerator(long seed, Distribution distribution, double location, double scale, Format format,
+            double badLineRate, int decimals) {
+        if (distribution == null || format == null) {
+            throw new IllegalArgumentException("Distribution and format cannot be null");
+        }
+        if (!(scale > 0) || Double.isInfinite(scale) || Double.isNaN(location) || Double.isInfinite(location)) {
+            throw new IllegalArgumentException("Location must be finite and scale positive");
+        }
+        if (distribution == Distribution.LOGNORMAL && !(location > 0)) {
+            throw new IllegalArgumentException("Log-normal location must be positive");
+        }
+        if (!(badLineRate >= 0 && badLineRate < 1)) {
+            throw new IllegalArgumentException("Bad line rate must be in [0, 1)");
+        }
+        if (decimals < 0 || decimals > 9) {
+            throw new IllegalArgumentException("Decimals must be between 0 and 9");
+        }
+        this.seed = seed;
+        this.distribution = distribution;
+        this.location = location;
+        this.scale = scale;
+        this.format = format;
+        this.badLineRate = badLineRate;
+        this.decimals = decimals;
+    }
+
+    /**
+     * Writes a column file of at least the given size, ending at the first line boundary past it.
+     * The reference stays exact while the sum of the squared units fits in 127 bits, which holds
+     * for tens of GB of values of up to 12 significant digits.
+     *
+     * @param file the file to create or overwrite
+     * @param targetBytes the size to reach
+     * @return the exact reference statistics of the values written
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public Reference generate(Path file, long targetBytes) throws IOException {
+        if (targetBytes <= 0) {
+            throw new IllegalArgumentException("Target size must be positive");
+        }
+        Random random = new Random(seed);
+        double factor = Math.pow(10, decimals);
+        byte[] line = new byte[64];
+        long count = 0;
+        long badLines = 0;
+        long bytes = 0;
+        // 128-bit sums of the values and their squares, in units of the last decimal
+        long sumHi = 0;
+        long sumLo = 0;
+        long squaresHi = 0;
+        long squaresLo = 0;
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            while (bytes < targetBytes) {
+                int length;
+                if (badLineRate > 0 && random.nextDouble() < badLineRate) {
+                    byte[] bad = BAD_LINES[random.nextInt(BAD_LINES.length)];
+                    System.arraycopy(bad, 0, line, 0, bad.length);
+                    length = bad.length;
+                    badLines++;
+                } else {
+                    long units = Math.round(sample(random) * factor);
+                    units = Math.max(-MAX_UNITS, Math.min(MAX_UNITS, units));
+                    length = formatLine(units, random, line);
+
+                    long lo = sumLo + units;
+                    sumHi += (units >> 63) + (Long.compareUnsigned(lo, sumLo) < 0 ? 1 : 0);
+                    sumLo = lo;
+                    lo = squaresLo + units * units;
+                    squaresHi += Math.multiplyHigh(units, units) + (Long.compareUnsigned(lo, squaresLo) < 0 ? 1 : 0);
+                    squaresLo = lo;
+                    count++;
+                }
+                if (format == Format.MIXED && random.nextInt(10) == 0) {
+                    line[length++] = '\r';
+                }
+                line[length++] = '\n';
+                if (format == Format.MIXED && random.nextInt(50) == 0) {
+                    line[length++] = '\n';
+                }
+                out.write(line, 0, length);
+                bytes += length;
+            }
+        }
+
+        return Reference.of(count, badLines, bytes, decimals, toBigInteger(sumHi, sumLo),
+                toBigInteger(squaresHi, squaresLo));
+    }
+
+    private double sample(Random random) {
+        switch (distribution) {
+            case UNIFORM:
+                return location + scale * (2 * random.nextDouble() - 1);
+            case NORMAL:
+                return location + scale * random.nextGaussian();
+            case LOGNORMAL:
+                return location * Math.exp(scale * random.nextGaussian());
+            default:
+                return location - scale * Math.log(1 - random.nextDouble());
+        }
+    }
+
+    /**
+     * Writes the text of one value into the line buffer, without the line ending.
+     * @return the number of bytes written
+     */
+    private int formatLine(long units, Random random, byte[] line) {
+        boolean scientific = format == Format.SCIENTIFIC || (format == Format.MIXED && random.nextInt(4) == 0);
+        int padding = format == Format.MIXED && random.nextInt(8) == 0 ? 1 + random.nextInt(3) : 0;
+        int length = 0;
+        for (int i = 0; i < padding; i++) {
+            line[length++] = random.nextBoolean() ? (byte) ' ' : (byte) '\t';
+        }
+        if (units < 0) {
+            line[length++] = '-';
+        }
+        // MAX_UNITS keeps units far from Long.MIN_VALUE, so the negation is safe
+        String digits = Long.toString(Math.abs(units));
+        if (scientific) {
+            // d.dddE<exponent>, where the exponent moves the point back to its place
+            line[length++] = (byte) digits.charAt(0);
+            line[length++] = '.';
+            if (digits.length() == 1) {
+                line[length++] = '0';
+            }
+            for (int i = 1; i < digits.length(); i++) {
+                line[length++] = (byte) digits.charAt(i);
+            }
+            line[length++] = 'E';
+            length = writeAscii(Integer.toString(digits.length() - 1 - decimals), line, length);
+        } else {
+            int integerDigits = digits.length() - decimals;
+            if (integerDigits <= 0) {
+                line[length++] = '0';
+            } else {
+                length = writeAscii(digits.substring(0, integerDigits), line, length);
+            }
+            if (decimals > 0) {
+                line[length++] = '.';
+                for (int i = integerDigits; i < 0; i++) {
+                    line[length++] = '0';
+                }
+                length = writeAscii(digits.substring(Math.max(0, integerDigits)), line, length);
+            }
+        }
+        for (int i = 0; i < padding; i++) {
+            line[length++] = ' ';
+        }
+        return length;
+    }
+
+    private static int writeAscii(String text, byte[] line, int offset) {
+        for (int i = 0; i < text.length(); i++) {
+            line[offset++] = (byte) text.charAt(i);
+        }
+        return offset;
+    }
+
+    private static BigInteger toBigInteger(long hi, long lo) {
+        return BigInteger.valueOf(hi).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(lo)));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Parses a size such as 4096, 64KB, 512MB or 20GB into bytes.
+     *
+     * @param text the size, with an optional binary KB, MB or GB suffix
+     * @return the size in bytes, or -1 if the text is not a valid size
+     */
+    public static long parseSize(String text) {
+        String upper = text.trim().toUpperCase(Locale.ROOT);
+        long multiplier = 1;
+        if (upper.endsWith("KB") || upper.endsWith("MB") || upper.endsWith("GB")) {
+            multiplier = upper.endsWith("KB") ? 1L << 10 : upper.endsWith("MB") ? 1L << 20 : 1L << 30;
+            upper = upper.substring(0, upper.length() - 2).trim();
+        }
+        if (!NumberValidator.isValidLong(upper)) {
+            return -1;
+        }
+        long value = Long.parseLong(upper);
+        return value > 0 && value <= Long.MAX_VALUE / multiplier ? value * multiplier : -1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || parseSize(args[1]) <= 0) {
+            System.err.println("Usage: java ColumnGenerator <file> <size>[KB|MB|GB] [--seed <n>]");
+            System.err.println("       [--distribution uniform|normal|lognormal|exponential] [--location <x>] [--scale <x>]");
+            System.err.println("       [--format plain|scientific|mixed] [--bad-rate <p>] [--decimals <n>]");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        long size = parseSize(args[1]);
+        ColumnGenerator generator = fromOptions(args, 2);
+        long start = System.nanoTime();
+        Reference reference = generator.generate(file, size);
+        reference.save(Reference.pathFor(file));
+        System.out.printf("Wrote %s in %.1f s: %s%n", file, (System.nanoTime() - start) / 1e9, reference);
+    }
+
+    /**
+     * Builds a generator from the command-line options starting at the given index, ignoring unknown ones.
+     * A missing location or scale takes the default of the chosen distribution.
+     *
+     * @param args the command-line arguments
+     * @param from the index of the first option
+     * @return the configured generator
+     * @throws IllegalArgumentException if an option value is invalid
+     */
+    static ColumnGenerator fromOptions(String[] args, int from) {
+        long seed = 42;
+        Distribution distribution = Distribution.NORMAL;
+        double location = Double.NaN;
+        double scale = Double.NaN;
+        Format format = Format.PLAIN;
+        double badLineRate = 0;
+        int decimals = 2;
+        for (int i = from; i + 1 < args.length; i++) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--distribution":
+                    distribution = Distribution.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--location":
+                    location = Double.parseDouble(value);
+                    break;
+                case "--scale":
+                    scale = Double.parseDouble(value);
+                    break;
+                case "--format":
+                    format = Format.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--bad-rate":
+                    badLineRate = Double.parseDouble(value);
+                    break;
+                case "--decimals":
+                    decimals = Integer.parseInt(value);
+                    break;
+                default:
+                    continue;
+            }
+            i++;
+        }
+        return new ColumnGenerator(seed, distribution,
+                Double.isNaN(location) ? distribution.getDefaultLocation() : location,
+                Double.isNaN(scale) ? distribution.getDefaultScale() : scale, format, badLineRate, decimals);
+    }
+
+    /**
+     * Exact statistics of a generated file, stored next to it so the file can be checked later.
+     */
+    public static final class Reference {
+        private static final MathContext PRECISION = MathContext.DECIMAL128;
+
+        private final long count;
+        private final long badLines;
+        private final long bytes;
+        private final BigDecimal mean;
+        private final BigDecimal standardDeviation;
+
+        Reference(long count, long badLines, long bytes, BigDecimal mean, BigDecimal standardDeviation) {
+            this.count = count;
+            this.badLines = badLines;
+            this.bytes = bytes;
+            this.mean = mean;
+            this.standardDeviation = standardDeviation;
+        }
+
+        /**
+         * Computes the reference from exact sums in units of the last decimal.
+         */
+        static Reference of(long count, long badLines, long bytes, int decimals, BigInteger sum, BigInteger squares) {
+            BigDecimal mean = count == 0 ? BigDecimal.ZERO
+                    : new BigDecimal(sum).divide(BigDecimal.valueOf(count), PRECISION).scaleByPowerOfTen(-decimals);
+            BigDecimal standardDeviation = BigDecimal.ZERO;
+            if (count > 1) {
+                // (n * sum(x^2) - sum(x)^2) / (n * (n - 1)), exact until the final division
+                BigInteger n = BigInteger.valueOf(count);
+                BigInteger numerator = n.multiply(squares).subtract(sum.multiply(sum));
+                BigDecimal variance = new BigDecimal(numerator)
+                        .divide(new BigDecimal(n.multiply(n.subtract(BigInteger.ONE))), PRECISION);
+                standardDeviation = variance.sqrt(PRECISION).scaleByPowerOfTen(-decimals);
+            }
+            return new Reference(count, badLines, bytes, mean, standardDeviation);
+        }
+
+        /**
+         * Gets the path of the reference file stored next to a generated file.
+         * @param file the generated file
+         * @return the reference file path
+         */
+        public static Path pathFor(Path file) {
+            return file.resolveSibling(file.getFileName() + ".reference");
+        }
+
+        /**
+         * Writes this reference as a properties file.
+         * @param path the file to write
+         * @throws IOException if the file cannot be written
+         */
+        public void save(Path path) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("count", Long.toString(count));
+            properties.setProperty("badLines", Long.toString(badLines));
+            properties.setProperty("bytes", Long.toString(bytes));
+            properties.setProperty("mean", mean.toString());
+            properties.setProperty("standardDeviation", standardDeviation.toString());
+            try (OutputStream out = Files.newOutputStream(path)) {
+                properties.store(out, "Exact statistics of the generated column");
+            }
+        }
+
+        /**
+         * Reads a reference written by {@link #save(Path)}.
+         * @param path the file to read
+         * @return the reference
+         * @throws IOException if the file cannot be read or is incomplete
+         */
+        public static Reference load(Path path) throws IOException {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            }
+            try {
+                return new Reference(Long.parseLong(properties.getProperty("count")),
+                        Long.parseLong(properties.getProperty("badLines")),
+                        Long.parseLong(properties.getProperty("bytes")),
+                        new BigDecimal(properties.getProperty("mean")),
+                        new BigDecimal(properties.getProperty("standardDeviation")));
+            } catch (NullPointerException | NumberFormatException e) {
+                throw new IOException("Invalid reference file: " + path, e);
+            }
+        }
+
+        /**
+         * @return the number of valid values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the number of invalid lines
+         */
+        public long getBadLines() {
+            return badLines;
+        }
+
+        /**
+         * @return the size of the file in bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the exact mean, to 34 significant digits
+         */
+        public BigDecimal getMean() {
+            return mean;
+        }
+
+        /**
+         * @return the sample standard deviation, to 34 significant digits
+         */
+        public BigDecimal getStandardDeviation() {
+            return standardDeviation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d values, %d invalid lines, %d bytes, mean %s, standard deviation %s",
+                    count, badLines, bytes, mean.round(MathContext.DECIMAL64),
+                    standardDeviation.round(MathContext.DECIMAL64));
+        }
+    }
+}
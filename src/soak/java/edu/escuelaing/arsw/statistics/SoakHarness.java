@@ -0,0 +1,259 @@
+package edu.escuelaing.arsw.statistics;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Scale and soak harness: generates a column file with {@link ColumnGenerator}, unless one
+ * with the same settings already exists, then reads it through each ingestion path in a fresh
+ * JVM and reports throughput, peak resident memory, GC time and the error of the mean and
+ * standard deviation against the generator's exact reference. Each path runs in its own JVM
+ * so that peak RSS and GC figures belong to that path alone. Exits with status 1 if any path
+ * returns a wrong count or an error above the tolerance.
+ * Usage: SoakHarness &lt;directory&gt; &lt;size&gt; [--scenarios stream,offheap,list] [--heap 2g]
+ * [--list-max 256MB] [--runs n] [--tolerance 1e-9] [generator options]
+ *
+ * @author Diego Cardenas
+ * @version 1.0
+ */
+public class SoakHarness {
+
+    /** Every ingestion path, in the order they run by default. */
+    static final List<String> SCENARIOS = Arrays.asList("stream", "offheap", "list");
+
+    private static final String RESULT_PREFIX = "RESULT ";
+    private static final double DEFAULT_TOLERANCE = 1e-9;
+    private static final long DEFAULT_LIST_MAX = 256L << 20;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && "--child".equals(args[0])) {
+            runChild(args[1], args[2], args.length > 3 && Boolean.parseBoolean(args[3]));
+            return;
+        }
+        if (args.length < 2 || ColumnGenerator.parseSize(args[1]) <= 0) {
+            System.err.println("Usage: java SoakHarness <directory> <size>[KB|MB|GB] [--scenarios stream,offheap,list]");
+            System.err.println("       [--heap <size>] [--list-max <size>] [--runs <n>] [--tolerance <x>] [generator options]");
+            System.exit(1);
+        }
+
+        Path directory = Paths.get(args[0]);
+        long size = ColumnGenerator.parseSize(args[1]);
+        List<String> scenarios = SCENARIOS;
+        String heap = "2g";
+        long listMax = DEFAULT_LIST_MAX;
+        int runs = 1;
+        double tolerance = DEFAULT_TOLERANCE;
+        for (int i = 2; i + 1 < args.length; i++) {
+            if ("--scenarios".equals(args[i])) {
+                scenarios = Arrays.asList(args[++i].split(","));
+            } else if ("--heap".equals(args[i])) {
+                heap = args[++i];
+            } else if ("--list-max".equals(args[i])) {
+                listMax = ColumnGenerator.parseSize(args[++i]);
+            } else if ("--runs".equals(args[i])) {
+                runs = Integer.parseInt(args[++i]);
+            } else if ("--tolerance".equals(args[i])) {
+                tolerance = Double.parseDouble(args[++i]);
+            }
+        }
+        for (String scenario : scenarios) {
+            if (!SCENARIOS.contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            }
+        }
+
+        // The file name encodes every setting, so a matching file can be reused
+        ColumnGenerator generator = ColumnGenerator.fromOptions(args, 2);
+        Path file = directory.resolve("column-" + args[1].toLowerCase(Locale.ROOT) + "-"
+                + Integer.toHexString(String.join(" ", Arrays.copyOfRange(args, 2, args.length)).hashCode()) + ".txt");
+        Path referencePath = ColumnGenerator.Reference.pathFor(file);
+        ColumnGenerator.Reference reference;
+        if (Files.exists(file) && Files.exists(referencePath)) {
+            reference = ColumnGenerator.Reference.load(referencePath);
+            System.out.println("Reusing " + file + ": " + reference);
+        } else {
+            Files.createDirectories(directory);
+            long start = System.nanoTime();
+            reference = generator.generate(file, size);
+            reference.save(referencePath);
+            System.out.printf("Generated %s in %.1f s: %s%n", file, (System.nanoTime() - start) / 1e9, reference);
+        }
+
+        boolean lenient = reference.getBadLines() > 0;
+        boolean passed = true;
+        System.out.printf("%-8s %9s %11s %9s %9s %12s %10s %10s  %s%n", "Path", "MB/s", "Mvalues/s", "GC ms",
+                "RSS MB", "Heap MB", "Mean err", "SD err", "Result");
+        for (String scenario : scenarios) {
+            for (int run = 0; run < runs; run++) {
+                if ("list".equals(scenario) && reference.getBytes() > listMax) {
+                    System.out.printf("%-8s skipped: file is larger than --list-max%n", scenario);
+                    break;
+                }
+                Map<String, String> result = fork(scenario, file, heap, lenient);
+                passed &= report(scenario, result, reference, tolerance);
+            }
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one scenario in a fresh JVM with the same class path and returns its result fields.
+     */
+    private static Map<String, String> fork(String scenario, Path file, String heap, boolean lenient)
+            throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>(Arrays.asList(java, "-Xmx" + heap,
+                "-cp", System.getProperty("java.class.path"), SoakHarness.class.getName(),
+                "--child", scenario, file.toString(), Boolean.toString(lenient)));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        Map<String, String> result = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    for (String field : line.substring(RESULT_PREFIX.length()).split(" ")) {
+                        int equals = field.indexOf('=');
+                        result.put(field.substring(0, equals), field.substring(equals + 1));
+                    }
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0 && !result.containsKey("error")) {
+            result.put("error", "exit_code_" + exitCode);
+        }
+        return result;
+    }
+
+    /**
+     * Prints one result row and checks it against the reference.
+     * @return true if the run read every value and both errors are within tolerance
+     */
+    private static boolean report(String scenario, Map<String, String> result, ColumnGenerator.Reference reference,
+            double tolerance) {
+        if (result.containsKey("error")) {
+            System.out.printf("%-8s FAILED: %s%n", scenario, result.get("error"));
+            return false;
+        }
+        double seconds = Long.parseLong(result.get("nanos")) / 1e9;
+        long count = Long.parseLong(result.get("count"));
+        long badLines = Long.parseLong(result.get("badLines"));
+        BigDecimal refMean = reference.getMean();
+        BigDecimal refSd = reference.getStandardDeviation();
+        // The mean error is relative to the spread, so a mean near zero is not judged too strictly
+        double meanError = new BigDecimal(result.get("mean")).subtract(refMean).abs()
+                .divide(refSd.max(refMean.abs()), MathContext.DECIMAL64).doubleValue();
+        double sdError = new BigDecimal(result.get("standardDeviation")).subtract(refSd).abs()
+                .divide(refSd, MathContext.DECIMAL64).doubleValue();
+        boolean passed = count == reference.getCount() && badLines == reference.getBadLines()
+                && meanError <= tolerance && sdError <= tolerance;
+        long rssKb = Long.parseLong(result.get("peakRssKb"));
+
+        System.out.printf("%-8s %9.1f %11.2f %9d %9s %12.1f %10.2e %10.2e  %s%n", scenario,
+                reference.getBytes() / seconds / (1 << 20), count / seconds / 1e6,
+                Long.parseLong(result.get("gcMillis")), rssKb < 0 ? "n/a" : Long.toString(rssKb >> 10),
+                Long.parseLong(result.get("peakHeapBytes")) / (double) (1 << 20), meanError, sdError,
+                passed ? "PASS" : "FAIL (count " + count + ", invalid lines " + badLines + ")");
+        return passed;
+    }
+
+    /**
+     * Reads the file through one ingestion path and prints a single result line.
+     */
+    private static void runChild(String scenario, String filePath, boolean lenient) {
+        ParseReport report = lenient ? new ParseReport(ParseReport.UNLIMITED, 0) : null;
+        long start = System.nanoTime();
+        long count;
+        double mean;
+        double standardDeviation;
+        try {
+            switch (scenario) {
+                case "stream": {
+                    RunningStatistics stats = new RunningStatistics();
+                    count = FileDataReader.streamNumbersFromFile(filePath, stats, report);
+                    mean = stats.getMean();
+                    standardDeviation = stats.getStandardDeviation();
+                    break;
+                }
+                case "offheap": {
+                    try (OffHeapDoubleColumn column = new OffHeapDoubleColumn()) {
+                        FileDataReader.readNumbersToColumn(filePath, column, report);
+                        count = column.size();
+                        mean = StatisticsCalculator.calculateMean(column);
+                        standardDeviation = StatisticsCalculator.calculateStandardDeviation(column);
+                    }
+                    break;
+                }
+                case "list": {
+                    CustomLinkedList<Double> numbers = FileDataReader.readNumbersFromFile(filePath, report);
+                    count = numbers.size();
+                    mean = StatisticsCalculator.calculateMean(numbers);
+                    standardDeviation = StatisticsCalculator.calculateStandardDeviation(numbers);
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            }
+        } catch (Exception | OutOfMemoryError e) {
+            System.out.println(RESULT_PREFIX + "error=" + (e.getClass().getSimpleName() + ":" + e.getMessage())
+                    .replace(' ', '_'));
+            System.exit(2);
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.println(RESULT_PREFIX + "count=" + count
+                + " badLines=" + (report != null ? report.getBadLineCount() : 0)
+                + " mean=" + new BigDecimal(mean) + " standardDeviation=" + new BigDecimal(standardDeviation)
+                + " nanos=" + nanos + " gcMillis=" + gcMillis + " peakHeapBytes=" + peakHeap
+                + " peakRssKb=" + peakRssKb());
+    }
+
+    /**
+     * Reads the resident set high-water mark of this process on Linux.
+     * @return the peak RSS in KB, or -1 where /proc is not available
+     */
+    private static long peakRssKb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+}
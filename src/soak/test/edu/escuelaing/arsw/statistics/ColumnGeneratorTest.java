@@ -0,0 +1,111 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests of the soak column generator, run by the default test phase.
+ */
+@DisplayName("Column Generator Tests")
+class ColumnGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("The same seed and settings produce the same bytes")
+    void testDeterministic() throws IOException {
+        ColumnGenerator generator = ColumnGenerator.fromOptions(
+                new String[] {"--seed", "7", "--format", "mixed", "--bad-rate", "0.01"}, 0);
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+        Path other = tempDir.resolve("other.txt");
+
+        ColumnGenerator.Reference reference = generator.generate(first, 64 << 10);
+        generator.generate(second, 64 << 10);
+        ColumnGenerator.fromOptions(new String[] {"--seed", "8", "--format", "mixed", "--bad-rate", "0.01"}, 0)
+                .generate(other, 64 << 10);
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+        assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(other)));
+        assertEquals(Files.size(first), reference.getBytes());
+        assertTrue(reference.getBytes() >= 64 << 10);
+        assertTrue(reference.getBadLines() > 0);
+    }
+
+    @Test
+    @DisplayName("The reference matches the exact statistics of the written values")
+    void testReference() throws IOException {
+        for (ColumnGenerator.Distribution distribution : ColumnGenerator.Distribution.values()) {
+            for (String format : new String[] {"plain", "scientific", "mixed"}) {
+                ColumnGenerator generator = ColumnGenerator.fromOptions(new String[] {
+                    "--distribution", distribution.name(), "--format", format, "--bad-rate", "0.02", "--decimals", "3"
+                }, 0);
+                Path file = tempDir.resolve(distribution + "-" + format + ".txt");
+                ColumnGenerator.Reference reference = generator.generate(file, 16 << 10);
+
+                // Recompute from the text with BigDecimal, which parses every value exactly
+                BigDecimal sum = BigDecimal.ZERO;
+                BigDecimal squares = BigDecimal.ZERO;
+                long count = 0;
+                long badLines = 0;
+                Set<BigDecimal> distinct = new HashSet<>();
+                List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+                for (String line : lines) {
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty()) {
+                        continue;
+                    }
+                    if (!NumberValidator.isValidDouble(trimmed)) {
+                        badLines++;
+                        continue;
+                    }
+                    BigDecimal value = new BigDecimal(trimmed);
+                    sum = sum.add(value);
+                    squares = squares.add(value.multiply(value));
+                    distinct.add(value.stripTrailingZeros());
+                    count++;
+                }
+                BigDecimal n = BigDecimal.valueOf(count);
+                BigDecimal mean = sum.divide(n, MathContext.DECIMAL128);
+                BigDecimal variance = squares.multiply(n).subtract(sum.multiply(sum))
+                        .divide(n.multiply(n.subtract(BigDecimal.ONE)), MathContext.DECIMAL128);
+
+                String setting = distribution + " " + format;
+                assertEquals(count, reference.getCount(), setting);
+                assertEquals(badLines, reference.getBadLines(), setting);
+                assertEquals(0, mean.compareTo(reference.getMean()), setting);
+                BigDecimal error = variance.sqrt(MathContext.DECIMAL128).subtract(reference.getStandardDeviation());
+                assertTrue(error.abs().compareTo(new BigDecimal("1e-25")) < 0, setting);
+                // The default location and scale of each distribution give a spread of values
+                assertTrue(distinct.size() > count / 2, setting);
+                assertTrue(reference.getStandardDeviation().doubleValue() > 1, setting);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Log-normal defaults are its own, and explicit options override them")
+    void testDistributionDefaults() {
+        ColumnGenerator.Distribution lognormal = ColumnGenerator.Distribution.LOGNORMAL;
+        assertEquals(100, lognormal.getDefaultLocation());
+        assertEquals(1, lognormal.getDefaultScale());
+        assertThrows(IllegalArgumentException.class, () -> ColumnGenerator.fromOptions(
+                new String[] {"--distribution", "lognormal", "--location", "-1"}, 0));
+        assertThrows(IllegalArgumentException.class, () -> ColumnGenerator.fromOptions(
+                new String[] {"--scale", "0"}, 0));
+    }
+}
@@ -5,6 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.*;
 
 /**
@@ -343,4 +347,430 @@ class CustomLinkedListTest {
         assertFalse(list.contains("remove1"));
         assertFalse(list.contains("remove2"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Node recycling reuses unlinked nodes up to the pool capacity")
+    void testNodeRecycling() {
+        list.setNodePoolCapacity(2);
+        list.add("first");
+        list.add("second");
+        list.add("third");
+
+        list.remove(0);
+        assertEquals(1, list.getPooledNodeCount());
+        list.clear();
+        assertEquals(2, list.getPooledNodeCount());
+
+        list.add("a");
+        list.add("b");
+        list.add("c");
+        assertEquals(0, list.getPooledNodeCount());
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(list));
+
+        ListIterator<String> it = list.listIterator();
+        it.next();
+        it.remove();
+        it.add("z");
+        assertEquals(Arrays.asList("z", "b", "c"), new ArrayList<>(list));
+
+        list.setNodePoolCapacity(0);
+        assertEquals(0, list.getPooledNodeCount());
+    }
+
+    @Test
+    @DisplayName("Equals and hashCode follow the List contract")
+    void testEqualsAndHashCode() {
+        list.add("first");
+        list.add(null);
+        list.add("third");
+        List<String> expected = Arrays.asList("first", null, "third");
+
+        assertEquals(expected, list);
+        assertEquals(list, expected);
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertEquals(new CustomLinkedList<>(expected), list);
+        assertNotEquals(Arrays.asList("first", null), list);
+        assertNotEquals(new HashSet<>(expected), list);
+    }
+
+    @Test
+    @DisplayName("Serialization round-trips object and double lists")
+    void testSerializationRoundTrip() throws Exception {
+        list.add("first");
+        list.add(null);
+        CustomLinkedList<Double> doubles = new CustomLinkedList<>(Arrays.asList(1.5, -0.0, Double.NaN));
+
+        assertEquals(list, roundTrip(list));
+        CustomLinkedList<Double> copy = roundTrip(doubles);
+        assertEquals(doubles, copy);
+        copy.add(2.0);
+        assertEquals(4, copy.size());
+    }
+
+    @Test
+    @DisplayName("Sort relinks nodes stably and keeps both directions consistent")
+    void testSort() {
+        list.addAll(Arrays.asList("pear", "fig", "apple", "kiwi", "date", "plum", "lime"));
+        list.sort(Comparator.comparingInt(String::length));
+
+        assertEquals(Arrays.asList("fig", "pear", "kiwi", "date", "plum", "lime", "apple"), list);
+        List<String> backwards = new ArrayList<>();
+        for (ListIterator<String> it = list.listIterator(list.size()); it.hasPrevious();) {
+            backwards.add(it.previous());
+        }
+        Collections.reverse(backwards);
+        assertEquals(list, backwards);
+
+        list.sort(null);
+        assertEquals(Arrays.asList("apple", "date", "fig", "kiwi", "lime", "pear", "plum"), list);
+        list.add("zucchini");
+        assertEquals("zucchini", list.get(list.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Parallel sort matches a sequential sort on a large list")
+    void testParallelSort() {
+        Random random = new Random(11);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(1000);
+            expected.add(value);
+            intList.add(value);
+        }
+        Collections.sort(expected);
+        intList.parallelSort(null);
+
+        assertEquals(expected, intList);
+        assertEquals(expected.get(expected.size() - 1), intList.get(intList.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Sort keeps every element when the comparator fails")
+    void testSortComparatorFailure() {
+        intList.addAll(Arrays.asList(5, 3, 8, 1, 9, 2));
+        int[] calls = new int[1];
+
+        assertThrows(IllegalStateException.class, () -> intList.sort((a, b) -> {
+            if (++calls[0] == 4) {
+                throw new IllegalStateException("boom");
+            }
+            return Integer.compare(a, b);
+        }));
+        List<Integer> remaining = new ArrayList<>(intList);
+        Collections.sort(remaining);
+        assertEquals(Arrays.asList(1, 2, 3, 5, 8, 9), remaining);
+        assertEquals(6, intList.size());
+    }
+
+    @Test
+    @DisplayName("Deque operations work at both ends")
+    void testDequeOperations() {
+        Deque<Integer> deque = intList;
+        assertNull(deque.peekFirst());
+        assertNull(deque.pollLast());
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::getLast);
+
+        deque.offerLast(2);
+        deque.offerFirst(1);
+        deque.push(0);
+        deque.offer(3);
+        assertEquals(Arrays.asList(0, 1, 2, 3), intList);
+        assertEquals(0, deque.peek());
+        assertEquals(3, deque.peekLast());
+
+        assertEquals(0, deque.pop());
+        assertEquals(3, deque.removeLast());
+        assertEquals(1, deque.poll());
+        assertEquals(2, deque.pollLast());
+        assertTrue(deque.isEmpty());
+
+        intList.addAll(Arrays.asList(1, 2, 1, 3));
+        assertTrue(deque.removeLastOccurrence(1));
+        assertEquals(Arrays.asList(1, 2, 3), intList);
+        assertEquals(3, intList.getLast());
+    }
+
+    @Test
+    @DisplayName("Descending iterator walks from tail to head and supports removal")
+    void testDescendingIterator() {
+        intList.addAll(Arrays.asList(1, 2, 3, 4));
+        List<Integer> seen = new ArrayList<>();
+        for (Iterator<Integer> it = intList.descendingIterator(); it.hasNext();) {
+            int value = it.next();
+            seen.add(value);
+            if (value % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        assertEquals(Arrays.asList(4, 3, 2, 1), seen);
+        assertEquals(Arrays.asList(1, 3), intList);
+        assertEquals(Arrays.asList(3, 1), intList.reversed());
+    }
+
+    @Test
+    @DisplayName("Reversed view reflects and writes through to the list")
+    void testReversedView() {
+        intList.addAll(Arrays.asList(1, 2, 3));
+        CustomLinkedList<Integer>.ReverseView view = intList.reversed();
+        assertEquals(Arrays.asList(3, 2, 1), view);
+        assertEquals(3, view.get(0));
+        assertEquals(1, view.getLast());
+
+        intList.addLast(4);
+        assertEquals(Arrays.asList(4, 3, 2, 1), view);
+
+        view.addFirst(5);
+        view.add(0);
+        view.add(2, 9);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 9, 4, 5), intList);
+        assertEquals(Arrays.asList(5, 4, 9, 3, 2, 1, 0), view);
+
+        assertEquals(5, view.pollFirst());
+        assertEquals(0, view.removeLast());
+        assertEquals(9, view.set(1, 8));
+        assertEquals(Arrays.asList(1, 2, 3, 8, 4), intList);
+
+        intList.addAll(Arrays.asList(2, 7));
+        assertTrue(view.remove((Object) 2));
+        assertEquals(Arrays.asList(1, 2, 3, 8, 4, 7), intList);
+
+        ListIterator<Integer> it = view.listIterator();
+        assertEquals(7, it.next());
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+        assertEquals(4, it.next());
+        it.add(6);
+        assertEquals(2, it.nextIndex());
+        assertEquals(6, it.previous());
+        assertEquals(Arrays.asList(1, 2, 3, 8, 6, 4), intList);
+
+        assertSame(intList, view.reversed());
+        Iterator<Integer> descending = view.descendingIterator();
+        assertEquals(1, descending.next());
+        view.clear();
+        assertTrue(intList.isEmpty());
+        assertThrows(ConcurrentModificationException.class, descending::next);
+    }
+
+    @Test
+    @DisplayName("Indexed mode stays consistent through adds, sets, removals and clear")
+    void testIndexedMode() {
+        list.addAll(Arrays.asList("a", "b", null, "b", "c"));
+        list.setIndexed(true);
+        assertTrue(list.isIndexed());
+
+        assertTrue(list.contains(null));
+        assertFalse(list.contains("z"));
+        assertEquals(1, list.indexOf("b"));
+        assertEquals(3, list.lastIndexOf("b"));
+        assertEquals(-1, list.indexOf("z"));
+
+        list.set(0, "z");
+        assertTrue(list.contains("z"));
+        assertFalse(list.contains("a"));
+
+        assertTrue(list.remove("b"));
+        assertEquals(Arrays.asList("z", null, "b", "c"), list);
+        assertTrue(list.contains("b"));
+        assertTrue(list.remove("b"));
+        assertFalse(list.contains("b"));
+        assertFalse(list.remove("b"));
+
+        ListIterator<String> it = list.listIterator();
+        it.next();
+        it.set("y");
+        it.next();
+        it.remove();
+        it.add("x");
+        assertEquals(Arrays.asList("y", "x", "c"), list);
+        assertFalse(list.contains("z"));
+        assertFalse(list.contains(null));
+        assertTrue(list.contains("x"));
+
+        list.push("c");
+        assertTrue(list.removeLastOccurrence("c"));
+        assertEquals(Arrays.asList("c", "y", "x"), list);
+        assertEquals(0, list.indexOf("c"));
+
+        list.clear();
+        assertFalse(list.contains("c"));
+        list.add("c");
+        assertTrue(list.contains("c"));
+
+        // Switching modes copies the nodes; an open iterator keeps its position
+        list.addAll(Arrays.asList("d", "c"));
+        ListIterator<String> open = list.listIterator();
+        open.next();
+        list.setIndexed(false);
+        assertFalse(list.isIndexed());
+        assertTrue(list.contains("c"));
+        assertEquals("d", open.next());
+        open.remove();
+        list.setIndexed(true);
+        assertEquals("c", open.next());
+        open.remove();
+        assertEquals(Collections.singletonList("c"), list);
+        assertEquals(0, list.lastIndexOf("c"));
+    }
+
+    @Test
+    @DisplayName("Indexed and plain lists agree under random operations")
+    void testIndexedMatchesPlain() {
+        CustomLinkedList<Integer> indexed = new CustomLinkedList<>();
+        indexed.setIndexed(true);
+        indexed.setNodePoolCapacity(8);
+        List<Integer> reference = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            Integer value = random.nextInt(50);
+            switch (random.nextInt(8)) {
+                case 0:
+                    indexed.add(value);
+                    reference.add(value);
+                    break;
+                case 1:
+                    assertEquals(reference.remove(value), indexed.remove(value));
+                    break;
+                case 2:
+                    if (!reference.isEmpty()) {
+                        int index = random.nextInt(reference.size());
+                        assertEquals(reference.set(index, value), indexed.set(index, value));
+                    }
+                    break;
+                case 3: {
+                    int index = random.nextInt(reference.size() + 1);
+                    indexed.add(index, value);
+                    reference.add(index, value);
+                    break;
+                }
+                case 4: {
+                    int last = reference.lastIndexOf(value);
+                    if (last >= 0) {
+                        reference.remove(last);
+                    }
+                    assertEquals(last >= 0, indexed.removeLastOccurrence(value));
+                    break;
+                }
+                case 5:
+                    indexed.addFirst(value);
+                    reference.add(0, value);
+                    break;
+                case 6:
+                    if (random.nextInt(50) == 0) {
+                        indexed.sort(null);
+                        reference.sort(null);
+                    } else if (random.nextInt(50) == 0) {
+                        // Rebuilds the chains from plain nodes
+                        indexed.setIndexed(false);
+                        indexed.setIndexed(true);
+                    } else {
+                        int index = random.nextInt(reference.size() + 1);
+                        List<Integer> values = Arrays.asList(value, value + 1, value);
+                        indexed.addAll(index, values);
+                        reference.addAll(index, values);
+                    }
+                    break;
+                default:
+                    assertEquals(reference.contains(value), indexed.contains(value));
+                    assertEquals(reference.indexOf(value), indexed.indexOf(value));
+                    assertEquals(reference.lastIndexOf(value), indexed.lastIndexOf(value));
+                    break;
+            }
+        }
+        assertEquals(reference, indexed);
+        while (!reference.isEmpty()) {
+            assertEquals(reference.remove(0), indexed.pollFirst());
+            Integer value = random.nextInt(50);
+            assertEquals(reference.remove(value), indexed.remove(value));
+        }
+        assertTrue(indexed.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Snapshots keep their elements through later changes")
+    void testSnapshotIsolation() {
+        assertThrows(IllegalStateException.class, () -> intList.snapshot());
+        intList.setSnapshotsEnabled(true);
+        intList.setIndexed(true);
+        intList.addAll(Arrays.asList(1, 2, 3));
+        CustomLinkedList.Snapshot<Integer> first = intList.snapshot();
+
+        intList.add(4);
+        intList.addFirst(0);
+        CustomLinkedList.Snapshot<Integer> second = intList.snapshot();
+        ListIterator<Integer> it = intList.listIterator(1);
+        it.next();
+        it.set(10);
+        it.next();
+        it.remove();
+        it.add(20);
+        intList.remove(Integer.valueOf(3));
+        intList.sort(Comparator.reverseOrder());
+
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(first));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), new ArrayList<>(second));
+        assertEquals(Arrays.asList(20, 10, 4, 0), intList);
+        assertTrue(intList.contains(20));
+        assertFalse(intList.contains(3));
+
+        CustomLinkedList.Snapshot<Integer> third = intList.snapshot();
+        intList.clear();
+        intList.add(7);
+        assertEquals(Arrays.asList(20, 10, 4, 0), new ArrayList<>(third));
+        assertEquals(Collections.singletonList(7), intList);
+    }
+
+    @Test
+    @DisplayName("Snapshots taken while another thread appends and removes are consistent")
+    void testConcurrentSnapshots() throws Exception {
+        CustomLinkedList<Integer> shared = new CustomLinkedList<>();
+        shared.setSnapshotsEnabled(true);
+        shared.setNodePoolCapacity(64);
+        int total = 200_000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                shared.add(i);
+                if (i % 1000 == 999) {
+                    // Trim from the front now and then, forcing copies while snapshots are read
+                    for (int j = 0; j < 500; j++) {
+                        shared.removeFirst();
+                    }
+                }
+            }
+        });
+        writer.start();
+        int snapshots = 0;
+        while (writer.isAlive() || snapshots == 0) {
+            CustomLinkedList.Snapshot<Integer> snapshot = shared.snapshot();
+            int count = 0;
+            Integer previous = null;
+            for (Integer value : snapshot) {
+                assertNotNull(value);
+                if (previous != null) {
+                    assertEquals(previous + 1, value.intValue());
+                }
+                previous = value;
+                count++;
+            }
+            assertEquals(snapshot.size(), count);
+            snapshots++;
+        }
+        writer.join();
+        assertEquals(total / 2, shared.size());
+        assertTrue(snapshots > 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+}
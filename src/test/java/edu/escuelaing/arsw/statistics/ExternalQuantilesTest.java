@@ -0,0 +1,85 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Unit tests for the ExternalQuantiles class.
+ * Compares the order statistics of sorted runs on disk with in-memory selection.
+ */
+@DisplayName("External Quantiles Tests")
+class ExternalQuantilesTest {
+
+    private static final List<Double> COLUMN1 = Arrays.asList(
+            160.0, 591.0, 114.0, 229.0, 230.0, 270.0, 128.0, 1657.0, 624.0, 1503.0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Quantiles over spilled and merged runs match in-memory selection")
+    void testSpilledRuns() throws IOException {
+        Random random = new Random(3);
+        List<Double> values = new ArrayList<>();
+        double[] probabilities = {0.0, 0.001, 0.25, 0.5, 0.9, 0.999, 1.0};
+        // 8192 values per run and a fan-in of 4 give several levels of merged runs
+        try (ExternalQuantiles quantiles = new ExternalQuantiles(ExternalQuantiles.MIN_MEMORY_BYTES, tempDir, 4)) {
+            for (int i = 0; i < 150_001; i++) {
+                // Rounding creates ties across runs
+                double value = Math.round(random.nextGaussian() * 100) / 10.0;
+                values.add(value);
+                quantiles.accept(value);
+            }
+            assertEquals(150_001, quantiles.getCount());
+            assertTrue(quantiles.getRunCount() < 150_001 / 8192, "runs: " + quantiles.getRunCount());
+            assertArrayEquals(StatisticsCalculator.calculateQuantiles(values, probabilities),
+                    quantiles.quantiles(probabilities));
+            assertEquals(StatisticsCalculator.calculateMedian(values), quantiles.median());
+            assertEquals(tempDir, quantiles.getDirectory().getParent());
+        }
+    }
+
+    @Test
+    @DisplayName("Values that fit in memory are answered without writing runs")
+    void testInMemory() throws IOException {
+        try (ExternalQuantiles small = new ExternalQuantiles(1L << 20, tempDir)) {
+            assertThrows(IllegalArgumentException.class, small::median);
+            COLUMN1.forEach(small::accept);
+            assertEquals(0, small.getRunCount());
+            assertEquals(StatisticsCalculator.calculateOrderStatistics(COLUMN1).toString(),
+                    small.orderStatistics().toString());
+            assertThrows(IllegalArgumentException.class, () -> small.accept(Double.NaN));
+        }
+    }
+
+    @Test
+    @DisplayName("Closing deletes the runs and rejects further values")
+    void testClose() throws IOException {
+        ExternalQuantiles quantiles = new ExternalQuantiles(ExternalQuantiles.MIN_MEMORY_BYTES, tempDir);
+        for (int i = 0; i < 20_000; i++) {
+            quantiles.accept(i);
+        }
+        assertTrue(quantiles.getRunCount() > 0);
+        quantiles.close();
+
+        assertFalse(Files.exists(quantiles.getDirectory()));
+        // Rejected on every call, not only when the buffer would spill
+        assertThrows(IllegalStateException.class, () -> quantiles.accept(1.0));
+        assertThrows(IllegalStateException.class, quantiles::median);
+        quantiles.close();
+    }
+
+    @Test
+    @DisplayName("Invalid memory limits are rejected")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalQuantiles(ExternalQuantiles.MIN_MEMORY_BYTES - 1, tempDir));
+    }
+}
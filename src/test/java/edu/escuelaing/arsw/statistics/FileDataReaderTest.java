@@ -0,0 +1,384 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the FileDataReader class.
+ * Tests strict and lenient parsing of numeric input.
+ */
+@DisplayName("File Data Reader Tests")
+class FileDataReaderTest {
+
+    private static InputStream streamOf(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Strict mode reads numbers and skips empty lines")
+    void testStrictRead() throws IOException {
+        CustomLinkedList<Double> numbers = FileDataReader.readNumbersFromStream(streamOf("1\n\n2.5\n  -3e1 \n"));
+
+        assertEquals(Arrays.asList(1.0, 2.5, -30.0), numbers);
+    }
+
+    @Test
+    @DisplayName("Strict mode fails on the first invalid line")
+    void testStrictInvalidLine() {
+        NumberFormatException e = assertThrows(NumberFormatException.class,
+                () -> FileDataReader.readNumbersFromStream(streamOf("1\nabc\n3\n")));
+
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+
+    @Test
+    @DisplayName("Lenient mode skips and records invalid lines")
+    void testLenientRead() throws IOException {
+        ParseReport report = new ParseReport();
+        CustomLinkedList<Double> numbers = FileDataReader.readNumbersFromStream(
+                streamOf("1\nabc\n\n2\n1.2.3\n3\n"), report);
+
+        assertEquals(Arrays.asList(1.0, 2.0, 3.0), numbers);
+        assertEquals(6, report.getLinesRead());
+        assertEquals(3, report.getValuesParsed());
+        assertEquals(2, report.getBadLineCount());
+        assertArrayEquals(new int[] {2, 5}, report.getBadLineNumbers());
+        assertFalse(report.isTruncated());
+    }
+
+    @Test
+    @DisplayName("Lenient mode caps the recorded line numbers")
+    void testLenientRecordedLinesCap() throws IOException {
+        ParseReport report = new ParseReport(ParseReport.UNLIMITED, 1);
+        FileDataReader.readNumbersFromStream(streamOf("x\n1\ny\nz\n"), report);
+
+        assertEquals(3, report.getBadLineCount());
+        assertArrayEquals(new int[] {1}, report.getBadLineNumbers());
+        assertTrue(report.isTruncated());
+    }
+
+    @Test
+    @DisplayName("Lenient mode aborts when the error budget is exceeded")
+    void testErrorBudgetExceeded() {
+        ParseReport report = new ParseReport(1);
+
+        assertThrows(NumberFormatException.class,
+                () -> FileDataReader.readNumbersFromStream(streamOf("1\nx\n2\ny\n3\n"), report));
+        assertEquals(2, report.getBadLineCount());
+    }
+
+    @Test
+    @DisplayName("Validator agrees with Double.parseDouble")
+    void testValidatorMatchesParseDouble() {
+        String[] samples = {"0", "-1", "+2.", ".5", "1e10", "1E-3", "2.5f", "3d", "NaN", "-Infinity",
+            "0x1p3", "0X1.8P-1", "0x.8p1d", "", "+", ".", "e5", "1e", "1e+", "abc", "1.2.3", "0x1",
+            "1ff", "Inf", "NaNx", "--1", "1 2", "0xp1"};
+        for (String sample : samples) {
+            boolean parses;
+            try {
+                Double.parseDouble(sample);
+                parses = true;
+            } catch (NumberFormatException e) {
+                parses = false;
+            }
+            assertEquals(parses, NumberValidator.isValidDouble(sample), sample);
+        }
+    }
+
+    @Test
+    @DisplayName("Long validator checks syntax and range")
+    void testLongValidator() {
+        assertTrue(NumberValidator.isValidLong("9223372036854775807"));
+        assertTrue(NumberValidator.isValidLong("-9223372036854775808"));
+        assertFalse(NumberValidator.isValidLong("9223372036854775808"));
+        assertFalse(NumberValidator.isValidLong("-9223372036854775809"));
+        assertFalse(NumberValidator.isValidLong("1.0"));
+        assertFalse(NumberValidator.isValidLong("-"));
+    }
+
+    @Test
+    @DisplayName("Integer reader parses longs exactly and honours lenient mode")
+    void testReadLongs() throws IOException {
+        Path file = Files.createTempFile("longs", ".txt");
+        try {
+            Files.write(file, Arrays.asList("9007199254740993", "", "-5", "1.5", "7"));
+
+            assertThrows(NumberFormatException.class, () -> FileDataReader.readLongsFromFile(file.toString(), null));
+
+            ParseReport report = new ParseReport();
+            long[] values = FileDataReader.readLongsFromFile(file.toString(), report);
+            assertArrayEquals(new long[] {9007199254740993L, -5, 7}, values);
+            assertArrayEquals(new int[] {4}, report.getBadLineNumbers());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Block sampling reads whole lines from each stratum")
+    void testSampleBlocks() throws IOException {
+        Path file = Files.createTempFile("blocks", ".txt");
+        try {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                lines.add(Integer.toString(1000 + i % 1000));
+            }
+            Files.write(file, lines);
+
+            List<RunningStatistics> blocks = FileDataReader.sampleBlocksFromFile(file.toString(), 20, 50,
+                    new Random(3), null);
+            assertEquals(20, blocks.size());
+            for (RunningStatistics block : blocks) {
+                assertTrue(block.getCount() > 0 && block.getCount() <= 50);
+                assertTrue(block.getMin() >= 1000 && block.getMax() <= 1999, block.toString());
+            }
+
+            SampledStatistics estimate = SampledStatistics.fromBlocks(blocks, 0.99);
+            assertTrue(estimate.getMeanLow() < 1499.5 && 1499.5 < estimate.getMeanHigh(), estimate.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Pipeline applies its steps in order while reading")
+    void testPipelineStreamFile() throws IOException {
+        Path file = Files.createTempFile("pipeline", ".txt");
+        try {
+            Files.write(file, Arrays.asList("10", "-999", "20", "abc", "300", "-999", "40", "50", "60"));
+            DoublePipeline base = DoublePipeline.create()
+                    .filter(v -> v != -999)
+                    .clip(0, 100);
+            DoublePipeline pipeline = base.map(v -> v / 10).limit(4);
+
+            List<Double> values = new ArrayList<>();
+            ParseReport report = new ParseReport();
+            long count = pipeline.streamFile(file.toString(), values::add, report);
+
+            assertEquals(4, count);
+            assertEquals(Arrays.asList(1.0, 2.0, 10.0, 4.0), values);
+            // Reading stops once the limit is reached
+            assertEquals(7, report.getLinesRead());
+            assertEquals(1, report.getBadLineCount());
+
+            RunningStatistics stats = base.statisticsOfFile(file.toString(), new ParseReport());
+            assertEquals(6, stats.getCount());
+            assertEquals(280.0 / 6, stats.getMean(), 1e-12);
+            assertEquals(100.0, stats.getMax());
+            assertEquals(0, DoublePipeline.create().limit(0).streamFile(file.toString(), values::add, null));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Pipeline applies its steps to a stream and stops reading at its limit")
+    void testPipelineStreamInput() throws IOException {
+        byte[] input = "1\n-999\n2\nabc\n3\n4\n5\n".getBytes(StandardCharsets.UTF_8);
+        DoublePipeline pipeline = DoublePipeline.create().filter(v -> v != -999).map(v -> v * 2).limit(3);
+
+        List<Double> values = new ArrayList<>();
+        ParseReport report = new ParseReport();
+        assertEquals(3, pipeline.streamInput(new ByteArrayInputStream(input), values::add, report));
+
+        assertEquals(Arrays.asList(2.0, 4.0, 6.0), values);
+        assertEquals(5, report.getLinesRead());
+        assertEquals(1, report.getBadLineCount());
+        // Filtering out every value is not an error, but an empty stream is
+        assertEquals(0, DoublePipeline.create().filter(v -> false)
+                .streamInput(new ByteArrayInputStream(input), values::add, new ParseReport()));
+        assertThrows(IOException.class, () -> pipeline.streamInput(
+                new ByteArrayInputStream(new byte[0]), values::add, null));
+    }
+
+    @Test
+    @DisplayName("Pipeline over memory matches the step-by-step result")
+    void testPipelineApply() {
+        double[] values = {3, Double.NaN, -2, 8, 5};
+        DoublePipeline pipeline = DoublePipeline.create()
+                .filter(v -> !Double.isNaN(v))
+                .map(v -> v * 2)
+                .clip(-1, 12);
+
+        RunningStatistics stats = new RunningStatistics();
+        assertEquals(4, pipeline.apply(values, stats));
+        assertEquals((6 - 1 + 12 + 10) / 4.0, stats.getMean(), 1e-12);
+
+        List<Double> out = new ArrayList<>();
+        assertEquals(2, pipeline.limit(2).apply(Arrays.asList(3.0, -2.0, 8.0), out::add));
+        assertEquals(Arrays.asList(6.0, -1.0), out);
+        assertTrue(DoublePipeline.create().isEmpty());
+        assertFalse(pipeline.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> pipeline.clip(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.limit(-1));
+    }
+
+    @Test
+    @DisplayName("Paired files are read in lockstep, skipping empty lines and failing on invalid ones")
+    void testPairedRead() throws IOException {
+        Path x = Files.createTempFile("paired-x", ".txt");
+        Path y = Files.createTempFile("paired-y", ".txt");
+        try {
+            Files.write(x, Arrays.asList("1", "", "2", "3"));
+            Files.write(y, Arrays.asList("2", "4", "", "", "6"));
+            PairedStatistics stats = new PairedStatistics();
+            assertEquals(3, FileDataReader.readPairedFiles(x.toString(), y.toString(), stats));
+            assertEquals(2.0, stats.getSlope(), 1e-12);
+            assertEquals(1.0, stats.getCorrelation(), 1e-12);
+
+            Files.write(y, Arrays.asList("2", "", "oops", "6"));
+            NumberFormatException e = assertThrows(NumberFormatException.class,
+                    () -> FileDataReader.readPairedFiles(x.toString(), y.toString(), new PairedStatistics()));
+            assertEquals("Invalid number format at line 3: 'oops'", e.getMessage());
+
+            Files.write(y, Arrays.asList("2", "4"));
+            assertThrows(IOException.class,
+                    () -> FileDataReader.readPairedFiles(x.toString(), y.toString(), new PairedStatistics()));
+        } finally {
+            Files.delete(x);
+            Files.delete(y);
+        }
+    }
+
+    @Test
+    @DisplayName("Key-value lines are grouped by key in strict and lenient mode")
+    void testGroupedRead() throws IOException {
+        Path file = Files.createTempFile("grouped", ".txt");
+        try {
+            Files.write(file, Arrays.asList("a 1", "b\t10", "", "New York, 4", "a  3", "b 20", "a x", "7", "New York 6"));
+
+            assertThrows(NumberFormatException.class,
+                    () -> FileDataReader.streamGroupedFromFile(file.toString(), new GroupedStatistics(), null));
+
+            GroupedStatistics groups = new GroupedStatistics();
+            ParseReport report = new ParseReport();
+            assertEquals(6, FileDataReader.streamGroupedFromFile(file.toString(), groups, report));
+            assertEquals(2, report.getBadLineCount());
+            assertEquals(Arrays.asList("New York", "a", "b"), groups.sortedKeys());
+            RunningStatistics a = groups.get("a");
+            assertEquals(2, a.getCount());
+            assertEquals(2.0, a.getMean(), 1e-12);
+            assertEquals(Math.sqrt(2), a.getStandardDeviation(), 1e-12);
+            assertEquals(15.0, groups.get("b").getMean(), 1e-12);
+            assertEquals(6.0, groups.get("New York").getMax());
+            assertNull(groups.get("c"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel grouping over byte ranges matches per-key accumulators")
+    void testGroupedParallel() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("grouped-parallel", ".txt");
+        try {
+            Random random = new Random(11);
+            Map<String, RunningStatistics> expected = new HashMap<>();
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 300_000; i++) {
+                String key = "key-" + random.nextInt(50_000);
+                double value = Math.round(random.nextGaussian() * 1000) / 100.0;
+                expected.computeIfAbsent(key, k -> new RunningStatistics()).accept(value);
+                content.append(key).append(' ').append(value).append('\n');
+            }
+            Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+            assertTrue(Files.size(file) > 2 * GroupedStatistics.MIN_RANGE_BYTES);
+
+            GroupedStatistics groups = GroupedStatistics.ofFile(file.toString(), 4, null);
+
+            assertEquals(expected.size(), groups.size());
+            assertEquals(300_000, groups.getTotalCount());
+            groups.forEach((key, stats) -> {
+                RunningStatistics exact = expected.get(key);
+                assertEquals(exact.getCount(), stats.getCount(), key);
+                assertEquals(exact.getMean(), stats.getMean(), 1e-9, key);
+                assertEquals(exact.getM2(), stats.getM2(), 1e-6, key);
+                assertEquals(exact.getMin(), stats.getMin(), key);
+                assertEquals(exact.getMax(), stats.getMax(), key);
+            });
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel grouping shares one error budget across byte ranges")
+    void testGroupedParallelErrorBudget() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("grouped-budget", ".txt");
+        try {
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 300_000; i++) {
+                content.append(i % 1000 == 0 ? "key broken" : "key-" + (i % 7) + " " + i).append('\n');
+            }
+            Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+            assertTrue(Files.size(file) > 2 * GroupedStatistics.MIN_RANGE_BYTES);
+
+            ParseReport report = new ParseReport(300);
+            GroupedStatistics groups = GroupedStatistics.ofFile(file.toString(), 4, report);
+            assertEquals(299_700, groups.getTotalCount());
+            assertEquals(300, report.getBadLineCount());
+            assertEquals(300_000, report.getLinesRead());
+            // Range line numbers are relative to the range, so none are recorded
+            assertEquals(0, report.getBadLineNumbers().length);
+            assertTrue(report.isTruncated());
+
+            // Each range holds fewer than 100 invalid lines, so only the shared count exceeds the budget
+            NumberFormatException e = assertThrows(NumberFormatException.class,
+                    () -> GroupedStatistics.ofFile(file.toString(), 4, new ParseReport(150)));
+            assertTrue(e.getMessage().startsWith("Error budget exceeded"), e.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming from an input stream reports snapshots while the producer is still writing")
+    void testStreamingSnapshots() throws Exception {
+        PipedInputStream in = new PipedInputStream();
+        PipedOutputStream out = new PipedOutputStream(in);
+        CountDownLatch firstSnapshot = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try (PipedOutputStream o = out) {
+                o.write("1\n2\n3\n4\n5\n".getBytes(StandardCharsets.UTF_8));
+                o.flush();
+                // The rest is only written once the first five values have been reported
+                if (firstSnapshot.await(10, TimeUnit.SECONDS)) {
+                    o.write("6\nabc\n7\n8\n9\n10\n".getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException | InterruptedException e) {
+                // The reader fails the test
+            }
+        });
+        producer.start();
+
+        RunningStatistics stats = new RunningStatistics();
+        List<String> snapshots = new ArrayList<>();
+        ProgressReporter reporter = new ProgressReporter(stats, 5, 0, count -> {
+            snapshots.add(count + ":" + stats.getMean());
+            firstSnapshot.countDown();
+        });
+        ParseReport report = new ParseReport();
+        long count = FileDataReader.streamNumbersFromStream(in, reporter, report);
+        producer.join();
+
+        assertEquals(10, count);
+        assertEquals(Arrays.asList("5:3.0", "10:5.5"), snapshots);
+        assertEquals(2, reporter.getReportCount());
+        assertEquals(1, report.getBadLineCount());
+        assertThrows(IOException.class,
+                () -> FileDataReader.streamNumbersFromStream(streamOf("\n\n"), stats, null));
+    }
+}
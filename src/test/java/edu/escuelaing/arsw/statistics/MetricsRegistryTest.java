@@ -0,0 +1,101 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Tests of the metrics registry and of the reader instrumentation that records into it.
+ */
+@DisplayName("Metrics Registry Tests")
+class MetricsRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void resetGlobal() {
+        MetricsRegistry.global().setEnabled(false);
+        MetricsRegistry.global().reset();
+    }
+
+    @Test
+    @DisplayName("Counters are created once per name and accumulate")
+    void testCounters() {
+        MetricsRegistry registry = new MetricsRegistry(true);
+        registry.counter("a").add(3);
+        registry.counter("a").add(4);
+        registry.counter("b").add(1);
+
+        assertSame(registry.counter("a"), registry.counter("a"));
+        assertEquals(7, registry.counter("a").get());
+        assertEquals(1, registry.counter("b").get());
+        assertEquals("a=7\nb=1\n", registry.toString());
+
+        registry.reset();
+        assertEquals(0, registry.counter("a").get());
+        assertEquals("a=0\n", registry.toString());
+    }
+
+    @Test
+    @DisplayName("Histogram samples land in power-of-two buckets")
+    void testHistogramBuckets() {
+        MetricsRegistry.Histogram histogram = new MetricsRegistry(true).histogram("h");
+        assertEquals(0, histogram.getPercentile(50));
+
+        // Buckets: {0}, {1}, [2, 3], [4, 7], [8, 15], ...
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(5);
+        histogram.record(6);
+        histogram.record(8);
+        histogram.record(1000);
+
+        assertEquals(7, histogram.getCount());
+        assertEquals(1020 / 7.0, histogram.getMean(), 1e-12);
+        assertEquals(1000, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(1));
+        assertEquals(0, histogram.getPercentile(25));
+        assertEquals(1, histogram.getPercentile(40));
+        assertEquals(7, histogram.getPercentile(50));
+        assertEquals(7, histogram.getPercentile(70));
+        assertEquals(15, histogram.getPercentile(85));
+        // The top bucket is [512, 1023], capped by the largest sample
+        assertEquals(1000, histogram.getPercentile(100));
+
+        MetricsRegistry.Histogram large = new MetricsRegistry(true).histogram("large");
+        large.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, large.getPercentile(50));
+    }
+
+    @Test
+    @DisplayName("The reader records lines, values, invalid lines and characters")
+    void testReaderMetrics() throws Exception {
+        Path file = tempDir.resolve("column.txt");
+        // "abç" is three characters but four bytes in UTF-8
+        Files.write(file, Arrays.asList("1", "2", "abç", "", "3"), StandardCharsets.UTF_8);
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.reset();
+
+        metrics.setEnabled(false);
+        FileDataReader.readNumbersFromFile(file.toString(), new ParseReport());
+        assertEquals(0, metrics.counter(MetricsRegistry.READER_LINES).get());
+
+        metrics.setEnabled(true);
+        FileDataReader.readNumbersFromFile(file.toString(), new ParseReport());
+
+        assertEquals(5, metrics.counter(MetricsRegistry.READER_LINES).get());
+        assertEquals(3, metrics.counter(MetricsRegistry.READER_VALUES).get());
+        assertEquals(1, metrics.counter(MetricsRegistry.READER_BAD_LINES).get());
+        assertEquals(11, metrics.counter(MetricsRegistry.READER_CHARS).get());
+        assertEquals(1, metrics.histogram(MetricsRegistry.READER_PARSE_RATE).getCount());
+    }
+}
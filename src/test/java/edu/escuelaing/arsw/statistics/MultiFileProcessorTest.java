@@ -0,0 +1,95 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests of the concurrent per-file processing mode.
+ */
+@DisplayName("Multi File Processor Tests")
+class MultiFileProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Outcomes come back in argument order and a bad file does not affect the others")
+    void testOrderAndIsolation() throws Exception {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Path file = tempDir.resolve("column" + i + ".txt");
+            if (i == 7) {
+                Files.write(file, Arrays.asList("1", "oops", "3"));
+            } else {
+                // File i holds i + 2 values, so each outcome can be matched to its file
+                List<String> lines = new ArrayList<>();
+                for (int j = 0; j < i + 2; j++) {
+                    lines.add(String.valueOf(i * 10 + j));
+                }
+                Files.write(file, lines);
+            }
+            paths.add(file.toString());
+        }
+        paths.add(tempDir.resolve("missing.txt").toString());
+
+        List<MultiFileProcessor.FileOutcome> outcomes = MultiFileProcessor.processFiles(paths, 3, false);
+
+        assertEquals(paths.size(), outcomes.size());
+        for (int i = 0; i < 20; i++) {
+            MultiFileProcessor.FileOutcome outcome = outcomes.get(i);
+            assertEquals(paths.get(i), outcome.getFilePath());
+            if (i == 7) {
+                assertFalse(outcome.isSuccess());
+                assertTrue(outcome.getError() instanceof NumberFormatException);
+            } else {
+                assertTrue(outcome.isSuccess());
+                assertEquals(i + 2, outcome.getCount());
+                assertEquals(i * 10 + (i + 1) / 2.0, outcome.getResult().getMean(), 1e-9);
+            }
+        }
+        MultiFileProcessor.FileOutcome missing = outcomes.get(20);
+        assertFalse(missing.isSuccess());
+        assertTrue(missing.getError() instanceof FileNotFoundException);
+    }
+
+    @Test
+    @DisplayName("Each file gets its own error budget in lenient mode")
+    void testErrorBudget() throws Exception {
+        Path oneBad = tempDir.resolve("one-bad.txt");
+        Path threeBad = tempDir.resolve("three-bad.txt");
+        Files.write(oneBad, Arrays.asList("1", "x", "2", "3"));
+        Files.write(threeBad, Arrays.asList("1", "x", "y", "2", "z", "3"));
+
+        List<MultiFileProcessor.FileOutcome> outcomes = MultiFileProcessor.processFiles(
+                Arrays.asList(oneBad.toString(), threeBad.toString()), 2, true, 2);
+
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals(3, outcomes.get(0).getCount());
+        assertEquals(1, outcomes.get(0).getReport().getBadLineCount());
+        assertFalse(outcomes.get(1).isSuccess());
+
+        List<MultiFileProcessor.FileOutcome> unlimited = MultiFileProcessor.processFiles(
+                Collections.singletonList(threeBad.toString()), 1, true);
+        assertTrue(unlimited.get(0).isSuccess());
+        assertEquals(3, unlimited.get(0).getReport().getBadLineCount());
+    }
+
+    @Test
+    @DisplayName("Invalid arguments are rejected")
+    void testInvalidArguments() {
+        List<String> none = Collections.emptyList();
+        assertThrows(IllegalArgumentException.class, () -> MultiFileProcessor.processFiles(null, 1, false));
+        assertThrows(IllegalArgumentException.class, () -> MultiFileProcessor.processFiles(none, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> MultiFileProcessor.processFiles(none, 1, true, -1));
+    }
+}
@@ -0,0 +1,84 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Unit tests for the OffHeapDoubleColumn class.
+ * Tests direct and memory-mapped storage and consumption by the calculator.
+ */
+@DisplayName("Off-Heap Double Column Tests")
+class OffHeapDoubleColumnTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Values span several chunks")
+    void testAddAndGetAcrossChunks() throws IOException {
+        try (OffHeapDoubleColumn column = new OffHeapDoubleColumn(4, null)) {
+            for (int i = 0; i < 10; i++) {
+                column.add(i * 1.5);
+            }
+
+            assertEquals(10, column.size());
+            assertEquals(0.0, column.get(0));
+            assertEquals(13.5, column.get(9));
+            assertThrows(IndexOutOfBoundsException.class, () -> column.get(10));
+        }
+    }
+
+    @Test
+    @DisplayName("Spilled column deletes its file on close")
+    void testSpillFileDeleted() throws IOException {
+        OffHeapDoubleColumn column = new OffHeapDoubleColumn(4, tempDir);
+        for (int i = 0; i < 9; i++) {
+            column.add(i);
+        }
+        assertTrue(column.isSpilled());
+        assertEquals(8.0, column.get(8));
+
+        column.close();
+
+        try (java.util.stream.Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, () -> column.get(0));
+    }
+
+    @Test
+    @DisplayName("Statistics on a column match statistics on a list")
+    void testStatisticsMatchList() throws IOException {
+        List<Double> values = Arrays.asList(160.0, 591.0, 114.0, 229.0, 230.0, 270.0, 128.0, 1657.0, 624.0, 1503.0);
+        try (OffHeapDoubleColumn column = new OffHeapDoubleColumn(4, null)) {
+            values.forEach(column::add);
+
+            StatisticsCalculator.StatisticsResult expected = StatisticsCalculator.calculateStatistics(values);
+            StatisticsCalculator.StatisticsResult actual = StatisticsCalculator.calculateStatistics(column);
+
+            assertEquals(expected.getMean(), actual.getMean(), 1e-9);
+            assertEquals(expected.getStandardDeviation(), actual.getStandardDeviation(), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Reader fills an off-heap column")
+    void testReadNumbersToColumn() throws IOException {
+        Path file = tempDir.resolve("data.txt");
+        Files.write(file, Arrays.asList("1", "", "2", "3"));
+
+        try (OffHeapDoubleColumn column = new OffHeapDoubleColumn()) {
+            FileDataReader.readNumbersToColumn(file.toString(), column, null);
+
+            assertEquals(3, column.size());
+            assertEquals(2.0, StatisticsCalculator.calculateMean(column));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Unit tests for the RangeStatistics class.
+ * Compares range queries on the segment tree with the statistics of the same sublist.
+ */
+@DisplayName("Range Statistics Tests")
+class RangeStatisticsTest {
+
+    @Test
+    @DisplayName("Range index matches sublist statistics before and after point updates")
+    void testRangeStatistics() {
+        Random random = new Random(9);
+        CustomLinkedList<Double> column = new CustomLinkedList<>();
+        for (int i = 0; i < 1000; i++) {
+            column.add(1e6 + random.nextGaussian());
+        }
+        RangeStatistics index = new RangeStatistics(column);
+
+        for (int round = 0; round < 2; round++) {
+            for (int q = 0; q < 200; q++) {
+                int from = random.nextInt(999);
+                int to = from + 2 + random.nextInt(1000 - from - 1);
+                StatisticsCalculator.StatisticsResult exact =
+                        StatisticsCalculator.calculateStatistics(column.subList(from, to));
+                StatisticsCalculator.StatisticsResult result = index.statistics(from, to);
+                // Relative tolerances: the values sit near 1e6 with unit spread
+                assertEquals(exact.getMean(), result.getMean(), 1e-12 * Math.abs(exact.getMean()));
+                assertEquals(exact.getStandardDeviation(), result.getStandardDeviation(),
+                        1e-9 * exact.getStandardDeviation());
+            }
+            for (int u = 0; u < 100; u++) {
+                int position = random.nextInt(1000);
+                double value = random.nextDouble() * 10;
+                column.set(position, value);
+                index.set(position, value);
+                assertEquals(value, index.get(position));
+            }
+        }
+
+        RangeStatistics small = new RangeStatistics(new double[] {160, 591, 114});
+        assertEquals(160.0, small.mean(0, 1));
+        assertTrue(Double.isNaN(small.standardDeviation(2, 3)));
+        assertThrows(IllegalArgumentException.class, () -> small.statistics(1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> small.mean(2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> small.mean(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new RangeStatistics(new double[0]));
+    }
+
+    @Test
+    @DisplayName("Lists, arrays and off-heap columns build the same index")
+    void testSources() throws IOException {
+        double[] values = {160, 591, 114, 229, 230, 270, 128, 1657, 624, 1503};
+        List<Double> list = new ArrayList<>();
+        for (double value : values) {
+            list.add(value);
+        }
+        RangeStatistics fromArray = new RangeStatistics(values);
+        RangeStatistics fromList = new RangeStatistics(list);
+        RangeStatistics fromColumn;
+        try (OffHeapDoubleColumn column = new OffHeapDoubleColumn()) {
+            for (double value : values) {
+                column.add(value);
+            }
+            fromColumn = new RangeStatistics(column);
+        }
+
+        assertEquals(10, fromArray.size());
+        assertEquals(550.6, fromArray.mean(0, 10), 1e-9);
+        assertEquals(572.03, fromArray.standardDeviation(0, 10), 0.005);
+        for (int from = 0; from < 10; from++) {
+            for (int to = from + 1; to <= 10; to++) {
+                assertEquals(fromArray.mean(from, to), fromList.mean(from, to));
+                assertEquals(fromArray.mean(from, to), fromColumn.mean(from, to));
+                assertEquals(fromArray.variance(from, to), fromColumn.variance(from, to), 0.0);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new RangeStatistics(Arrays.asList(1.0, null)));
+        assertThrows(IllegalArgumentException.class, () -> new RangeStatistics((double[]) null));
+        assertThrows(IndexOutOfBoundsException.class, () -> fromArray.get(10));
+    }
+}
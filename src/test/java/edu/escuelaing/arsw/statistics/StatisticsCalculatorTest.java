@@ -0,0 +1,277 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Unit tests for the StatisticsCalculator class.
+ * Tests the moments and order statistics against known datasets.
+ */
+@DisplayName("Statistics Calculator Tests")
+class StatisticsCalculatorTest {
+
+    private static final List<Double> COLUMN1 = Arrays.asList(
+            160.0, 591.0, 114.0, 229.0, 230.0, 270.0, 128.0, 1657.0, 624.0, 1503.0);
+
+    private static final List<Double> COLUMN2 = Arrays.asList(
+            15.0, 69.9, 6.5, 22.4, 28.4, 65.9, 19.4, 198.7, 38.8, 138.2);
+
+    @Test
+    @DisplayName("Mean and standard deviation of column 1")
+    void testColumn1Statistics() {
+        StatisticsCalculator.StatisticsResult result = StatisticsCalculator.calculateStatistics(COLUMN1);
+
+        assertEquals(550.6, result.getMean(), 0.005);
+        assertEquals(572.03, result.getStandardDeviation(), 0.005);
+    }
+
+    @Test
+    @DisplayName("Median, k-th smallest and quartiles of column 1")
+    void testColumn1OrderStatistics() {
+        assertEquals(250.0, StatisticsCalculator.calculateMedian(COLUMN1));
+        assertEquals(114.0, StatisticsCalculator.calculateKthSmallest(COLUMN1, 1));
+        assertEquals(1657.0, StatisticsCalculator.calculateKthSmallest(COLUMN1, 10));
+        assertEquals(229.0, StatisticsCalculator.calculateKthSmallest(COLUMN1, 4));
+
+        StatisticsCalculator.OrderStatisticsResult summary = StatisticsCalculator.calculateOrderStatistics(COLUMN1);
+        assertEquals(114.0, summary.getMinimum());
+        assertEquals(177.25, summary.getFirstQuartile(), 1e-9);
+        assertEquals(615.75, summary.getThirdQuartile(), 1e-9);
+        assertEquals(1657.0, summary.getMaximum());
+        assertEquals(438.5, StatisticsCalculator.calculateInterquartileRange(COLUMN1), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Trimmed mean drops values from both ends")
+    void testTrimmedMean() {
+        List<Double> values = Arrays.asList(1.0, 2.0, 3.0, 4.0, 100.0);
+
+        assertEquals(22.0, StatisticsCalculator.calculateTrimmedMean(values, 0.0), 1e-9);
+        assertEquals(3.0, StatisticsCalculator.calculateTrimmedMean(values, 0.2), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> StatisticsCalculator.calculateTrimmedMean(values, 0.5));
+    }
+
+    @Test
+    @DisplayName("Multi-rank selection agrees with sorting")
+    void testSelectionMatchesSort() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 1 + random.nextInt(2000);
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                // Few distinct values in some trials to exercise duplicate handling
+                values[i] = trial % 3 == 0 ? random.nextInt(5) : random.nextGaussian();
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            int[] ranks = {random.nextInt(n), random.nextInt(n), 0, n - 1};
+
+            Selection.select(values, ranks);
+
+            for (int rank : ranks) {
+                assertEquals(sorted[rank], values[rank]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Order statistics reject invalid input")
+    void testOrderStatisticsInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> StatisticsCalculator.calculateMedian(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class,
+                () -> StatisticsCalculator.calculateMedian(Arrays.asList(1.0, Double.NaN)));
+        assertThrows(IllegalArgumentException.class,
+                () -> StatisticsCalculator.calculateKthSmallest(COLUMN1, 11));
+    }
+
+    @Test
+    @DisplayName("Single pass with histogram matches the two-pass calculation")
+    void testSinglePassWithHistogram() {
+        ValueHistogram histogram = ValueHistogram.fixedWidth(0, 2000, 4);
+        StatisticsCalculator.StatisticsResult result = StatisticsCalculator.calculateStatistics(COLUMN1, histogram);
+
+        assertEquals(550.6, result.getMean(), 1e-9);
+        assertEquals(572.03, result.getStandardDeviation(), 0.005);
+        assertArrayEquals(new long[] {6, 2, 0, 2}, histogram.getCounts());
+        assertEquals(10, histogram.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Merged accumulators and histograms equal a single pass")
+    void testMergeChunks() {
+        RunningStatistics whole = new RunningStatistics();
+        RunningStatistics first = new RunningStatistics();
+        RunningStatistics second = new RunningStatistics();
+        ValueHistogram wholeHistogram = ValueHistogram.hdr(1, 1e6, 3);
+        ValueHistogram firstHistogram = wholeHistogram.emptyCopy();
+        ValueHistogram secondHistogram = wholeHistogram.emptyCopy();
+        for (int i = 0; i < COLUMN1.size(); i++) {
+            double value = COLUMN1.get(i);
+            whole.andThen(wholeHistogram).accept(value);
+            (i < 3 ? first.andThen(firstHistogram) : second.andThen(secondHistogram)).accept(value);
+        }
+
+        first.merge(second);
+        firstHistogram.merge(secondHistogram);
+
+        assertEquals(whole.getCount(), first.getCount());
+        assertEquals(whole.getMean(), first.getMean(), 1e-9);
+        assertEquals(whole.getStandardDeviation(), first.getStandardDeviation(), 1e-9);
+        assertEquals(114.0, first.getMin());
+        assertEquals(1657.0, first.getMax());
+        assertArrayEquals(wholeHistogram.getCounts(), firstHistogram.getCounts());
+        assertThrows(IllegalArgumentException.class,
+                () -> firstHistogram.merge(ValueHistogram.logarithmic(1, 1e6, 10)));
+    }
+
+    @Test
+    @DisplayName("Histogram layouts place values in the expected buckets")
+    void testHistogramLayouts() {
+        ValueHistogram log = ValueHistogram.logarithmic(1, 1000, 3);
+        log.accept(5);
+        log.accept(50);
+        log.accept(1000);
+        log.accept(0.5);
+        assertArrayEquals(new long[] {1, 1, 1}, log.getCounts());
+        assertEquals(1, log.getUnderflowCount());
+
+        ValueHistogram hdr = ValueHistogram.hdr(1, 1024, 2);
+        hdr.accept(1.3);
+        int bucket = -1;
+        for (int i = 0; i < hdr.getBucketCount(); i++) {
+            if (hdr.getCount(i) == 1) {
+                bucket = i;
+            }
+        }
+        assertEquals(1.25, hdr.getLowerBound(bucket));
+        assertEquals(1.5, hdr.getUpperBound(bucket));
+        hdr.accept(2048);
+        assertEquals(1, hdr.getOverflowCount());
+    }
+
+    @Test
+    @DisplayName("HyperLogLog estimates distinct counts within its error bound")
+    void testHyperLogLog() {
+        HyperLogLog small = new HyperLogLog(12);
+        COLUMN1.forEach(small::accept);
+        COLUMN1.forEach(small::accept);
+        assertEquals(10, small.estimate());
+
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            (i % 2 == 0 ? first : second).accept(i * 0.1);
+            second.accept(i * 0.1);
+        }
+        first.merge(second);
+
+        double error = Math.abs(first.estimate() - distinct) / (double) distinct;
+        assertTrue(error < 4 * first.getRelativeStandardError(), "error " + error);
+        assertEquals(first.estimate(), HyperLogLog.fromByteArray(first.toByteArray()).estimate());
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(10)));
+
+        // A precision-14 register holds at most 64 - 14 + 1 = 51
+        byte[] registers = new byte[1 << 14];
+        registers[3] = 51;
+        assertEquals(51, HyperLogLog.fromByteArray(registers).toByteArray()[3]);
+        registers[3] = 52;
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromByteArray(registers));
+        registers[3] = -1;
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromByteArray(registers));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromByteArray(new byte[100]));
+
+        // Longs above 2^53 that round to the same double stay distinct
+        HyperLogLog longs = new HyperLogLog(12);
+        HyperLogLog doubles = new HyperLogLog(12);
+        for (long i = 0; i < 100; i++) {
+            longs.accept((1L << 60) + i);
+            doubles.accept((double) ((1L << 60) + i));
+        }
+        assertEquals(100, longs.estimate(), 5);
+        assertEquals(1, doubles.estimate());
+    }
+
+    @Test
+    @DisplayName("Integer statistics keep the sum exact past the long range")
+    void testLongStatistics() {
+        long[] values = {Long.MAX_VALUE, Long.MAX_VALUE, 2};
+        LongStatistics stats = StatisticsCalculator.calculateLongStatistics(values);
+
+        assertEquals(new BigInteger("18446744073709551616"), stats.getSum());
+        assertThrows(ArithmeticException.class, stats::getSumAsLong);
+        assertEquals(2, stats.getMin());
+        assertEquals(6.148914691236517E18, stats.getMean(), 1e3);
+
+        long base = 1L << 60;
+        LongStatistics clustered = new LongStatistics();
+        LongStatistics other = new LongStatistics();
+        clustered.accept(base + 1);
+        clustered.accept(base + 2);
+        other.accept(base + 3);
+        clustered.merge(other);
+        assertEquals(1.0, clustered.getStandardDeviation(), 1e-12);
+
+        // The mean 2^60 + 128.33 lies just above the midpoint between two doubles 256 apart;
+        // rounding to 16 decimal digits first would land below it
+        LongStatistics nearMidpoint = StatisticsCalculator.calculateLongStatistics(
+                new long[] {base, base, base + 385});
+        assertEquals((double) (base + 256), nearMidpoint.getMean());
+        assertEquals((double) -(base + 256), StatisticsCalculator.calculateLongStatistics(
+                new long[] {-base, -base, -base - 385}).getMean());
+
+        StatisticsCalculator.StatisticsResult ints = StatisticsCalculator.calculateStatistics(
+                new int[] {160, 591, 114, 229, 230, 270, 128, 1657, 624, 1503});
+        assertEquals(550.6, ints.getMean(), 1e-12);
+        assertEquals(572.03, ints.getStandardDeviation(), 0.005);
+    }
+
+    @Test
+    @DisplayName("Covariance, correlation and regression of column 1 against column 2")
+    void testRegression() {
+        StatisticsCalculator.RegressionResult result = StatisticsCalculator.calculateRegression(COLUMN1, COLUMN2);
+
+        assertEquals(33937.72, result.getCovariance(), 1e-6);
+        assertEquals(0.95299, result.getCorrelation(), 1e-5);
+        assertEquals(0.10372, result.getBeta1(), 1e-5);
+        assertEquals(3.21343, result.getBeta0(), 1e-5);
+
+        PairedStatistics first = new PairedStatistics();
+        PairedStatistics second = new PairedStatistics();
+        for (int i = 0; i < COLUMN1.size(); i++) {
+            (i < 3 ? first : second).accept(COLUMN1.get(i), COLUMN2.get(i));
+        }
+        assertEquals(result.getCorrelation(), first.merge(second).getCorrelation(), 1e-12);
+        assertThrows(IllegalArgumentException.class,
+                () -> StatisticsCalculator.calculateRegression(COLUMN1, COLUMN2.subList(0, 5)));
+    }
+
+    @Test
+    @DisplayName("Reservoir sample estimates the mean within its confidence interval")
+    void testReservoirEstimate() {
+        assertEquals(1.959964, SampledStatistics.normalQuantile(0.975), 1e-6);
+
+        ReservoirSampler sampler = new ReservoirSampler(1000, new Random(7));
+        for (int i = 1; i <= 100_000; i++) {
+            sampler.accept(i);
+        }
+        assertEquals(100_000, sampler.getSeenCount());
+        assertEquals(1000, sampler.getSampleSize());
+
+        SampledStatistics estimate = sampler.toEstimate(0.99);
+        assertTrue(estimate.getMeanLow() < 50_000.5 && 50_000.5 < estimate.getMeanHigh(), estimate.toString());
+        assertTrue(estimate.getStandardDeviationLow() < 28_867.7 && 28_867.7 < estimate.getStandardDeviationHigh(),
+                estimate.toString());
+
+        ReservoirSampler whole = new ReservoirSampler(100);
+        COLUMN1.forEach(whole::accept);
+        SampledStatistics exact = whole.toEstimate(0.95);
+        assertEquals(550.6, exact.getMean(), 1e-9);
+        assertEquals(0.0, exact.getMeanMargin(), 1e-12);
+    }
+}
@@ -0,0 +1,197 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end tests of the distributed mode with several workers on the loopback interface.
+ */
+@DisplayName("Statistics Coordinator Tests")
+class StatisticsCoordinatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<StatisticsWorker> workers = new ArrayList<>();
+    private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+    @BeforeEach
+    void startWorkers() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            StatisticsWorker worker = new StatisticsWorker(0, 2);
+            worker.start();
+            workers.add(worker);
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), worker.getPort()));
+        }
+    }
+
+    @AfterEach
+    void stopWorkers() {
+        workers.forEach(StatisticsWorker::close);
+    }
+
+    @Test
+    @DisplayName("Small ranges across workers visit every line exactly once")
+    void testDistributedMatchesLocal() throws Exception {
+        Random random = new Random(5);
+        StringBuilder content = new StringBuilder();
+        List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            double value = Math.round(random.nextGaussian() * 1000) / 10.0;
+            expected.add(value);
+            // Mixed line endings and blank lines exercise the range boundaries
+            content.append(value).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                content.append('\n');
+            }
+        }
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+        Files.write(first, content.toString().getBytes(StandardCharsets.US_ASCII));
+        Files.write(second, Arrays.asList("1", "2", "3"));
+        expected.addAll(Arrays.asList(1.0, 2.0, 3.0));
+
+        StatisticsCoordinator coordinator = new StatisticsCoordinator(addresses, 37, 3, 10_000);
+        StatisticsCoordinator.JobResult job = coordinator.computeStatistics(
+                Arrays.asList(first.toString(), second.toString()), null);
+
+        StatisticsCalculator.StatisticsResult exact = StatisticsCalculator.calculateStatistics(expected);
+        assertEquals(expected.size(), job.getStatistics().getCount());
+        assertEquals(exact.getMean(), job.toResult().getMean(), 1e-9);
+        assertEquals(exact.getStandardDeviation(), job.toResult().getStandardDeviation(), 1e-9);
+        assertTrue(job.getTaskCount() > 100);
+        assertEquals(0, job.getRetryCount());
+    }
+
+    @Test
+    @DisplayName("Ranges sent to an unreachable worker are retried on the others")
+    void testRetryOnDeadWorker() throws Exception {
+        int deadPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            deadPort = socket.getLocalPort();
+        }
+        List<InetSocketAddress> withDead = new ArrayList<>(addresses);
+        withDead.add(0, new InetSocketAddress(InetAddress.getLoopbackAddress(), deadPort));
+        Path file = tempDir.resolve("column.txt");
+        Files.write(file, Arrays.asList("160", "591", "114", "229", "230", "270", "128", "1657", "624", "1503"));
+
+        StatisticsCoordinator coordinator = new StatisticsCoordinator(withDead, 8, 3, 10_000);
+        StatisticsCoordinator.JobResult job = coordinator.computeStatistics(
+                Collections.singletonList(file.toString()), null);
+
+        assertEquals(550.6, job.toResult().getMean(), 1e-9);
+        assertEquals(572.03, job.toResult().getStandardDeviation(), 0.005);
+        assertTrue(job.getRetryCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Invalid lines fail in strict mode and are counted in lenient mode")
+    void testInvalidLines() throws Exception {
+        Path file = tempDir.resolve("invalid.txt");
+        Files.write(file, Arrays.asList("1", "abc", "2", "3", "x"));
+        StatisticsCoordinator coordinator = new StatisticsCoordinator(addresses, 4, 3, 10_000);
+        List<String> files = Collections.singletonList(file.toString());
+
+        assertThrows(NumberFormatException.class, () -> coordinator.computeStatistics(files, null));
+
+        ParseReport report = new ParseReport();
+        StatisticsCoordinator.JobResult job = coordinator.computeStatistics(files, report);
+        assertEquals(2.0, job.toResult().getMean(), 1e-12);
+        assertEquals(2, report.getBadLineCount());
+        assertEquals(3, report.getValuesParsed());
+
+        assertThrows(NumberFormatException.class, () -> coordinator.computeStatistics(files, new ParseReport(1)));
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Worker processes started from the command line serve a job and survive a killed peer")
+    void testWorkerProcesses() throws Exception {
+        Path file = tempDir.resolve("column.txt");
+        List<String> lines = new ArrayList<>();
+        List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lines.add(String.valueOf(i % 37));
+            expected.add((double) (i % 37));
+        }
+        Files.write(file, lines);
+        List<String> files = Collections.singletonList(file.toString());
+        StatisticsCalculator.StatisticsResult exact = StatisticsCalculator.calculateStatistics(expected);
+
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<InetSocketAddress> remote = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Process process = startWorkerProcess();
+                processes.add(process);
+                remote.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), readWorkerPort(process)));
+            }
+
+            StatisticsCoordinator coordinator = new StatisticsCoordinator(remote, 64, 3, 10_000);
+            StatisticsCoordinator.JobResult job = coordinator.computeStatistics(files, null);
+            assertEquals(expected.size(), job.getStatistics().getCount());
+            assertEquals(exact.getMean(), job.toResult().getMean(), 1e-9);
+            assertEquals(0, job.getRetryCount());
+
+            Process killed = processes.get(0);
+            killed.destroyForcibly();
+            killed.waitFor();
+            job = coordinator.computeStatistics(files, null);
+            assertEquals(expected.size(), job.getStatistics().getCount());
+            assertEquals(exact.getStandardDeviation(), job.toResult().getStandardDeviation(), 1e-9);
+            assertTrue(job.getRetryCount() > 0);
+        } finally {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Starts {@code StatisticsApp --worker 0} in a separate JVM on the compiled classes.
+     */
+    private static Process startWorkerProcess() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classes = Paths.get(StatisticsApp.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .toString();
+        return new ProcessBuilder(java, "-cp", classes, StatisticsApp.class.getName(), "--worker", "0",
+                "--workers", "2").redirectErrorStream(true).start();
+    }
+
+    /**
+     * Reads the port from the line a worker process prints once it is listening.
+     */
+    private static int readWorkerPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        Pattern listening = Pattern.compile("listening on .*:(\\d+) ");
+        String line;
+        while ((line = reader.readLine()) != null) {
+            Matcher matcher = listening.matcher(line);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+        throw new IOException("Worker process exited before listening");
+    }
+}
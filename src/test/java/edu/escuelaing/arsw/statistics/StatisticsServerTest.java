@@ -0,0 +1,208 @@
+package edu.escuelaing.arsw.statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests of the HTTP service on an ephemeral loopback port.
+ */
+@DisplayName("Statistics Server Tests")
+class StatisticsServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private StatisticsServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StatisticsServer(0, 2);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Statistics of a file on disk")
+    void testFileRequest() throws IOException {
+        Path file = tempDir.resolve("numbers.txt");
+        Files.write(file, Arrays.asList("2", "4", "4", "4", "5", "5", "7", "9"));
+
+        Response response = request("POST", "/stats?file=" + URLEncoder.encode(file.toString(), "UTF-8"), null);
+
+        assertEquals(200, response.status);
+        Map<String, String> fields = response.fields();
+        assertEquals("8", fields.get("count"));
+        assertEquals(5.0, Double.parseDouble(fields.get("mean")), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7), Double.parseDouble(fields.get("standardDeviation")), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Statistics of a POST body, skipping invalid lines when lenient")
+    void testPostBody() throws IOException {
+        Response response = request("POST", "/stats?lenient=true", "1\n2\noops\n3\n");
+
+        assertEquals(200, response.status);
+        Map<String, String> fields = response.fields();
+        assertEquals("3", fields.get("count"));
+        assertEquals(2.0, Double.parseDouble(fields.get("mean")), 1e-12);
+        assertEquals("1", fields.get("invalidLines"));
+    }
+
+    @Test
+    @DisplayName("Bad requests and missing files are reported with their status")
+    void testErrors() throws IOException {
+        assertEquals(400, request("POST", "/stats", "1\noops\n3\n").status);
+        assertEquals(400, request("POST", "/stats?file=x&maxBadLines=abc", null).status);
+
+        Path missing = tempDir.resolve("missing.txt");
+        Response response = request("POST", "/stats?file=" + URLEncoder.encode(missing.toString(), "UTF-8"), null);
+        assertEquals(404, response.status);
+        assertTrue(response.body.startsWith("error="));
+    }
+
+    @Test
+    @DisplayName("Only POST requests addressed to a loopback host name are served")
+    void testRequestFiltering() throws IOException {
+        Path file = tempDir.resolve("numbers.txt");
+        Files.write(file, Arrays.asList("1", "2"));
+        String query = "/stats?file=" + URLEncoder.encode(file.toString(), "UTF-8");
+
+        assertEquals(405, request("GET", query, null).status);
+        assertTrue(rawRequest("POST " + query + " HTTP/1.1\r\nHost: localhost:" + server.getPort()
+                + "\r\nContent-Length: 0\r\n\r\n").startsWith("HTTP/1.1 200"));
+        // A rebound public name reaches the loopback socket but is refused
+        assertTrue(rawRequest("POST " + query + " HTTP/1.1\r\nHost: attacker.example:" + server.getPort()
+                + "\r\nContent-Length: 0\r\n\r\n").startsWith("HTTP/1.1 403"));
+        assertTrue(rawRequest("POST " + query + " HTTP/1.1\r\nHost: 127.0.0.1\r\nOrigin: http://attacker.example"
+                + "\r\nContent-Length: 0\r\n\r\n").startsWith("HTTP/1.1 403"));
+        assertTrue(rawRequest("GET /metrics HTTP/1.1\r\nHost: attacker.example\r\n\r\n").startsWith("HTTP/1.1 403"));
+    }
+
+    @Test
+    @DisplayName("Request bodies over the size limit are rejected, with or without a length")
+    void testBodyLimit() throws IOException {
+        try (StatisticsServer small = new StatisticsServer(0, 1, 16)) {
+            small.start();
+            int port = small.getPort();
+            assertEquals(200, request(port, "POST", "/stats", "1\n2\n3\n").status);
+            assertEquals(413, request(port, "POST", "/stats", "1\n2\n3\n4\n5\n6\n7\n8\n9\n").status);
+            assertTrue(rawRequest(port, "POST /stats HTTP/1.1\r\nHost: 127.0.0.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "12\r\n1\n2\n3\n4\n5\n6\n7\n8\n9\n\r\n0\r\n\r\n").startsWith("HTTP/1.1 413"));
+            // Refused and failed requests are still counted
+            assertEquals(3, small.getMetrics().getRequests());
+            assertEquals(2, small.getMetrics().getFailures());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new StatisticsServer(0, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Metrics count served and failed requests")
+    void testMetrics() throws IOException {
+        request("POST", "/stats", "1\n2\n3\n");
+        request("POST", "/stats", null);
+
+        Response response = request("GET", "/metrics", null);
+
+        assertEquals(200, response.status);
+        Map<String, String> fields = response.fields();
+        assertEquals("2", fields.get("requests"));
+        assertEquals("1", fields.get("failures"));
+        assertEquals(2, server.getMetrics().getRequests());
+        assertEquals(1, server.getMetrics().getFailures());
+        assertTrue(server.getMetrics().getMaxMicros() >= server.getMetrics().getMeanMicros());
+    }
+
+    private Response request(String method, String path, String body) throws IOException {
+        return request(server.getPort(), method, path, body);
+    }
+
+    private Response request(int port, String method, String path, String body) throws IOException {
+        URL url = new URL("http", "127.0.0.1", port, path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                return new Response(status, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Sends a request as written, for headers that HttpURLConnection does not let callers set,
+     * and returns the response up to the end of its headers.
+     */
+    private String rawRequest(String request) throws IOException {
+        return rawRequest(server.getPort(), request);
+    }
+
+    private static String rawRequest(int port, String request) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            StringBuilder head = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                head.append(line).append('\n');
+            }
+            return head.toString();
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        Map<String, String> fields() {
+            Map<String, String> fields = new HashMap<>();
+            for (String line : body.split("\n")) {
+                int eq = line.indexOf('=');
+                if (eq > 0) {
+                    fields.put(line.substring(0, eq), line.substring(eq + 1));
+                }
+            }
+            return fields;
+        }
+    }
+}